@@ -0,0 +1,47 @@
+package Algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Blocked Floyd-Warshall against Dijkstra from every source across densities, to place
+ * ApspMode.FLOYD_WARSHALL_DENSITY on the machine at hand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AllPairsShortestPathsBenchmark {
+
+    @Param({"500", "2000"})
+    int vertices;
+
+    @Param({"0.01", "0.1", "0.5"})
+    double density;
+
+    @Param({"FLOYD_WARSHALL", "REPEATED_DIJKSTRA"})
+    ApspMode mode;
+
+    private CsrGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerator.withDensity(vertices, density, true, 42);
+    }
+
+    @Benchmark
+    public DistanceMatrix distanceMatrix() {
+        if (mode == ApspMode.REPEATED_DIJKSTRA) {
+            return AllPairsShortestPaths.repeatedDijkstra(graph);
+        }
+        return AllPairsShortestPaths.floydWarshall(graph, ForkJoinPool.commonPool());
+    }
+}
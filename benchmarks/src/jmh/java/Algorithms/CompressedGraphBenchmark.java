@@ -0,0 +1,83 @@
+package Algorithms;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Decode overhead of CompressedGraph: the same Dijkstra queries, edge extraction for
+ * Kruskal and topological sort on a CsrGraph and on its compressed copy. The memory
+ * saved is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CompressedGraphBenchmark {
+
+    private static final int SOURCES = 64;
+
+    @Param({"RANDOM", "GRID", "ROAD", "DAG"})
+    GraphGenerator.Shape shape;
+
+    @Param({"100000", "1000000", "10000000"})
+    int edges;
+
+    private CsrGraph graph;
+    private CompressedGraph compressed;
+    private DijkstraWorkspace workspace;
+    private int[] sources;
+    private int nextSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerator.generate(shape, edges, false, 42);
+        compressed = CompressedGraph.of(graph);
+        System.out.println(compressed.describeCompression());
+        workspace = new DijkstraWorkspace(graph.vertexCount(), HeapType.QUATERNARY);
+        SplittableRandom random = new SplittableRandom(7);
+        sources = new int[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = random.nextInt(graph.vertexCount());
+        }
+    }
+
+    @Benchmark
+    public int dijkstra() {
+        DijkstraShortestPath.calculateShortestPaths(graph, sources[nextSource++ % SOURCES], workspace);
+        return workspace.getSettledCount();
+    }
+
+    @Benchmark
+    public int dijkstraCompressed() {
+        DijkstraShortestPath.calculateShortestPaths(compressed, sources[nextSource++ % SOURCES], workspace);
+        return workspace.getSettledCount();
+    }
+
+    @Benchmark
+    public EdgeArrays edgeScan() {
+        return EdgeArrays.of(graph);
+    }
+
+    @Benchmark
+    public EdgeArrays edgeScanCompressed() {
+        return EdgeArrays.of(compressed);
+    }
+
+    @Benchmark
+    public TopologicalLevels kahn() {
+        return new KahnTopologicalSort(graph).sort();
+    }
+
+    @Benchmark
+    public TopologicalLevels kahnCompressed() {
+        return KahnTopologicalSort.sort(compressed);
+    }
+}
@@ -0,0 +1,57 @@
+package Algorithms;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Single-source Dijkstra from a rotating set of sources, reusing one workspace the
+ * way DijkstraBatchQuery does. Throughput and sampled latency per query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DijkstraBenchmark {
+
+    private static final int SOURCES = 64;
+
+    @Param({"RANDOM", "GRID", "SCALE_FREE", "ROAD"})
+    GraphGenerator.Shape shape;
+
+    @Param({"28", "100000", "1000000", "10000000"})
+    int edges;
+
+    @Param({"BINARY", "QUATERNARY", "RADIX"})
+    HeapType heapType;
+
+    private CsrGraph graph;
+    private DijkstraWorkspace workspace;
+    private int[] sources;
+    private int nextSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerator.generate(shape, edges, true, 42);
+        workspace = new DijkstraWorkspace(graph.vertexCount(), heapType);
+        SplittableRandom random = new SplittableRandom(7);
+        sources = new int[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = random.nextInt(graph.vertexCount());
+        }
+    }
+
+    @Benchmark
+    public int singleSource() {
+        int source = sources[nextSource++ % SOURCES];
+        DijkstraShortestPath.calculateShortestPaths(graph, source, workspace);
+        return workspace.getSettledCount();
+    }
+}
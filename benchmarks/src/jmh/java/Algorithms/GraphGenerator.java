@@ -0,0 +1,186 @@
+package Algorithms;
+
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic graphs for the benchmarks, built straight into a CsrGraph. Every shape
+ * is sized by its edge count, from the size of the sample files in ipfiles up to
+ * 10^7 edges, and is the same for the same seed. Weights are positive.
+ */
+public final class GraphGenerator {
+
+    // Edge count of the sample files in ipfiles
+    public static final int SAMPLE_EDGES = 28;
+
+    public enum Shape {
+        // Uniformly random edges, average degree 8
+        RANDOM,
+        // Square grid, edges to the right and down neighbour
+        GRID,
+        // Preferential attachment, 4 edges per new vertex; a few hubs, many leaves
+        SCALE_FREE,
+        // Grid with missing streets and weights from jittered coordinates, plus fast highways
+        ROAD,
+        // Edges only from lower to higher vertex in a random order, average degree 8
+        DAG
+    }
+
+    private static final int MAX_WEIGHT = 1000;
+
+    private GraphGenerator() {
+    }
+
+    /**
+     * Generates a graph.
+     *
+     * shape Shape of the graph.
+     * edges Number of edges to aim for; shapes with a fixed structure round it.
+     * directed Whether edges are one-way; DAGs always are.
+     * seed Random seed.
+     * return The graph.
+     */
+    public static CsrGraph generate(Shape shape, int edges, boolean directed, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        switch (shape) {
+            case GRID:
+                return grid(edges, directed, random, false);
+            case SCALE_FREE:
+                return scaleFree(edges, directed, random);
+            case ROAD:
+                return grid(edges, directed, random, true);
+            case DAG:
+                return dag(edges, random);
+            default:
+                return uniform(edges, directed, random);
+        }
+    }
+
+    /**
+     * Generates a uniformly random graph with a given fraction of all possible arcs,
+     * for algorithms whose cost depends on density rather than size.
+     *
+     * vertices Number of vertices.
+     * density Fraction of the V * (V - 1) possible arcs; undirected edges count twice.
+     * directed Whether edges are one-way.
+     * seed Random seed.
+     * return The graph.
+     */
+    public static CsrGraph withDensity(int vertices, double density, boolean directed, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int edges = (int) (density * vertices * (vertices - 1) / (directed ? 1 : 2));
+        CsrGraph.Builder builder = builder(directed, vertices, edges);
+        for (int i = 0; i < edges; i++) {
+            builder.addEdge(random.nextInt(vertices), random.nextInt(vertices), 1 + random.nextInt(MAX_WEIGHT));
+        }
+        return builder.build();
+    }
+
+    private static CsrGraph.Builder builder(boolean directed, int vertices, int edges) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(directed, vertices, edges);
+        for (int v = 0; v < vertices; v++) {
+            builder.labels().intern("v" + v);
+        }
+        return builder;
+    }
+
+    private static CsrGraph uniform(int edges, boolean directed, SplittableRandom random) {
+        int vertices = Math.max(2, edges / 4);
+        CsrGraph.Builder builder = builder(directed, vertices, edges);
+        for (int i = 0; i < edges; i++) {
+            builder.addEdge(random.nextInt(vertices), random.nextInt(vertices), 1 + random.nextInt(MAX_WEIGHT));
+        }
+        return builder.build();
+    }
+
+    private static CsrGraph scaleFree(int edges, boolean directed, SplittableRandom random) {
+        int perVertex = 4;
+        int vertices = Math.max(perVertex + 1, edges / perVertex);
+        CsrGraph.Builder builder = builder(directed, vertices, edges);
+        // Every edge end is recorded once, so picking a uniform end picks by degree
+        int[] ends = new int[2 * edges + 2];
+        int endCount = 0;
+        ends[endCount++] = 0;
+        int added = 0;
+        for (int v = 1; v < vertices && added < edges; v++) {
+            for (int k = 0; k < perVertex && added < edges; k++) {
+                int target = ends[random.nextInt(endCount)];
+                builder.addEdge(v, target, 1 + random.nextInt(MAX_WEIGHT));
+                added++;
+                if (endCount + 2 <= ends.length) {
+                    ends[endCount++] = v;
+                    ends[endCount++] = target;
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static CsrGraph grid(int edges, boolean directed, SplittableRandom random, boolean road) {
+        int side = Math.max(2, (int) Math.sqrt(edges / 2.0));
+        int vertices = side * side;
+        CsrGraph.Builder builder = builder(directed, vertices, edges + edges / 10);
+        // Road vertices sit near their grid point; weights are scaled distances
+        double[] xs = new double[vertices];
+        double[] ys = new double[vertices];
+        for (int v = 0; v < vertices; v++) {
+            xs[v] = v % side + (road ? random.nextDouble() * 0.6 - 0.3 : 0);
+            ys[v] = v / side + (road ? random.nextDouble() * 0.6 - 0.3 : 0);
+        }
+        for (int v = 0; v < vertices; v++) {
+            int x = v % side;
+            int y = v / side;
+            if (x + 1 < side) addStreet(builder, v, v + 1, xs, ys, random, road);
+            if (y + 1 < side) addStreet(builder, v, v + side, xs, ys, random, road);
+        }
+        if (road) {
+            // Long straight highways, cheaper per unit of distance than streets
+            int highways = Math.max(1, vertices / 100);
+            for (int i = 0; i < highways; i++) {
+                int from = random.nextInt(vertices);
+                int to = random.nextInt(vertices);
+                int weight = 1 + (int) (distance(xs, ys, from, to) * 40);
+                builder.addEdge(from, to, weight);
+                if (directed) builder.addEdge(to, from, weight);
+            }
+        }
+        return builder.build();
+    }
+
+    private static void addStreet(CsrGraph.Builder builder, int u, int v, double[] xs, double[] ys,
+                                  SplittableRandom random, boolean road) {
+        if (!road) {
+            builder.addEdge(u, v, 1 + random.nextInt(MAX_WEIGHT));
+            return;
+        }
+        if (random.nextInt(10) == 0) return; // missing street
+        builder.addEdge(u, v, 1 + (int) (distance(xs, ys, u, v) * 100));
+    }
+
+    private static double distance(double[] xs, double[] ys, int u, int v) {
+        return Math.hypot(xs[u] - xs[v], ys[u] - ys[v]);
+    }
+
+    private static CsrGraph dag(int edges, SplittableRandom random) {
+        int vertices = Math.max(2, edges / 8);
+        // Vertex ids are shuffled so the order is not just the ids
+        int[] rank = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            rank[v] = v;
+        }
+        for (int v = vertices - 1; v > 0; v--) {
+            int other = random.nextInt(v + 1);
+            int swap = rank[v];
+            rank[v] = rank[other];
+            rank[other] = swap;
+        }
+        CsrGraph.Builder builder = builder(true, vertices, edges);
+        for (int i = 0; i < edges; i++) {
+            int from = random.nextInt(vertices - 1);
+            // Mostly short dependencies, some long ones
+            int span = random.nextInt(4) == 0 ? vertices - 1 - from : Math.min(64, vertices - 1 - from);
+            int to = from + 1 + random.nextInt(span);
+            builder.addEdge(rank[from], rank[to], 1 + random.nextInt(MAX_WEIGHT));
+        }
+        return builder.build();
+    }
+}
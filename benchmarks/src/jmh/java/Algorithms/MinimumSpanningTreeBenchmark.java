@@ -0,0 +1,56 @@
+package Algorithms;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Minimum spanning forest of an undirected graph in every mode that scales to sparse
+ * graphs. DENSE_PRIM is left out: it is O(V^2) and meant for graphs near complete.
+ * The Kruskal and Boruvka modes start from packed edges, which MinimumSpanningTree
+ * builds while reading; Prim's run includes mapping arcs to edge ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MinimumSpanningTreeBenchmark {
+
+    @Param({"RANDOM", "GRID", "SCALE_FREE", "ROAD"})
+    GraphGenerator.Shape shape;
+
+    @Param({"28", "100000", "1000000", "10000000"})
+    int edges;
+
+    @Param({"PACKED_RADIX", "FILTER_KRUSKAL", "BORUVKA", "HEAP_PRIM"})
+    MstMode mode;
+
+    private CsrGraph graph;
+    private EdgeArrays packedEdges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerator.generate(shape, edges, false, 42);
+        packedEdges = EdgeArrays.of(graph);
+    }
+
+    @Benchmark
+    public int[] spanningForest() {
+        switch (mode) {
+            case FILTER_KRUSKAL:
+                return new PackedKruskal(packedEdges).filterKruskal();
+            case BORUVKA:
+                return new ParallelBoruvka(packedEdges).minimumSpanningForest();
+            case HEAP_PRIM:
+                return new PrimMinimumSpanningTree(graph).heapPrim();
+            default:
+                return new PackedKruskal(packedEdges).radixKruskal();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package Algorithms;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Kahn topological sort of a random DAG, on one thread and with parallel frontiers,
+ * and the strongly connected components pass that TopologicalSort runs first to
+ * check that the graph is acyclic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TopologicalSortBenchmark {
+
+    @Param({"28", "100000", "1000000", "10000000"})
+    int edges;
+
+    private CsrGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerator.generate(GraphGenerator.Shape.DAG, edges, true, 42);
+    }
+
+    @Benchmark
+    public TopologicalLevels kahn() {
+        return new KahnTopologicalSort(graph).sort();
+    }
+
+    @Benchmark
+    public TopologicalLevels parallelKahn() {
+        return new KahnTopologicalSort(graph).parallelSort();
+    }
+
+    @Benchmark
+    public StronglyConnectedComponents components() {
+        return new StronglyConnectedComponents(graph);
+    }
+}
@@ -0,0 +1,87 @@
+package Algorithms;
+
+/**
+ * The arrays behind a CsrGraph: arc offsets per vertex, then the target and weight of
+ * every arc. CsrGraph reads them only through this class, so the algorithms run the
+ * same whether the arrays are on the Java heap or outside it.
+ *
+ * Arc ids are ints, so a graph holds at most Integer.MAX_VALUE arcs: that many directed
+ * edges, or half as many undirected ones.
+ */
+public abstract class AdjacencyStorage {
+
+    AdjacencyStorage() {
+    }
+
+    /**
+     * Creates storage of the same kind as this one for the given offsets, with every
+     * arc still to be filled in through setArc.
+     *
+     * offsets Start of every vertex's arcs, followed by the arc count.
+     * return The new storage.
+     */
+    abstract AdjacencyStorage allocateLike(int[] offsets);
+
+    abstract void setArc(int arc, int target, int weight);
+
+    public abstract int vertexCount();
+
+    public abstract int arcCount();
+
+    public abstract int firstArc(int vertex);
+
+    public abstract int endArc(int vertex);
+
+    public abstract int target(int arc);
+
+    public abstract int weight(int arc);
+
+    /**
+     * Whether the arrays live outside the Java heap, where the garbage collector never
+     * scans or copies them.
+     */
+    public abstract boolean isOffHeap();
+
+    /**
+     * Creates a cursor over the arcs of one vertex at a time.
+     */
+    public NeighborCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Bytes taken by the offsets, targets and weights.
+     */
+    public long sizeInBytes() {
+        return ((long) vertexCount() + 1 + 2L * arcCount()) * Integer.BYTES;
+    }
+
+    /**
+     * Steps through the arc ids firstArc(vertex) .. endArc(vertex) - 1.
+     */
+    private final class Cursor implements NeighborCursor {
+        private int arc;
+        private int end;
+
+        @Override
+        public void moveTo(int vertex) {
+            arc = firstArc(vertex) - 1;
+            end = endArc(vertex);
+        }
+
+        @Override
+        public boolean next() {
+            return ++arc < end;
+        }
+
+        @Override
+        public int target() {
+            return AdjacencyStorage.this.target(arc);
+        }
+
+        @Override
+        public int weight() {
+            return AdjacencyStorage.this.weight(arc);
+        }
+    }
+}
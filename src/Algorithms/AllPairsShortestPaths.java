@@ -0,0 +1,320 @@
+package Algorithms;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest distances between all pairs of vertices, computed once into a DistanceMatrix
+ * instead of running Dijkstra per source with the graph read again each time.
+ *
+ * Dense graphs and graphs with negative weights get Floyd-Warshall, blocked into
+ * TILE x TILE tiles of one flat int array: for every diagonal tile, the tile is closed
+ * first, then the tiles in its row and column, then every other tile, the tiles of each
+ * step in parallel. A tile of each operand fits in the L1 cache, so the O(V^3) inner
+ * loop runs from cache instead of streaming whole rows from memory. Sparse graphs get
+ * Dijkstra from every source in parallel through DijkstraBatchQuery.
+ */
+public class AllPairsShortestPaths {
+
+    static final int TILE = 64;
+    // Stands for no path inside Floyd-Warshall; two of them add up without overflow
+    private static final int INF = Integer.MAX_VALUE / 2;
+    // Matrices printed in full up to this many vertices
+    private static final int PRINT_LIMIT = 32;
+
+    private CsrGraph graph;
+    private GraphFileReader graphReader = new GraphFileReader();
+    private ApspMode requestedMode = ApspMode.AUTO;
+    private ApspMode mode;
+    private DistanceMatrix matrix;
+
+    /**
+     * Computes the distance matrix of the graph in a file with the given algorithm and
+     * writes it to a matrix file.
+     *
+     * filePath Path to the input file containing the graph data.
+     * mode Floyd-Warshall, repeated Dijkstra, or AUTO to choose by density.
+     * matrixPath File to write the matrix to, or null to only print it.
+     */
+    public void executeAllPairs(String filePath, ApspMode mode, String matrixPath) {
+        this.requestedMode = mode;
+        try {
+            graph = graphReader.load(filePath, false);
+            long startTime = System.nanoTime();
+            this.mode = resolve(graph, requestedMode);
+            matrix = compute(graph, this.mode);
+            long endTime = System.nanoTime();
+            printResults(startTime, endTime);
+            if (matrixPath != null) {
+                matrix.write(matrixPath);
+                System.out.println("Distance matrix written to " + matrixPath);
+            }
+        } catch (FileNotFoundException e) {
+            System.out.println("File not found.");
+            e.printStackTrace();
+        } catch (IOException e) {
+            System.out.println("Could not read graph file: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Computes and prints the distance matrix of the graph in a file.
+     *
+     * filePath Path to the input file containing the graph data.
+     */
+    public void executeAllPairs(String filePath) {
+        executeAllPairs(filePath, ApspMode.AUTO, null);
+    }
+
+    /**
+     * Returns the matrix of the last run.
+     *
+     * return The matrix, or null if no graph has been processed yet.
+     */
+    public DistanceMatrix getDistanceMatrix() {
+        return matrix;
+    }
+
+    /**
+     * Computes the distance matrix of a graph.
+     *
+     * graph Graph to search.
+     * mode Algorithm to run; AUTO chooses by density and weights.
+     * return The matrix.
+     * throws IllegalArgumentException if the graph is too large for a matrix, has a
+     *        negative cycle, has a negative weight and REPEATED_DIJKSTRA was asked for, or
+     *        has paths too long for Floyd-Warshall and cannot use Dijkstra instead.
+     */
+    public static DistanceMatrix compute(CsrGraph graph, ApspMode mode) {
+        mode = resolve(graph, mode);
+        if (mode == ApspMode.REPEATED_DIJKSTRA) {
+            if (hasNegativeWeight(graph)) {
+                throw new IllegalArgumentException("Dijkstra needs non-negative edge weights");
+            }
+            return repeatedDijkstra(graph);
+        }
+        return floydWarshall(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Resolves AUTO for a graph; other modes are returned unchanged.
+     */
+    static ApspMode resolve(CsrGraph graph, ApspMode mode) {
+        boolean negativeWeights = hasNegativeWeight(graph);
+        return mode.select(graph.vertexCount(), graph.arcCount(), negativeWeights,
+                fitsFloydWarshall(graph, negativeWeights));
+    }
+
+    private static boolean hasNegativeWeight(CsrGraph graph) {
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            if (graph.weight(arc) < 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether every distance is sure to lie in the range Floyd-Warshall represents
+     * exactly, below INF, or within +-INF / 2 with negative weights.
+     */
+    static boolean fitsFloydWarshall(CsrGraph graph, boolean negativeWeights) {
+        return longestPathBound(graph) < (negativeWeights ? INF / 2 : INF);
+    }
+
+    /**
+     * Bound on the absolute length of any simple path: a simple path leaves every
+     * vertex at most once, so it is at most the sum of each vertex's largest absolute
+     * arc weight.
+     */
+    static long longestPathBound(CsrGraph graph) {
+        long bound = 0;
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            long largest = 0;
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                largest = Math.max(largest, Math.abs((long) graph.weight(arc)));
+            }
+            bound += largest;
+        }
+        return bound;
+    }
+
+    /**
+     * Runs Dijkstra from every vertex in parallel, each row copied straight out of the
+     * worker's workspace.
+     *
+     * graph Graph to search; weights must be non-negative.
+     * return The matrix.
+     */
+    public static DistanceMatrix repeatedDijkstra(CsrGraph graph) {
+        int numVertices = graph.vertexCount();
+        DistanceMatrix.checkSize(numVertices);
+        int[] distances = new int[numVertices * numVertices];
+        new DijkstraBatchQuery(graph).forEachSource(IntStream.range(0, numVertices).toArray(),
+                (source, workspace) -> System.arraycopy(workspace.distances, 0, distances,
+                        source * numVertices, numVertices));
+        return new DistanceMatrix(graph.labels(), numVertices, distances);
+    }
+
+    /**
+     * Runs blocked Floyd-Warshall. Negative weights are allowed as long as there is no
+     * negative cycle and distances stay within +-2^29; without them, distances up to
+     * 2^30 are exact. Graphs whose paths could leave that range are refused rather than
+     * given wrong distances, judged by longestPathBound.
+     *
+     * graph Graph to search.
+     * pool Pool the tiles run in.
+     * return The matrix.
+     * throws IllegalArgumentException if the graph has a negative cycle or its paths
+     *        could be too long.
+     */
+    public static DistanceMatrix floydWarshall(CsrGraph graph, ForkJoinPool pool) {
+        int numVertices = graph.vertexCount();
+        DistanceMatrix.checkSize(numVertices);
+        boolean negativeWeights = hasNegativeWeight(graph);
+        if (!fitsFloydWarshall(graph, negativeWeights)) {
+            throw new IllegalArgumentException("Paths of up to " + longestPathBound(graph)
+                    + " are too long for Floyd-Warshall, which is exact up to "
+                    + (negativeWeights ? "+-" + INF / 2 : String.valueOf(INF)));
+        }
+        // Pad to whole tiles; padding rows and columns stay unreachable
+        int tiles = (numVertices + TILE - 1) / TILE;
+        int stride = tiles * TILE;
+        int[] d = new int[stride * stride];
+        Arrays.fill(d, INF);
+        for (int u = 0; u < stride; u++) {
+            d[u * stride + u] = 0;
+        }
+        for (int u = 0; u < numVertices; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int index = u * stride + graph.target(arc);
+                d[index] = Math.min(d[index], graph.weight(arc));
+            }
+        }
+
+        for (int k = 0; k < tiles; k++) {
+            int pivot = k;
+            closeTile(d, stride, pivot, pivot, pivot);
+            // The rest of the pivot row and column, each against the closed pivot tile
+            ForkJoinLoops.parallelFor(pool, 2 * (tiles - 1), t -> {
+                int other = t % (tiles - 1);
+                if (other >= pivot) other++;
+                if (t < tiles - 1) {
+                    closeTile(d, stride, pivot, other, pivot);
+                } else {
+                    closeTile(d, stride, other, pivot, pivot);
+                }
+            });
+            // Every other tile, one row of tiles per task
+            ForkJoinLoops.parallelFor(pool, tiles, row -> {
+                if (row == pivot) return;
+                for (int column = 0; column < tiles; column++) {
+                    if (column != pivot) relaxTile(d, stride, row, column, pivot);
+                }
+            });
+        }
+
+        // Sums that started from INF can drop below it through negative weights, but
+        // stay far above any real distance
+        int unreachableFrom = negativeWeights ? INF / 2 : INF;
+        int[] distances = stride == numVertices ? d : new int[numVertices * numVertices];
+        for (int u = 0; u < numVertices; u++) {
+            if (d[u * stride + u] < 0) {
+                throw new IllegalArgumentException("Graph has a negative cycle through " + graph.label(u));
+            }
+            for (int v = 0; v < numVertices; v++) {
+                int distance = d[u * stride + v];
+                distances[u * numVertices + v] = distance >= unreachableFrom ? ShortestPathTree.UNREACHABLE : distance;
+            }
+        }
+        return new DistanceMatrix(graph.labels(), numVertices, distances);
+    }
+
+    /**
+     * Relaxes tile (row, column) through the vertices of tile column pivot, taking the
+     * intermediate vertices in order so that the tile may be one of its own operands.
+     */
+    private static void closeTile(int[] d, int stride, int row, int column, int pivot) {
+        int rowStart = row * TILE;
+        int columnStart = column * TILE;
+        int pivotStart = pivot * TILE;
+        for (int k = pivotStart; k < pivotStart + TILE; k++) {
+            int through = k * stride + columnStart;
+            for (int i = rowStart; i < rowStart + TILE; i++) {
+                int toPivot = d[i * stride + k];
+                if (toPivot >= INF) continue;
+                int target = i * stride + columnStart;
+                for (int j = 0; j < TILE; j++) {
+                    d[target + j] = Math.min(d[target + j], toPivot + d[through + j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Relaxes tile (row, column) through tile column pivot when neither operand is the
+     * tile itself, a row at a time so that the row stays in L1.
+     */
+    private static void relaxTile(int[] d, int stride, int row, int column, int pivot) {
+        int columnStart = column * TILE;
+        int pivotStart = pivot * TILE;
+        for (int i = row * TILE; i < (row + 1) * TILE; i++) {
+            int target = i * stride + columnStart;
+            for (int k = pivotStart; k < pivotStart + TILE; k++) {
+                int toPivot = d[i * stride + k];
+                if (toPivot >= INF) continue;
+                int through = k * stride + columnStart;
+                // Math.min rather than compare and store: no branch to mispredict
+                for (int j = 0; j < TILE; j++) {
+                    d[target + j] = Math.min(d[target + j], toPivot + d[through + j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints results.
+     *
+     * startTime Start time of algorithm execution.
+     * endTime End time of algorithm execution.
+     */
+    private void printResults(long startTime, long endTime) {
+        int numVertices = graph.vertexCount();
+        System.out.println("Number of Vertices: " + numVertices);
+        System.out.println("Number of Edges: " + graph.edgeCount());
+        System.out.println(graphReader.describeLoad());
+        System.out.println("Execution Time: " + (endTime - startTime) + " nanoseconds (" + mode
+                + (requestedMode == ApspMode.AUTO ? ", auto" : "") + ")");
+        if (numVertices > PRINT_LIMIT) {
+            System.out.println("Distance matrix of " + numVertices + " vertices not printed");
+            return;
+        }
+
+        int width = 1;
+        for (int v = 0; v < numVertices; v++) {
+            width = Math.max(width, graph.label(v).length());
+            for (int u = 0; u < numVertices; u++) {
+                if (matrix.isReachable(u, v)) width = Math.max(width, String.valueOf(matrix.distance(u, v)).length());
+            }
+        }
+        // One row per source, one column per destination, "-" where there is no path
+        String cell = " %" + width + "s";
+        StringBuilder line = new StringBuilder(String.format("%" + width + "s", ""));
+        for (int v = 0; v < numVertices; v++) {
+            line.append(String.format(cell, graph.label(v)));
+        }
+        System.out.println("Distance Matrix:");
+        System.out.println(line);
+        for (int u = 0; u < numVertices; u++) {
+            line.setLength(0);
+            line.append(String.format("%" + width + "s", graph.label(u)));
+            for (int v = 0; v < numVertices; v++) {
+                line.append(String.format(cell, matrix.isReachable(u, v) ? String.valueOf(matrix.distance(u, v)) : "-"));
+            }
+            System.out.println(line);
+        }
+    }
+}
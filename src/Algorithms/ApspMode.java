@@ -0,0 +1,37 @@
+package Algorithms;
+
+/**
+ * Algorithm AllPairsShortestPaths runs. Both give the same distances; AUTO picks by the
+ * graph's density and weights, and never picks Floyd-Warshall for a graph whose paths
+ * could be too long for it to represent.
+ */
+public enum ApspMode {
+    // Floyd-Warshall over the flat matrix in cache-sized tiles, O(V^3), tiles in parallel
+    FLOYD_WARSHALL,
+    // Dijkstra from every vertex in parallel, O(V E log V)
+    REPEATED_DIJKSTRA,
+    // One of the above, chosen from the vertex and arc counts
+    AUTO;
+
+    // Fraction of all possible arcs from which the tiled O(V^3) loop beats a heap per source
+    static final double FLOYD_WARSHALL_DENSITY = 0.1;
+
+    /**
+     * Resolves AUTO for a graph of the given size; other modes are returned unchanged.
+     * Dijkstra needs non-negative weights, so graphs with a negative one always get
+     * Floyd-Warshall.
+     *
+     * numVertices     Number of vertices.
+     * numArcs         Number of arcs, counting undirected edges twice.
+     * negativeWeights Whether any weight is negative.
+     * fitsFloydWarshall Whether every path is short enough for Floyd-Warshall's int range.
+     * return The mode to run.
+     */
+    public ApspMode select(int numVertices, int numArcs, boolean negativeWeights, boolean fitsFloydWarshall) {
+        if (this != AUTO) return this;
+        if (!fitsFloydWarshall && !negativeWeights) return REPEATED_DIJKSTRA;
+        if (negativeWeights || numVertices < 2) return FLOYD_WARSHALL;
+        double possibleArcs = (double) numVertices * (numVertices - 1);
+        return numArcs >= FLOYD_WARSHALL_DENSITY * possibleArcs ? FLOYD_WARSHALL : REPEATED_DIJKSTRA;
+    }
+}
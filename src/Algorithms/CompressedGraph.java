@@ -0,0 +1,296 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Read-only copy of a CsrGraph with every neighbor list compressed into bytes. Each
+ * list starts with its length and is sorted by target; the first target is stored as
+ * its zigzag encoded distance from the vertex itself and every later one as the gap
+ * from the previous target, each followed by the weight, all as LEB128 varints.
+ * Weights are zigzag encoded only if the graph has a negative one. On graphs whose ids
+ * follow locality, such as grids and road networks, most gaps and small weights take
+ * one byte, against eight bytes per arc in CsrGraph. Besides the lists, each vertex
+ * costs one int for where its list starts.
+ *
+ * The lists can only be read in order, through a NeighborCursor, so the algorithms
+ * that take a CompressedGraph are those written over cursors, which run the same code
+ * on a CsrGraph: DijkstraShortestPath.calculateShortestPaths, EdgeArrays.of for the
+ * spanning tree algorithms, and KahnTopologicalSort.sort.
+ * Neighbors come out sorted, so where ties are broken by arc order, such as between
+ * spanning trees of equal weight, the result may differ from the uncompressed graph.
+ *
+ * The compressed bytes are one array, so they are limited to 2 GB.
+ */
+public final class CompressedGraph {
+
+    private final VertexLabels labels;
+    private final boolean directed;
+    private final int edgeCount;
+    private final int sourceVertex;
+    private final int arcCount;
+    private final boolean signedWeights;
+    // Where the list of every vertex starts, followed by the end of the last one
+    private final int[] byteOffsets;
+    private final byte[] data;
+
+    private CompressedGraph(CsrGraph graph, boolean signedWeights, int[] byteOffsets, byte[] data) {
+        this.labels = graph.labels();
+        this.directed = graph.isDirected();
+        this.edgeCount = graph.edgeCount();
+        this.sourceVertex = graph.sourceVertex();
+        this.arcCount = graph.arcCount();
+        this.signedWeights = signedWeights;
+        this.byteOffsets = byteOffsets;
+        this.data = data;
+    }
+
+    /**
+     * Compresses a graph.
+     *
+     * graph Graph to compress.
+     * return The compressed graph, sharing the labels of the original.
+     * throws IllegalStateException if the compressed lists exceed 2 GB.
+     */
+    public static CompressedGraph of(CsrGraph graph) {
+        int numVertices = graph.vertexCount();
+        boolean signedWeights = false;
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            if (graph.weight(arc) < 0) signedWeights = true;
+        }
+        int[] byteOffsets = new int[numVertices + 1];
+        ByteWriter out = new ByteWriter(Math.max(16, numVertices + graph.arcCount() * 3L));
+        long[] keyed = new long[16];
+        for (int v = 0; v < numVertices; v++) {
+            int degree = graph.outDegree(v);
+            out.writeVarint(degree);
+            if (keyed.length < degree) keyed = new long[Math.max(degree, keyed.length * 2)];
+            // Sort (target, weight) pairs packed into longs; targets are never negative
+            for (int i = 0; i < degree; i++) {
+                int arc = graph.firstArc(v) + i;
+                keyed[i] = ((long) graph.target(arc) << 32) | (graph.weight(arc) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(keyed, 0, degree);
+            int previous = v;
+            for (int i = 0; i < degree; i++) {
+                int target = (int) (keyed[i] >>> 32);
+                out.writeVarint(i == 0 ? zigzag(target - previous) : target - previous);
+                out.writeVarint(signedWeights ? zigzag((int) keyed[i]) : (int) keyed[i]);
+                previous = target;
+            }
+            byteOffsets[v + 1] = out.size();
+        }
+        return new CompressedGraph(graph, signedWeights, byteOffsets, out.toArray());
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Decompresses into a CsrGraph with each neighbor list in sorted order.
+     *
+     * return The uncompressed graph.
+     */
+    public CsrGraph toCsrGraph() {
+        int[] offsets = new int[vertexCount() + 1];
+        int[] targets = new int[arcCount];
+        int[] weights = new int[arcCount];
+        NeighborCursor neighbors = cursor();
+        int arc = 0;
+        for (int v = 0; v < vertexCount(); v++) {
+            neighbors.moveTo(v);
+            while (neighbors.next()) {
+                targets[arc] = neighbors.target();
+                weights[arc] = neighbors.weight();
+                arc++;
+            }
+            offsets[v + 1] = arc;
+        }
+        return new CsrGraph(labels, directed, edgeCount, sourceVertex, offsets, targets, weights);
+    }
+
+    /**
+     * Creates a cursor over the neighbor lists. Cursors are cheap and not thread-safe;
+     * give each thread its own.
+     */
+    public NeighborCursor cursor() {
+        return new Cursor();
+    }
+
+    public int vertexCount() {
+        return byteOffsets.length - 1;
+    }
+
+    /**
+     * Number of edges as listed in the input, before undirected edges are doubled.
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int arcCount() {
+        return arcCount;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Source vertex named on the last line of the input file, or -1 if there was none.
+     */
+    public int sourceVertex() {
+        return sourceVertex;
+    }
+
+    /**
+     * Number of arcs leaving a vertex, read from the head of its list.
+     */
+    public int outDegree(int vertex) {
+        int position = byteOffsets[vertex];
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = data[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    public String label(int vertex) {
+        return labels.labelOf(vertex);
+    }
+
+    public int vertexOf(String label) {
+        return labels.idOf(label);
+    }
+
+    /**
+     * Bytes taken by the compressed lists and their offsets.
+     */
+    public long sizeInBytes() {
+        return data.length + (long) byteOffsets.length * Integer.BYTES;
+    }
+
+    /**
+     * Bytes the same graph takes as a CsrGraph: offsets, targets and weights.
+     */
+    public long uncompressedSizeInBytes() {
+        return ((long) byteOffsets.length + 2L * arcCount) * Integer.BYTES;
+    }
+
+    /**
+     * How many times smaller the compressed graph is.
+     */
+    public double compressionRatio() {
+        return (double) uncompressedSizeInBytes() / sizeInBytes();
+    }
+
+    /**
+     * Describes the memory saved, for the execution reports.
+     */
+    public String describeCompression() {
+        return String.format("Compressed Adjacency: %d bytes instead of %d (%.2fx smaller, %.2f bytes per arc)",
+                sizeInBytes(), uncompressedSizeInBytes(), compressionRatio(),
+                arcCount == 0 ? 0.0 : (double) data.length / arcCount);
+    }
+
+    /**
+     * Decodes the neighbor list of one vertex at a time, allocating nothing.
+     */
+    private final class Cursor implements NeighborCursor {
+        private int position;
+        private int remaining;
+        private boolean first;
+        private int target;
+        private int weight;
+
+        private Cursor() {
+        }
+
+        @Override
+        public void moveTo(int vertex) {
+            position = byteOffsets[vertex];
+            remaining = readVarint();
+            first = true;
+            target = vertex;
+        }
+
+        @Override
+        public boolean next() {
+            if (remaining == 0) return false;
+            remaining--;
+            int gap = readVarint();
+            target += first ? unzigzag(gap) : gap;
+            first = false;
+            weight = signedWeights ? unzigzag(readVarint()) : readVarint();
+            return true;
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+
+        private int readVarint() {
+            byte[] bytes = data;
+            int b = bytes[position++];
+            if (b >= 0) return b; // one byte: the common case
+            int value = b & 0x7F;
+            int shift = 7;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    /**
+     * Growable byte array for the encoder.
+     */
+    private static final class ByteWriter {
+        private byte[] bytes;
+        private int size;
+
+        ByteWriter(long expectedSize) {
+            bytes = new byte[(int) Math.min(expectedSize, Integer.MAX_VALUE - 8)];
+        }
+
+        void writeVarint(int value) {
+            if (bytes.length - size < 5) grow();
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void grow() {
+            if (bytes.length >= Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Compressed adjacency exceeds 2 GB");
+            }
+            bytes = Arrays.copyOf(bytes, (int) Math.min((long) bytes.length * 2, Integer.MAX_VALUE - 8));
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
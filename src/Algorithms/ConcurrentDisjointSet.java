@@ -0,0 +1,167 @@
+package Algorithms;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Lock-free union-find that any number of threads may update and query at once.
+ * Roots are linked with a single compare-and-set on the parent array and paths are
+ * halved with compare-and-set as well, so a stalled thread never blocks the others.
+ *
+ * Roots are linked by a pseudo-random priority derived from their ids instead of by
+ * rank, which would need a second word to change atomically with the parent; random
+ * linking keeps the expected tree depth logarithmic.
+ *
+ * Every root holds the size of its set, as in DisjointSet. A union first links its
+ * roots and then moves the size of the old root onto the new one; if that one has been
+ * linked under another root in the meantime, the size follows it up to the current
+ * root. componentCount is exact at every moment. componentSize is exact while no union
+ * runs, and never exceeds the true size while some do, since a set's size may still
+ * be on its way up. Component labels are computed by scanning all elements, so they
+ * are only a consistent snapshot while no union runs.
+ */
+public class ConcurrentDisjointSet implements UnionFind {
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int[] parents;
+    // Size of the set at every root, and 0 at every element that has stopped being one
+    private final int[] sizes;
+    private final AtomicInteger componentCount;
+
+    /**
+     * Creates singleton sets.
+     *
+     * size Number of elements.
+     */
+    public ConcurrentDisjointSet(int size) {
+        parents = new int[size];
+        sizes = new int[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+        componentCount = new AtomicInteger(size);
+    }
+
+    /**
+     * Computes the connected components of a graph, uniting the arcs of all
+     * vertices in parallel. Arc direction is ignored.
+     *
+     * graph Graph to split into components.
+     * return The components.
+     */
+    public static ConcurrentDisjointSet of(CsrGraph graph) {
+        ConcurrentDisjointSet components = new ConcurrentDisjointSet(graph.vertexCount());
+        IntStream.range(0, graph.vertexCount()).parallel().forEach(u -> {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                components.union(u, graph.target(arc));
+            }
+        });
+        return components;
+    }
+
+    @Override
+    public int size() {
+        return parents.length;
+    }
+
+    @Override
+    public int find(int element) {
+        while (true) {
+            int parent = (int) INTS.getAcquire(parents, element);
+            if (parent == element) return element;
+            int grandparent = (int) INTS.getAcquire(parents, parent);
+            if (grandparent != parent) {
+                // Losing this race only means another thread already shortened the path
+                INTS.compareAndSet(parents, element, parent, grandparent);
+            }
+            element = grandparent;
+        }
+    }
+
+    @Override
+    public boolean union(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) return false;
+            if (outranks(rootA, rootB)) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            // Fails if rootA stopped being a root in the meantime; then look again
+            if (INTS.compareAndSet(parents, rootA, rootA, rootB)) {
+                componentCount.decrementAndGet();
+                addSize(rootB, (int) INTS.getAndSet(sizes, rootA, 0));
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds to the size of a root, and carries the total on up for as long as the root
+     * turns out to have been linked under another. Whichever of this thread and the
+     * linking thread takes the size of a linked root second finds 0 there, so no count
+     * is lost or moved twice.
+     */
+    private void addSize(int root, int delta) {
+        while (delta != 0) {
+            INTS.getAndAdd(sizes, root, delta);
+            if ((int) INTS.getAcquire(parents, root) == root) return;
+            delta = (int) INTS.getAndSet(sizes, root, 0);
+            root = find(root);
+        }
+    }
+
+    @Override
+    public boolean connected(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) return true;
+            // Only a definite answer if rootA was still a root after rootB was found
+            if ((int) INTS.getAcquire(parents, rootA) == rootA) return false;
+        }
+    }
+
+    @Override
+    public int componentCount() {
+        return componentCount.get();
+    }
+
+    /**
+     * Reads the size held at the root of a set.
+     */
+    @Override
+    public int componentSize(int element) {
+        while (true) {
+            int root = find(element);
+            int size = (int) INTS.getAcquire(sizes, root);
+            // Only the size of the set if root was still a root after it was read
+            if ((int) INTS.getAcquire(parents, root) == root) return size;
+        }
+    }
+
+    /**
+     * Whether root a wins over root b: higher mixed priority, ties broken by id.
+     */
+    private static boolean outranks(int a, int b) {
+        int priorityA = mix(a);
+        int priorityB = mix(b);
+        return priorityA != priorityB ? priorityA > priorityB : a > b;
+    }
+
+    private static int mix(int value) {
+        // MurmurHash3 finalizer
+        value ^= value >>> 16;
+        value *= 0x85EBCA6B;
+        value ^= value >>> 13;
+        value *= 0xC2B2AE35;
+        value ^= value >>> 16;
+        return value;
+    }
+}
@@ -0,0 +1,273 @@
+package Algorithms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Contraction Hierarchy over a static CsrGraph. Every vertex gets a rank and the graph
+ * is augmented with shortcuts, so that a shortest path can always be found by a
+ * forward search that only climbs in rank from the source and a backward search that
+ * only climbs from the target. Shortcuts remember the vertex they skip, so full paths
+ * can be unpacked afterwards.
+ */
+public class ContractionHierarchy {
+
+    private static final int MAGIC = 0x43485247; // "GRHC"
+    private static final int VERSION = 1;
+
+    private final int[] ranks;
+    private final CsrGraph upward;     // arcs u -> x with rank[u] < rank[x]
+    private final int[] upMiddles;
+    private final CsrGraph downward;   // arcs x -> u standing for u -> x with rank[u] > rank[x]
+    private final int[] downMiddles;
+
+    ContractionHierarchy(int[] ranks, CsrGraph upward, int[] upMiddles, CsrGraph downward, int[] downMiddles) {
+        this.ranks = ranks;
+        this.upward = upward;
+        this.upMiddles = upMiddles;
+        this.downward = downward;
+        this.downMiddles = downMiddles;
+    }
+
+    /**
+     * Contracts a graph into a hierarchy.
+     *
+     * graph Graph to preprocess; weights must be non-negative.
+     * return The hierarchy.
+     */
+    public static ContractionHierarchy build(CsrGraph graph) {
+        return new ContractionHierarchyBuilder(graph).build();
+    }
+
+    public int vertexCount() {
+        return ranks.length;
+    }
+
+    public int rank(int vertex) {
+        return ranks[vertex];
+    }
+
+    /**
+     * Number of arcs in the hierarchy, original edges and shortcuts together.
+     */
+    public int arcCount() {
+        return upward.arcCount() + downward.arcCount();
+    }
+
+    /**
+     * Creates a query object; each thread needs its own.
+     */
+    public Query newQuery() {
+        return new Query();
+    }
+
+    /**
+     * Writes the hierarchy to a file.
+     *
+     * filePath Destination file.
+     * throws IOException
+     */
+    public void write(String filePath) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ranks.length);
+            writeInts(out, ranks);
+            writeSide(out, upward, upMiddles);
+            writeSide(out, downward, downMiddles);
+        }
+    }
+
+    /**
+     * Reads a hierarchy written by write.
+     *
+     * filePath Hierarchy file.
+     * graph Graph the hierarchy was built from, which supplies the vertex labels.
+     * return The hierarchy.
+     * throws IOException
+     */
+    public static ContractionHierarchy read(String filePath, CsrGraph graph) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a contraction hierarchy: " + filePath);
+            }
+            int numVertices = in.readInt();
+            if (numVertices != graph.vertexCount()) {
+                throw new IOException("Hierarchy has " + numVertices + " vertices but the graph has " + graph.vertexCount());
+            }
+            int[] ranks = readInts(in, numVertices);
+            int[][] up = readSide(in, numVertices);
+            int[][] down = readSide(in, numVertices);
+            VertexLabels labels = graph.labels();
+            return new ContractionHierarchy(ranks,
+                    new CsrGraph(labels, true, up[1].length, -1, up[0], up[1], up[2]), up[3],
+                    new CsrGraph(labels, true, down[1].length, -1, down[0], down[1], down[2]), down[3]);
+        }
+    }
+
+    private static void writeSide(DataOutputStream out, CsrGraph side, int[] middles) throws IOException {
+        int numVertices = side.vertexCount();
+        out.writeInt(side.arcCount());
+        for (int v = 0; v <= numVertices; v++) {
+            out.writeInt(v == numVertices ? side.arcCount() : side.firstArc(v));
+        }
+        for (int arc = 0; arc < side.arcCount(); arc++) {
+            out.writeInt(side.target(arc));
+        }
+        for (int arc = 0; arc < side.arcCount(); arc++) {
+            out.writeInt(side.weight(arc));
+        }
+        writeInts(out, middles);
+    }
+
+    private static int[][] readSide(DataInputStream in, int numVertices) throws IOException {
+        int numArcs = in.readInt();
+        return new int[][] {readInts(in, numVertices + 1), readInts(in, numArcs), readInts(in, numArcs), readInts(in, numArcs)};
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /**
+     * Finds the vertex a hierarchy arc skips.
+     *
+     * from Tail of the arc in the original direction.
+     * to Head of the arc in the original direction.
+     * return The skipped vertex, or -1 for an original edge.
+     */
+    private int middleOf(int from, int to) {
+        if (ranks[from] < ranks[to]) {
+            for (int arc = upward.firstArc(from); arc < upward.endArc(from); arc++) {
+                if (upward.target(arc) == to) return upMiddles[arc];
+            }
+        } else {
+            for (int arc = downward.firstArc(to); arc < downward.endArc(to); arc++) {
+                if (downward.target(arc) == from) return downMiddles[arc];
+            }
+        }
+        throw new IllegalStateException("No hierarchy arc " + from + " -> " + to);
+    }
+
+    /**
+     * Bidirectional upward search over the hierarchy. Reuses its state between queries
+     * and is not thread-safe.
+     */
+    public class Query {
+        private final DijkstraWorkspace forward = new DijkstraWorkspace(ranks.length, HeapType.QUATERNARY);
+        private final DijkstraWorkspace backward = new DijkstraWorkspace(ranks.length, HeapType.QUATERNARY);
+        private int source = -1;
+        private int meetingVertex = -1;
+
+        /**
+         * Computes the distance between two vertices. Each side stops once its
+         * smallest key reaches the best connection found so far.
+         *
+         * source Source vertex.
+         * target Target vertex.
+         * return The distance, or ShortestPathTree.UNREACHABLE.
+         */
+        public int distance(int source, int target) {
+            this.source = source;
+            forward.reset();
+            backward.reset();
+            forward.source = source;
+            backward.source = target;
+            forward.seed(source, 0);
+            backward.seed(target, 0);
+            long best = source == target ? 0 : ShortestPathTree.UNREACHABLE;
+            meetingVertex = source == target ? source : -1;
+
+            while (true) {
+                boolean forwardActive = !forward.queue.isEmpty() && forward.queue.minKey() < best;
+                boolean backwardActive = !backward.queue.isEmpty() && backward.queue.minKey() < best;
+                if (!forwardActive && !backwardActive) break;
+                boolean forwardStep = forwardActive
+                        && (!backwardActive || forward.queue.size() <= backward.queue.size());
+                DijkstraWorkspace side = forwardStep ? forward : backward;
+                DijkstraWorkspace other = forwardStep ? backward : forward;
+                CsrGraph searchGraph = forwardStep ? upward : downward;
+
+                int vertex = side.queue.pollMin();
+                int distance = side.distances[vertex];
+                side.settledCount++;
+                if (other.distances[vertex] != ShortestPathTree.UNREACHABLE
+                        && (long) distance + other.distances[vertex] < best) {
+                    best = (long) distance + other.distances[vertex];
+                    meetingVertex = vertex;
+                }
+                for (int arc = searchGraph.firstArc(vertex); arc < searchGraph.endArc(vertex); arc++) {
+                    long newDistance = (long) distance + searchGraph.weight(arc);
+                    side.relax(vertex, searchGraph.target(arc), newDistance, newDistance);
+                }
+            }
+            return (int) Math.min(best, ShortestPathTree.UNREACHABLE);
+        }
+
+        /**
+         * Unpacks the path of the last query into original vertices, source first.
+         *
+         * return The path, or an empty array if the target was unreachable.
+         */
+        public int[] lastPath() {
+            if (meetingVertex < 0) return new int[0];
+            // Hierarchy vertices from the source up to the meeting vertex and down to the target
+            IntStack upPart = new IntStack();
+            for (int v = meetingVertex; v >= 0; v = forward.parents[v]) {
+                upPart.push(v);
+            }
+            IntStack hierarchyPath = new IntStack(upPart.size() * 2);
+            while (!upPart.isEmpty()) {
+                hierarchyPath.push(upPart.pop());
+            }
+            for (int v = backward.parents[meetingVertex]; v >= 0; v = backward.parents[v]) {
+                hierarchyPath.push(v);
+            }
+
+            // Expand shortcuts with an explicit stack of (from, to) pairs
+            IntStack path = new IntStack(hierarchyPath.size() * 2);
+            path.push(source);
+            IntStack pending = new IntStack();
+            for (int i = hierarchyPath.size() - 1; i > 0; i--) {
+                pending.push(hierarchyPath.get(i - 1));
+                pending.push(hierarchyPath.get(i));
+            }
+            while (!pending.isEmpty()) {
+                int to = pending.pop();
+                int from = pending.pop();
+                int middle = middleOf(from, to);
+                if (middle < 0) {
+                    path.push(to);
+                } else {
+                    pending.push(middle);
+                    pending.push(to);
+                    pending.push(from);
+                    pending.push(middle);
+                }
+            }
+            return path.toArray();
+        }
+
+        /**
+         * Number of vertices settled by the last query, over both directions.
+         */
+        public int getSettledCount() {
+            return forward.settledCount + backward.settledCount;
+        }
+    }
+}
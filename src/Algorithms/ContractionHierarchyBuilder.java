@@ -0,0 +1,270 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Preprocessing for ContractionHierarchy. Vertices are contracted one at a time in
+ * order of a lazily updated priority (edge difference plus contracted neighbours).
+ * Contracting v adds a shortcut u -> x for every pair of remaining neighbours whose
+ * shortest connection runs through v, which a bounded witness search decides.
+ */
+class ContractionHierarchyBuilder {
+
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final CsrGraph graph;
+    private final int numVertices;
+    private final EdgeList[] outEdges;
+    private final EdgeList[] inEdges;
+    private final boolean[] contracted;
+    private final int[] contractedNeighbors;
+
+    // Witness search state, reset through the touched list after every search
+    private final int[] witnessDistances;
+    private final IntStack witnessTouched = new IntStack();
+    private final IndexedDaryHeap witnessHeap;
+
+    private int shortcutCount;
+
+    ContractionHierarchyBuilder(CsrGraph graph) {
+        this.graph = graph;
+        this.numVertices = graph.vertexCount();
+        this.outEdges = new EdgeList[numVertices];
+        this.inEdges = new EdgeList[numVertices];
+        this.contracted = new boolean[numVertices];
+        this.contractedNeighbors = new int[numVertices];
+        this.witnessDistances = new int[numVertices];
+        this.witnessHeap = new IndexedDaryHeap(numVertices, 4);
+        Arrays.fill(witnessDistances, ShortestPathTree.UNREACHABLE);
+    }
+
+    /**
+     * Contracts every vertex and packs the resulting upward and downward graphs.
+     *
+     * return The hierarchy.
+     */
+    ContractionHierarchy build() {
+        for (int v = 0; v < numVertices; v++) {
+            outEdges[v] = new EdgeList();
+            inEdges[v] = new EdgeList();
+        }
+        for (int u = 0; u < numVertices; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int v = graph.target(arc);
+                if (u != v) addEdge(u, v, graph.weight(arc), -1);
+            }
+        }
+
+        IndexedDaryHeap order = new IndexedDaryHeap(numVertices, 4);
+        for (int v = 0; v < numVertices; v++) {
+            order.insert(v, priority(v));
+        }
+        int[] ranks = new int[numVertices];
+        int nextRank = 0;
+        while (!order.isEmpty()) {
+            int v = order.pollMin();
+            // Lazy update: re-queue the vertex if its priority went up since it was queued
+            int current = priority(v);
+            if (!order.isEmpty() && current > order.minKey()) {
+                order.insert(v, current);
+                continue;
+            }
+            contract(v, true);
+            contracted[v] = true;
+            ranks[v] = nextRank++;
+            markNeighbors(outEdges[v]);
+            markNeighbors(inEdges[v]);
+        }
+        return pack(ranks);
+    }
+
+    int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    private void markNeighbors(EdgeList edges) {
+        for (int i = 0; i < edges.size; i++) {
+            if (!contracted[edges.neighbors[i]]) contractedNeighbors[edges.neighbors[i]]++;
+        }
+    }
+
+    private int priority(int v) {
+        int degree = activeCount(outEdges[v]) + activeCount(inEdges[v]);
+        return contract(v, false) - degree + contractedNeighbors[v];
+    }
+
+    private int activeCount(EdgeList edges) {
+        int count = 0;
+        for (int i = 0; i < edges.size; i++) {
+            if (!contracted[edges.neighbors[i]]) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the shortcuts needed to remove a vertex.
+     *
+     * v Vertex to contract.
+     * apply Whether to insert the shortcuts or only count them.
+     * return Number of shortcuts needed.
+     */
+    private int contract(int v, boolean apply) {
+        EdgeList in = inEdges[v];
+        EdgeList out = outEdges[v];
+        int shortcuts = 0;
+        for (int i = 0; i < in.size; i++) {
+            int u = in.neighbors[i];
+            if (contracted[u]) continue;
+            int maxOut = -1;
+            for (int j = 0; j < out.size; j++) {
+                int x = out.neighbors[j];
+                if (!contracted[x] && x != u) maxOut = Math.max(maxOut, out.weights[j]);
+            }
+            if (maxOut < 0) continue;
+
+            witnessSearch(u, v, (long) in.weights[i] + maxOut);
+            for (int j = 0; j < out.size; j++) {
+                int x = out.neighbors[j];
+                if (contracted[x] || x == u) continue;
+                long via = (long) in.weights[i] + out.weights[j];
+                if (witnessDistances[x] > via) {
+                    shortcuts++;
+                    if (apply) {
+                        if (via >= ShortestPathTree.UNREACHABLE) {
+                            throw new IllegalArgumentException("Shortcut weight overflows an int");
+                        }
+                        addEdge(u, x, (int) via, v);
+                        shortcutCount++;
+                    }
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    /**
+     * Dijkstra from u over the remaining graph without v, stopped at the distance
+     * limit or after a fixed number of settled vertices. A missed witness only costs
+     * an extra shortcut, never a wrong distance.
+     */
+    private void witnessSearch(int u, int v, long limit) {
+        for (int i = 0; i < witnessTouched.size(); i++) {
+            witnessDistances[witnessTouched.get(i)] = ShortestPathTree.UNREACHABLE;
+        }
+        witnessTouched.clear();
+        witnessHeap.clear();
+
+        witnessDistances[u] = 0;
+        witnessTouched.push(u);
+        witnessHeap.insert(u, 0);
+        int settled = 0;
+        while (!witnessHeap.isEmpty() && witnessHeap.minKey() <= limit && settled < WITNESS_SETTLE_LIMIT) {
+            int vertex = witnessHeap.pollMin();
+            settled++;
+            EdgeList edges = outEdges[vertex];
+            for (int i = 0; i < edges.size; i++) {
+                int next = edges.neighbors[i];
+                if (next == v || contracted[next]) continue;
+                long newDistance = (long) witnessDistances[vertex] + edges.weights[i];
+                if (newDistance < witnessDistances[next] && newDistance <= limit) {
+                    if (witnessDistances[next] == ShortestPathTree.UNREACHABLE) {
+                        witnessTouched.push(next);
+                        witnessDistances[next] = (int) newDistance;
+                        witnessHeap.insert(next, (int) newDistance);
+                    } else {
+                        witnessDistances[next] = (int) newDistance;
+                        witnessHeap.decreaseKey(next, (int) newDistance);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addEdge(int u, int x, int weight, int middle) {
+        outEdges[u].addOrImprove(x, weight, middle);
+        inEdges[x].addOrImprove(u, weight, middle);
+    }
+
+    /**
+     * Splits the final edge set by rank: an edge from a lower to a higher rank goes to
+     * the upward graph of its tail, any other edge to the downward graph of its head,
+     * reversed, so both query searches only ever climb.
+     */
+    private ContractionHierarchy pack(int[] ranks) {
+        int[] upOffsets = new int[numVertices + 1];
+        int[] downOffsets = new int[numVertices + 1];
+        for (int u = 0; u < numVertices; u++) {
+            EdgeList edges = outEdges[u];
+            for (int i = 0; i < edges.size; i++) {
+                int x = edges.neighbors[i];
+                if (ranks[u] < ranks[x]) upOffsets[u + 1]++;
+                else downOffsets[x + 1]++;
+            }
+        }
+        for (int v = 0; v < numVertices; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        int[] upTargets = new int[upOffsets[numVertices]];
+        int[] upWeights = new int[upTargets.length];
+        int[] upMiddles = new int[upTargets.length];
+        int[] downTargets = new int[downOffsets[numVertices]];
+        int[] downWeights = new int[downTargets.length];
+        int[] downMiddles = new int[downTargets.length];
+        int[] upNext = Arrays.copyOf(upOffsets, numVertices);
+        int[] downNext = Arrays.copyOf(downOffsets, numVertices);
+        for (int u = 0; u < numVertices; u++) {
+            EdgeList edges = outEdges[u];
+            for (int i = 0; i < edges.size; i++) {
+                int x = edges.neighbors[i];
+                if (ranks[u] < ranks[x]) {
+                    int arc = upNext[u]++;
+                    upTargets[arc] = x;
+                    upWeights[arc] = edges.weights[i];
+                    upMiddles[arc] = edges.middles[i];
+                } else {
+                    int arc = downNext[x]++;
+                    downTargets[arc] = u;
+                    downWeights[arc] = edges.weights[i];
+                    downMiddles[arc] = edges.middles[i];
+                }
+            }
+        }
+        VertexLabels labels = graph.labels();
+        CsrGraph upward = new CsrGraph(labels, true, upTargets.length, -1, upOffsets, upTargets, upWeights);
+        CsrGraph downward = new CsrGraph(labels, true, downTargets.length, -1, downOffsets, downTargets, downWeights);
+        return new ContractionHierarchy(ranks, upward, upMiddles, downward, downMiddles);
+    }
+
+    /**
+     * Growable edge list of one vertex during contraction; middle is the contracted
+     * vertex a shortcut skips, -1 for an original edge.
+     */
+    private static class EdgeList {
+        int[] neighbors = new int[4];
+        int[] weights = new int[4];
+        int[] middles = new int[4];
+        int size;
+
+        void addOrImprove(int neighbor, int weight, int middle) {
+            for (int i = 0; i < size; i++) {
+                if (neighbors[i] == neighbor) {
+                    if (weight < weights[i]) {
+                        weights[i] = weight;
+                        middles[i] = middle;
+                    }
+                    return;
+                }
+            }
+            if (size == neighbors.length) {
+                neighbors = Arrays.copyOf(neighbors, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                middles = Arrays.copyOf(middles, size * 2);
+            }
+            neighbors[size] = neighbor;
+            weights[size] = weight;
+            middles[size] = middle;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package Algorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable weighted graph in compressed sparse row form shared by all algorithms.
+ * The arcs of vertex v are the indices firstArc(v) .. endArc(v) - 1; an undirected
+ * edge is stored as one arc in each direction. The arrays sit in an AdjacencyStorage,
+ * on the heap by default or off it after toOffHeap or GraphSnapshot.map.
+ */
+public final class CsrGraph {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final long version = VERSIONS.incrementAndGet();
+    private final VertexLabels labels;
+    private final boolean directed;
+    private final int edgeCount;
+    private final int sourceVertex;
+    private final AdjacencyStorage storage;
+
+    CsrGraph(VertexLabels labels, boolean directed, int edgeCount, int sourceVertex,
+             int[] offsets, int[] targets, int[] weights) {
+        this(labels, directed, edgeCount, sourceVertex, new HeapAdjacency(offsets, targets, weights));
+    }
+
+    CsrGraph(VertexLabels labels, boolean directed, int edgeCount, int sourceVertex, AdjacencyStorage storage) {
+        this.labels = labels;
+        this.directed = directed;
+        this.edgeCount = edgeCount;
+        this.sourceVertex = sourceVertex;
+        this.storage = storage;
+    }
+
+    /**
+     * Version of the graph contents. A graph never changes after it is built, so a
+     * changed graph is always a new instance, and every instance gets a higher version
+     * than all instances built before it.
+     */
+    public long version() {
+        return version;
+    }
+
+    public int vertexCount() {
+        return storage.vertexCount();
+    }
+
+    /**
+     * Number of edges as listed in the input, before undirected edges are doubled.
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int arcCount() {
+        return storage.arcCount();
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Source vertex named on the last line of the input file, or -1 if there was none.
+     */
+    public int sourceVertex() {
+        return sourceVertex;
+    }
+
+    public int firstArc(int vertex) {
+        return storage.firstArc(vertex);
+    }
+
+    public int endArc(int vertex) {
+        return storage.endArc(vertex);
+    }
+
+    public int outDegree(int vertex) {
+        return storage.endArc(vertex) - storage.firstArc(vertex);
+    }
+
+    public int target(int arc) {
+        return storage.target(arc);
+    }
+
+    public int weight(int arc) {
+        return storage.weight(arc);
+    }
+
+    /**
+     * Creates a cursor over the neighbor lists, for algorithms that also run on a
+     * CompressedGraph. Cursors are cheap and not thread-safe; give each thread its own.
+     */
+    public NeighborCursor cursor() {
+        return storage.cursor();
+    }
+
+    public String label(int vertex) {
+        return labels.labelOf(vertex);
+    }
+
+    /**
+     * Looks up a vertex by name.
+     *
+     * label Vertex name.
+     * return Vertex id, or -1 if the graph has no such vertex.
+     */
+    public int vertexOf(String label) {
+        return labels.idOf(label);
+    }
+
+    public VertexLabels labels() {
+        return labels;
+    }
+
+    public AdjacencyStorage storage() {
+        return storage;
+    }
+
+    public boolean isOffHeap() {
+        return storage.isOffHeap();
+    }
+
+    /**
+     * Copies the arrays into direct buffers outside the heap. Vertex labels stay on the
+     * heap, as does the per-vertex state of the algorithms run on the graph.
+     *
+     * return The off-heap graph, or this graph if it already is one.
+     */
+    public CsrGraph toOffHeap() {
+        if (storage.isOffHeap()) return this;
+        return new CsrGraph(labels, directed, edgeCount, sourceVertex, OffHeapAdjacency.copyOf(storage));
+    }
+
+    /**
+     * Builds the transposed graph, in which every arc points the other way.
+     * An undirected graph is its own transpose and is returned as is.
+     *
+     * return The reverse graph, sharing this graph's labels and kind of storage.
+     */
+    public CsrGraph reverse() {
+        if (!directed) return this;
+        int numVertices = vertexCount();
+        int numArcs = arcCount();
+        int[] reverseOffsets = new int[numVertices + 1];
+        for (int arc = 0; arc < numArcs; arc++) {
+            reverseOffsets[storage.target(arc) + 1]++;
+        }
+        for (int v = 0; v < numVertices; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        AdjacencyStorage reversed = storage.allocateLike(reverseOffsets);
+        int[] next = Arrays.copyOf(reverseOffsets, numVertices);
+        for (int v = 0; v < numVertices; v++) {
+            for (int arc = storage.firstArc(v); arc < storage.endArc(v); arc++) {
+                reversed.setArc(next[storage.target(arc)]++, v, storage.weight(arc));
+            }
+        }
+        return new CsrGraph(labels, true, edgeCount, sourceVertex, reversed);
+    }
+
+    /**
+     * Accumulates edges by vertex name and packs them into a CsrGraph.
+     */
+    public static class Builder {
+        private final VertexLabels labels;
+        private final boolean directed;
+        private int[] edgeSources;
+        private int[] edgeTargets;
+        private int[] edgeWeights;
+        private int edgeCount;
+        private int sourceVertex = -1;
+
+        public Builder(boolean directed) {
+            this(directed, 16, 16);
+        }
+
+        /**
+         * Creates a builder sized for the expected graph.
+         *
+         * directed Whether edges are one-way.
+         * expectedVertices Number of vertices announced by the input header.
+         * expectedEdges Number of edges announced by the input header.
+         */
+        public Builder(boolean directed, int expectedVertices, int expectedEdges) {
+            int capacity = Math.max(expectedEdges, 4);
+            this.directed = directed;
+            this.labels = new VertexLabels(expectedVertices);
+            this.edgeSources = new int[capacity];
+            this.edgeTargets = new int[capacity];
+            this.edgeWeights = new int[capacity];
+        }
+
+        public Builder addEdge(String source, String destination, int weight) {
+            return addEdge(labels.intern(source), labels.intern(destination), weight);
+        }
+
+        /**
+         * Adds an edge between vertices already interned in labels().
+         */
+        Builder addEdge(int source, int destination, int weight) {
+            if (edgeCount == edgeSources.length) {
+                int capacity = edgeCount * 2;
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            }
+            edgeSources[edgeCount] = source;
+            edgeTargets[edgeCount] = destination;
+            edgeWeights[edgeCount] = weight;
+            edgeCount++;
+            return this;
+        }
+
+        public Builder sourceVertex(String label) {
+            sourceVertex = labels.intern(label);
+            return this;
+        }
+
+        Builder sourceVertex(int vertex) {
+            sourceVertex = vertex;
+            return this;
+        }
+
+        VertexLabels labels() {
+            return labels;
+        }
+
+        /**
+         * Renumbers vertices into natural label order and lays the arcs out by source
+         * vertex, keeping each vertex's arcs in input order.
+         *
+         * return The packed graph.
+         */
+        public CsrGraph build() {
+            int[] newIds = labels.sortNaturally();
+            int numVertices = labels.size();
+            if (!directed && edgeCount > Integer.MAX_VALUE / 2) {
+                throw new IllegalStateException("Undirected graphs are limited to " + Integer.MAX_VALUE / 2 + " edges");
+            }
+            int numArcs = directed ? edgeCount : edgeCount * 2;
+
+            // Count arcs per vertex, then turn the counts into start offsets
+            int[] offsets = new int[numVertices + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[newIds[edgeSources[i]] + 1]++;
+                if (!directed) offsets[newIds[edgeTargets[i]] + 1]++;
+            }
+            for (int v = 0; v < numVertices; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            int[] targets = new int[numArcs];
+            int[] weights = new int[numArcs];
+            int[] next = Arrays.copyOf(offsets, numVertices);
+            for (int i = 0; i < edgeCount; i++) {
+                int source = newIds[edgeSources[i]];
+                int destination = newIds[edgeTargets[i]];
+                int arc = next[source]++;
+                targets[arc] = destination;
+                weights[arc] = edgeWeights[i];
+                if (!directed) {
+                    arc = next[destination]++;
+                    targets[arc] = source;
+                    weights[arc] = edgeWeights[i];
+                }
+            }
+            int source = sourceVertex < 0 ? -1 : newIds[sourceVertex];
+            return new CsrGraph(labels, directed, edgeCount, source, offsets, targets, weights);
+        }
+    }
+}
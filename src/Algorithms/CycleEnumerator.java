@@ -0,0 +1,300 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates the elementary cycles of a directed graph with Johnson's algorithm,
+ * streaming each one to a visitor. Each round splits the subgraph induced by the
+ * vertices from some id on into strongly connected components, and searches from the
+ * least vertex s of any component with a cycle, only inside that component. Every
+ * cycle is therefore reported exactly once, starting at its lowest vertex. A vertex
+ * that cannot get back to s stays blocked until one of its successors can, which
+ * bounds the work between two reported cycles by O(V + E).
+ *
+ * Parallel arcs are merged and arcs between components are dropped up front, so a
+ * cycle is a sequence of distinct vertices, reported once however many arcs join them.
+ * The number of elementary cycles can grow exponentially, so runs take limits on the
+ * number of cycles and on their length.
+ */
+public class CycleEnumerator {
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    /**
+     * Receives cycles; the array starts at the lowest vertex and the arc back to it is implied.
+     */
+    public interface CycleVisitor {
+        // Returns false to stop the enumeration
+        boolean visit(int[] cycle);
+    }
+
+    private final StronglyConnectedComponents components;
+    // Distinct successors inside the same component, ascending
+    private final int[] adjacencyStarts;
+    private final int[] adjacency;
+
+    public CycleEnumerator(CsrGraph graph) {
+        this(new StronglyConnectedComponents(graph));
+    }
+
+    public CycleEnumerator(StronglyConnectedComponents components) {
+        this.components = components;
+        CsrGraph graph = components.getGraph();
+        int numVertices = graph.vertexCount();
+        adjacencyStarts = new int[numVertices + 1];
+        IntStack targets = new IntStack();
+        int[] lastSeen = new int[numVertices];
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            int component = components.component(vertex);
+            if (components.isCyclic(component)) {
+                for (int arc = graph.firstArc(vertex); arc < graph.endArc(vertex); arc++) {
+                    int target = graph.target(arc);
+                    // lastSeen holds vertex + 1 for targets already taken from this vertex
+                    if (components.component(target) != component || lastSeen[target] == vertex + 1) continue;
+                    lastSeen[target] = vertex + 1;
+                    targets.push(target);
+                }
+            }
+            adjacencyStarts[vertex + 1] = targets.size();
+        }
+        adjacency = targets.toArray();
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            Arrays.sort(adjacency, adjacencyStarts[vertex], adjacencyStarts[vertex + 1]);
+        }
+    }
+
+    public StronglyConnectedComponents getComponents() {
+        return components;
+    }
+
+    /**
+     * Enumerates cycles until the visitor declines, maxCycles cycles were reported or
+     * all cycles were found. Cycles longer than maxLength vertices are skipped.
+     *
+     * maxCycles Most cycles to report, or UNLIMITED.
+     * maxLength Most vertices per cycle, or UNLIMITED.
+     * visitor Receives the cycles.
+     * return Number of cycles reported.
+     * throws IllegalArgumentException if a limit is not positive.
+     */
+    public long enumerate(long maxCycles, int maxLength, CycleVisitor visitor) {
+        if (maxCycles <= 0 || maxLength <= 0) {
+            throw new IllegalArgumentException("Limits must be positive: " + maxCycles + ", " + maxLength);
+        }
+        return new Run(maxCycles, maxLength, visitor).execute();
+    }
+
+    /**
+     * State of one enumeration.
+     */
+    private class Run {
+        private final long maxCycles;
+        private final CycleVisitor visitor;
+        private final boolean[] blocked;
+        // Vertices to unblock along with each vertex; may hold duplicates, which are harmless
+        private final IntStack[] blockedBy;
+        private final int[] path;
+        private final int[] cursors;
+        private final boolean[] closed;
+        private final IntStack unblockStack = new IntStack();
+        // Vertices whose blocked flag or waiting list the last search changed
+        private final IntStack touched = new IntStack();
+        // Components of the current induced subgraph, found by an iterative Tarjan
+        private final int[] subComponents;
+        private final int[] indices;
+        private final int[] lowLinks;
+        private final boolean[] onStack;
+        private final int[] callVertices;
+        private final int[] callCursors;
+        private final IntStack tarjanStack = new IntStack();
+        private long reported;
+
+        Run(long maxCycles, int maxLength, CycleVisitor visitor) {
+            int numVertices = adjacencyStarts.length - 1;
+            this.maxCycles = maxCycles;
+            this.visitor = visitor;
+            this.blocked = new boolean[numVertices];
+            this.blockedBy = new IntStack[numVertices];
+            int depthLimit = Math.min(numVertices, maxLength);
+            this.path = new int[depthLimit];
+            this.cursors = new int[depthLimit];
+            this.closed = new boolean[depthLimit];
+            this.subComponents = new int[numVertices];
+            this.indices = new int[numVertices];
+            this.lowLinks = new int[numVertices];
+            this.onStack = new boolean[numVertices];
+            this.callVertices = new int[numVertices];
+            this.callCursors = new int[numVertices];
+        }
+
+        long execute() {
+            int start = nextStart(0);
+            while (start >= 0) {
+                while (!touched.isEmpty()) {
+                    int vertex = touched.pop();
+                    blocked[vertex] = false;
+                    if (blockedBy[vertex] != null) blockedBy[vertex].clear();
+                }
+                if (!search(start)) break;
+                start = nextStart(start + 1);
+            }
+            return reported;
+        }
+
+        /**
+         * Splits the subgraph induced by the vertices from lowest on into components.
+         *
+         * lowest Least vertex of the subgraph.
+         * return Least vertex of a component with a cycle, or -1 if there is none.
+         */
+        private int nextStart(int lowest) {
+            int numVertices = subComponents.length;
+            for (int vertex = lowest; vertex < numVertices; vertex++) {
+                indices[vertex] = -1;
+            }
+            int nextIndex = 0;
+            int count = 0;
+            int best = -1;
+            for (int root = lowest; root < numVertices; root++) {
+                if (indices[root] >= 0 || !components.isCyclic(components.component(root))) continue;
+                int depth = 0;
+                callVertices[0] = root;
+                callCursors[0] = adjacencyStarts[root];
+                indices[root] = lowLinks[root] = nextIndex++;
+                tarjanStack.push(root);
+                onStack[root] = true;
+
+                while (depth >= 0) {
+                    int vertex = callVertices[depth];
+                    if (callCursors[depth] < adjacencyStarts[vertex + 1]) {
+                        int next = adjacency[callCursors[depth]++];
+                        if (next < lowest) continue;
+                        if (indices[next] < 0) {
+                            depth++;
+                            callVertices[depth] = next;
+                            callCursors[depth] = adjacencyStarts[next];
+                            indices[next] = lowLinks[next] = nextIndex++;
+                            tarjanStack.push(next);
+                            onStack[next] = true;
+                        } else if (onStack[next]) {
+                            lowLinks[vertex] = Math.min(lowLinks[vertex], indices[next]);
+                        }
+                        continue;
+                    }
+
+                    if (lowLinks[vertex] == indices[vertex]) {
+                        int member;
+                        int size = 0;
+                        int least = vertex;
+                        do {
+                            member = tarjanStack.pop();
+                            onStack[member] = false;
+                            subComponents[member] = count;
+                            least = Math.min(least, member);
+                            size++;
+                        } while (member != vertex);
+                        count++;
+                        if ((size > 1 || hasSelfLoop(vertex)) && (best < 0 || least < best)) best = least;
+                    }
+                    depth--;
+                    if (depth >= 0) {
+                        int caller = callVertices[depth];
+                        lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[vertex]);
+                    }
+                }
+            }
+            return best;
+        }
+
+        private boolean hasSelfLoop(int vertex) {
+            return Arrays.binarySearch(adjacency, adjacencyStarts[vertex], adjacencyStarts[vertex + 1], vertex) >= 0;
+        }
+
+        /**
+         * Whether a vertex belongs to the component being searched from start.
+         */
+        private boolean inScope(int vertex, int start) {
+            return vertex >= start && subComponents[vertex] == subComponents[start];
+        }
+
+        /**
+         * Johnson's circuit search from one start, with the recursion on an explicit stack.
+         *
+         * return False if the enumeration has to stop.
+         */
+        private boolean search(int start) {
+            int depth = 0;
+            path[0] = start;
+            cursors[0] = adjacencyStarts[start];
+            closed[0] = false;
+            blocked[start] = true;
+            touched.push(start);
+
+            while (depth >= 0) {
+                int vertex = path[depth];
+                if (cursors[depth] < adjacencyStarts[vertex + 1]) {
+                    int next = adjacency[cursors[depth]++];
+                    if (!inScope(next, start)) continue;
+                    if (next == start) {
+                        closed[depth] = true;
+                        if (!report(depth + 1)) return false;
+                    } else if (!blocked[next]) {
+                        if (depth + 1 < path.length) {
+                            depth++;
+                            path[depth] = next;
+                            cursors[depth] = adjacencyStarts[next];
+                            closed[depth] = false;
+                            blocked[next] = true;
+                            touched.push(next);
+                        } else {
+                            // Cut off by the length limit, so whether vertex can get back
+                            // to the start is unknown; leaving it unblocked keeps the run exact
+                            closed[depth] = true;
+                        }
+                    }
+                    continue;
+                }
+
+                // All successors done: unblock if a cycle went through vertex, else wait on them
+                if (closed[depth]) {
+                    unblock(vertex);
+                } else {
+                    for (int i = adjacencyStarts[vertex]; i < adjacencyStarts[vertex + 1]; i++) {
+                        int next = adjacency[i];
+                        if (!inScope(next, start)) continue;
+                        if (blockedBy[next] == null) blockedBy[next] = new IntStack(4);
+                        if (blockedBy[next].isEmpty()) touched.push(next);
+                        blockedBy[next].push(vertex);
+                    }
+                }
+                if (depth > 0 && closed[depth]) closed[depth - 1] = true;
+                depth--;
+            }
+            return true;
+        }
+
+        private boolean report(int length) {
+            int[] cycle = new int[length];
+            System.arraycopy(path, 0, cycle, 0, length);
+            reported++;
+            return visitor.visit(cycle) && reported < maxCycles;
+        }
+
+        private void unblock(int vertex) {
+            unblockStack.push(vertex);
+            blocked[vertex] = false;
+            while (!unblockStack.isEmpty()) {
+                int current = unblockStack.pop();
+                IntStack waiting = blockedBy[current];
+                if (waiting == null) continue;
+                while (!waiting.isEmpty()) {
+                    int other = waiting.pop();
+                    if (blocked[other]) {
+                        blocked[other] = false;
+                        unblockStack.push(other);
+                    }
+                }
+            }
+        }
+    }
+}
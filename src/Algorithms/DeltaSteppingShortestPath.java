@@ -0,0 +1,339 @@
+package Algorithms;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel single-source shortest paths by delta-stepping. Tentative distances are
+ * kept in buckets of width delta; all vertices of the lowest non-empty bucket are
+ * settled together by relaxing their light arcs (weight up to delta) until the bucket
+ * stays empty, and then their heavy arcs once. Each relaxation round runs as fork-join
+ * tasks over chunks of the frontier, lowering distances with compare-and-set.
+ *
+ * Distances are exactly those of DijkstraShortestPath. Parents follow the same rule,
+ * the lowest tight predecessor, and match it as well when all weights are positive;
+ * across zero weight arcs any tight predecessor that keeps the tree acyclic is used.
+ */
+public class DeltaSteppingShortestPath {
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int MIN_GRAIN = 256;
+    private static final int MAX_BUCKETS = 1 << 16;
+
+    private final CsrGraph graph;
+    private final ForkJoinPool pool;
+    private final int delta;
+    private final int maxWeight;
+
+    public DeltaSteppingShortestPath(CsrGraph graph) {
+        this(graph, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a solver for one graph.
+     *
+     * graph Graph to search; weights must be non-negative.
+     * delta Bucket width, or 0 to derive it from the weights and the average degree.
+     * pool Pool the relaxations run in.
+     * throws IllegalArgumentException if delta is negative or the graph has a negative weight.
+     */
+    public DeltaSteppingShortestPath(CsrGraph graph, int delta, ForkJoinPool pool) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Delta must not be negative: " + delta);
+        }
+        int max = 0;
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            if (graph.weight(arc) < 0) {
+                throw new IllegalArgumentException("Negative edge weight: " + graph.weight(arc));
+            }
+            max = Math.max(max, graph.weight(arc));
+        }
+        this.graph = graph;
+        this.pool = pool;
+        this.maxWeight = max;
+        this.delta = delta > 0 ? delta : tuneDelta(graph, max);
+    }
+
+    /**
+     * Picks a bucket width of about the largest weight over the average degree, the
+     * usual choice that keeps both the number of buckets and the number of repeated
+     * light relaxations small.
+     *
+     * graph Graph to search.
+     * maxWeight Largest arc weight.
+     * return The bucket width, at least 1.
+     */
+    static int tuneDelta(CsrGraph graph, int maxWeight) {
+        double averageDegree = graph.vertexCount() == 0 ? 1 : (double) graph.arcCount() / graph.vertexCount();
+        return (int) Math.max(1, maxWeight / Math.max(1, averageDegree));
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Computes shortest paths from one source. Calls are independent and may run
+     * concurrently.
+     *
+     * source Source vertex.
+     * return The shortest path tree of the source.
+     */
+    public ShortestPathTree shortestPathTree(int source) {
+        if (source < 0 || source >= graph.vertexCount()) {
+            throw new IllegalArgumentException("Source vertex out of range: " + source);
+        }
+        return new Run(source).execute();
+    }
+
+    /**
+     * Runs body(0) .. body(count - 1) in the pool, or inline when there is only one.
+     */
+    private void parallelFor(int count, IntConsumer body) {
+        ForkJoinLoops.parallelFor(pool, count, body);
+    }
+
+    /**
+     * State of one query. Buckets form a ring indexed by distance / delta; when the
+     * ring is smaller than the spread of pending distances a slot can also hold entries
+     * of later buckets, which stay until their turn.
+     */
+    private class Run {
+        private final int source;
+        private final int numVertices;
+        private final int[] distances;
+        private final IntStack[] buckets;
+        private IntStack spare = new IntStack();
+        private final int[] frontierStamp;
+        private final int[] settledStamp;
+        private final IntStack frontier = new IntStack();
+        private final IntStack settled = new IntStack();
+        private IntStack[] improved = new IntStack[0];
+        private long pendingEntries;
+        private int frontierRound;
+        private int bucketRound;
+
+        Run(int source) {
+            this.source = source;
+            this.numVertices = graph.vertexCount();
+            this.distances = new int[numVertices];
+            this.frontierStamp = new int[numVertices];
+            this.settledStamp = new int[numVertices];
+            int ringSize = (int) Math.min(MAX_BUCKETS, (long) maxWeight / delta + 2);
+            this.buckets = new IntStack[ringSize];
+            for (int i = 0; i < ringSize; i++) {
+                buckets[i] = new IntStack();
+            }
+            Arrays.fill(distances, ShortestPathTree.UNREACHABLE);
+        }
+
+        ShortestPathTree execute() {
+            distances[source] = 0;
+            buckets[0].push(source);
+            pendingEntries = 1;
+
+            int index = 0;
+            int emptyRun = 0;
+            while (pendingEntries > 0) {
+                if (!collectFrontier(index)) {
+                    // Skip ahead once a whole turn of the ring has come up empty
+                    if (++emptyRun >= buckets.length) {
+                        index = lowestPendingBucket(index);
+                        emptyRun = 0;
+                    } else {
+                        index++;
+                    }
+                    continue;
+                }
+                emptyRun = 0;
+                settled.clear();
+                bucketRound++;
+                do {
+                    for (int i = 0; i < frontier.size(); i++) {
+                        int vertex = frontier.get(i);
+                        if (settledStamp[vertex] != bucketRound) {
+                            settledStamp[vertex] = bucketRound;
+                            settled.push(vertex);
+                        }
+                    }
+                    relaxAll(frontier, true);
+                } while (collectFrontier(index));
+                relaxAll(settled, false);
+                index++;
+            }
+            return new ShortestPathTree(graph, source, distances, computeParents());
+        }
+
+        /**
+         * Takes the live entries of a bucket as the next frontier.
+         *
+         * index Bucket number.
+         * return false if the bucket held no live entry.
+         */
+        private boolean collectFrontier(int index) {
+            IntStack slot = buckets[index % buckets.length];
+            frontier.clear();
+            if (slot.isEmpty()) return false;
+            int frontierId = ++frontierRound;
+            spare.clear();
+            for (int i = 0; i < slot.size(); i++) {
+                int vertex = slot.get(i);
+                int bucket = distances[vertex] / delta;
+                if (bucket > index) {
+                    spare.push(vertex);
+                } else if (bucket == index && frontierStamp[vertex] != frontierId) {
+                    frontierStamp[vertex] = frontierId;
+                    frontier.push(vertex);
+                }
+            }
+            pendingEntries -= slot.size() - spare.size();
+            buckets[index % buckets.length] = spare;
+            spare = slot;
+            return !frontier.isEmpty();
+        }
+
+        /**
+         * Finds the lowest bucket that still has a live entry, dropping stale ones.
+         */
+        private int lowestPendingBucket(int index) {
+            int lowest = Integer.MAX_VALUE;
+            pendingEntries = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                IntStack slot = buckets[b];
+                spare.clear();
+                for (int i = 0; i < slot.size(); i++) {
+                    int bucket = distances[slot.get(i)] / delta;
+                    if (bucket >= index) {
+                        spare.push(slot.get(i));
+                        lowest = Math.min(lowest, bucket);
+                    }
+                }
+                pendingEntries += spare.size();
+                buckets[b] = spare;
+                spare = slot;
+            }
+            return lowest;
+        }
+
+        /**
+         * Relaxes the light or the heavy arcs of a set of vertices in parallel and files
+         * every vertex whose distance went down into its bucket.
+         */
+        private void relaxAll(IntStack vertices, boolean light) {
+            int count = vertices.size();
+            int grain = Math.max(MIN_GRAIN, count / (pool.getParallelism() * 4));
+            int chunks = (count + grain - 1) / grain;
+            if (improved.length < chunks) {
+                int oldLength = improved.length;
+                improved = Arrays.copyOf(improved, chunks);
+                for (int c = oldLength; c < chunks; c++) {
+                    improved[c] = new IntStack();
+                }
+            }
+            parallelFor(chunks, chunk -> {
+                IntStack out = improved[chunk];
+                out.clear();
+                int end = Math.min(count, (chunk + 1) * grain);
+                for (int i = chunk * grain; i < end; i++) {
+                    relaxArcs(vertices.get(i), light, out);
+                }
+            });
+            for (int c = 0; c < chunks; c++) {
+                IntStack out = improved[c];
+                for (int i = 0; i < out.size(); i++) {
+                    int vertex = out.get(i);
+                    buckets[(distances[vertex] / delta) % buckets.length].push(vertex);
+                }
+                pendingEntries += out.size();
+            }
+        }
+
+        private void relaxArcs(int vertex, boolean light, IntStack out) {
+            long distance = (int) INTS.getVolatile(distances, vertex);
+            for (int arc = graph.firstArc(vertex); arc < graph.endArc(vertex); arc++) {
+                int weight = graph.weight(arc);
+                if ((weight <= delta) != light) continue;
+                long newDistance = distance + weight;
+                if (newDistance >= ShortestPathTree.UNREACHABLE) continue;
+                int target = graph.target(arc);
+                if (lower(distances, target, (int) newDistance)) out.push(target);
+            }
+        }
+
+        /**
+         * Picks for every vertex its lowest tight predecessor over a positive arc, then
+         * hangs the vertices reached only over zero weight arcs below a resolved vertex.
+         */
+        private int[] computeParents() {
+            int[] parents = new int[numVertices];
+            Arrays.fill(parents, -1);
+            int grain = Math.max(MIN_GRAIN, numVertices / (pool.getParallelism() * 4));
+            parallelFor((numVertices + grain - 1) / grain, chunk -> {
+                int end = Math.min(numVertices, (chunk + 1) * grain);
+                for (int u = chunk * grain; u < end; u++) {
+                    if (distances[u] == ShortestPathTree.UNREACHABLE) continue;
+                    for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                        int v = graph.target(arc);
+                        if (graph.weight(arc) > 0 && (long) distances[u] + graph.weight(arc) == distances[v]) {
+                            lowerParent(parents, v, u);
+                        }
+                    }
+                }
+            });
+
+            IntStack queue = new IntStack();
+            boolean unresolved = false;
+            for (int v = 0; v < numVertices; v++) {
+                if (distances[v] == ShortestPathTree.UNREACHABLE) continue;
+                if (v == source || parents[v] >= 0) queue.push(v);
+                else unresolved = true;
+            }
+            if (!unresolved) return parents;
+            for (int head = 0; head < queue.size(); head++) {
+                int u = queue.get(head);
+                for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                    int v = graph.target(arc);
+                    if (graph.weight(arc) == 0 && v != source && parents[v] < 0 && distances[v] == distances[u]) {
+                        parents[v] = u;
+                        queue.push(v);
+                    }
+                }
+            }
+            return parents;
+        }
+    }
+
+    /**
+     * Atomically lowers values[index] to value.
+     *
+     * return true if the value went down.
+     */
+    private static boolean lower(int[] values, int index, int value) {
+        int current = (int) INTS.getVolatile(values, index);
+        while (value < current) {
+            int witness = (int) INTS.compareAndExchange(values, index, current, value);
+            if (witness == current) return true;
+            current = witness;
+        }
+        return false;
+    }
+
+    /**
+     * Atomically lowers a parent entry, where -1 means none yet.
+     */
+    private static void lowerParent(int[] parents, int vertex, int parent) {
+        int current = (int) INTS.getVolatile(parents, vertex);
+        while (current < 0 || parent < current) {
+            int witness = (int) INTS.compareAndExchange(parents, vertex, current, parent);
+            if (witness == current) return;
+            current = witness;
+        }
+    }
+}
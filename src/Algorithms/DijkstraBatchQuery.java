@@ -0,0 +1,152 @@
+package Algorithms;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe engine that runs many single-source Dijkstra queries against one
+ * shared, read-only graph. Every query borrows a DijkstraWorkspace from the engine's
+ * pool and returns it when done, so queries never share mutable state and a warmed-up
+ * engine allocates nothing but the results it hands back. The pool holds at most one
+ * workspace per query that ever ran at the same time, and goes away with the engine
+ * rather than staying behind on the threads that ran it. An optional
+ * ShortestPathCache answers repeated sources without running the query again.
+ */
+public class DijkstraBatchQuery {
+
+    private final CsrGraph graph;
+    private final HeapType heapType;
+    private final ConcurrentLinkedQueue<DijkstraWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+    private final ShortestPathCache cache;
+
+    /**
+     * Receives the raw result of one query on the thread that computed it.
+     * The workspace goes back to the pool as soon as visit returns.
+     */
+    public interface WorkspaceVisitor {
+        void visit(int source, DijkstraWorkspace workspace);
+    }
+
+    public DijkstraBatchQuery(CsrGraph graph) {
+        this(graph, HeapType.QUATERNARY);
+    }
+
+    /**
+     * Creates an engine for one graph.
+     *
+     * graph Graph every query runs on.
+     * heapType Priority queue used by every query.
+     */
+    public DijkstraBatchQuery(CsrGraph graph, HeapType heapType) {
+        this(graph, heapType, null);
+    }
+
+    /**
+     * Creates an engine that serves trees from a cache when it can.
+     *
+     * graph Graph every query runs on.
+     * heapType Priority queue used by every query.
+     * cache Cache of computed trees, which may be shared with other engines, or null.
+     */
+    public DijkstraBatchQuery(CsrGraph graph, HeapType heapType, ShortestPathCache cache) {
+        this.graph = graph;
+        this.heapType = heapType;
+        this.cache = cache;
+    }
+
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    public HeapType getHeapType() {
+        return heapType;
+    }
+
+    public ShortestPathCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Runs one query on the calling thread, or takes it from the cache.
+     *
+     * source Source vertex.
+     * return The shortest path tree of the source.
+     */
+    public ShortestPathTree query(int source) {
+        return cache == null ? compute(source) : cache.computeIfAbsent(graph, source, this::compute);
+    }
+
+    private ShortestPathTree compute(int source) {
+        DijkstraWorkspace workspace = borrowWorkspace();
+        try {
+            DijkstraShortestPath.calculateShortestPaths(graph, source, workspace);
+            return workspace.toShortestPathTree(graph);
+        } finally {
+            workspaces.offer(workspace);
+        }
+    }
+
+    private DijkstraWorkspace borrowWorkspace() {
+        DijkstraWorkspace workspace = workspaces.poll();
+        return workspace != null ? workspace : new DijkstraWorkspace(graph.vertexCount(), heapType);
+    }
+
+    /**
+     * Runs the queries across the common fork-join pool. The stream is lazy and keeps
+     * the order of the sources; queries run when it is consumed.
+     *
+     * sources Source vertices.
+     * return One tree per source.
+     */
+    public Stream<ShortestPathTree> shortestPathTrees(int... sources) {
+        checkSources(sources);
+        return IntStream.of(sources).parallel().mapToObj(this::query);
+    }
+
+    /**
+     * Runs the queries for sources given by label.
+     *
+     * sourceLabels Names of the source vertices.
+     * return One tree per source, in the order given.
+     */
+    public Stream<ShortestPathTree> shortestPathTrees(List<String> sourceLabels) {
+        int[] sources = new int[sourceLabels.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = graph.vertexOf(sourceLabels.get(i));
+            if (sources[i] < 0) {
+                throw new IllegalArgumentException("Unknown vertex: " + sourceLabels.get(i));
+            }
+        }
+        return shortestPathTrees(sources);
+    }
+
+    /**
+     * Runs the queries in parallel and hands each raw result to the visitor without
+     * copying it, for callers that only need a few values per tree. Bypasses the cache.
+     *
+     * sources Source vertices.
+     * visitor Called once per source, possibly from several threads at once.
+     */
+    public void forEachSource(int[] sources, WorkspaceVisitor visitor) {
+        checkSources(sources);
+        IntStream.of(sources).parallel().forEach(source -> {
+            DijkstraWorkspace workspace = borrowWorkspace();
+            try {
+                DijkstraShortestPath.calculateShortestPaths(graph, source, workspace);
+                visitor.visit(source, workspace);
+            } finally {
+                workspaces.offer(workspace);
+            }
+        });
+    }
+
+    private void checkSources(int[] sources) {
+        for (int source : sources) {
+            if (source < 0 || source >= graph.vertexCount()) {
+                throw new IllegalArgumentException("Source vertex out of range: " + source);
+            }
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package Algorithms;
 
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.*;
+import java.io.IOException;
 
 /**
  * Implementation of Dijkstra's Shortest Path algorithm.
@@ -12,10 +11,22 @@ public class DijkstraShortestPath {
     private int startingVertex;
     private int numVertices;
     private int numEdges;
-    private Map<Integer, List<Edge>> adjacencyList;
-    private int[] shortestDistances;
-    private boolean[] visitedNodes;
-    private String alphabetLabels = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private CsrGraph graph;
+    private GraphFileReader graphReader = new GraphFileReader();
+    private HeapType heapType = HeapType.QUATERNARY;
+    private DijkstraWorkspace workspace;
+    private ShortestPathTree shortestPathTree;
+
+    /**
+     * Executes Dijkstra's Shortest Path algorithm with the given priority queue.
+     * 
+     * filePath Path to the input file containing the graph data.
+     * heapType Priority queue to use for this run.
+     */
+    public void executeDijkstra(String filePath, HeapType heapType) {
+        this.heapType = heapType;
+        executeDijkstra(filePath);
+    }
 
     /**
      * Executes Dijkstra's Shortest Path algorithm.
@@ -29,9 +40,16 @@ public class DijkstraShortestPath {
             calculateShortestPaths();
             long endTime = System.nanoTime();
             printResults(startTime, endTime);
+            if (Metrics.ENABLED) {
+                Metrics.add(Metrics.Algorithm.DIJKSTRA, RunMetrics.Counter.PARSE_NANOS, graphReader.parseNanos());
+                RunMetrics run = workspace.getMetrics().add(RunMetrics.Counter.PARSE_NANOS, graphReader.parseNanos());
+                System.out.println("Metrics: " + run);
+            }
         } catch (FileNotFoundException e) {
             System.out.println("File not found.");
             e.printStackTrace();
+        } catch (IOException e) {
+            System.out.println("Could not read graph file: " + e.getMessage());
         }
     }
 
@@ -39,164 +57,132 @@ public class DijkstraShortestPath {
      * Reads the graph from the input file.
      * 
      * filePath Path to the input file.
-     * throws FileNotFoundException
+     * throws IOException
      */
-    private void readGraphFile(String filePath) throws FileNotFoundException {
-        File file = new File(filePath);
-        Scanner scanner = new Scanner(file);
-        numVertices = scanner.nextInt();
-        numEdges = scanner.nextInt();
-        char graphType = scanner.next().charAt(0);
-
-        adjacencyList = new HashMap<>();
-        shortestDistances = new int[numVertices];
-        visitedNodes = new boolean[numVertices];
-
-        for (int i = 0; i < numEdges; i++) {
-            String sourceNode = scanner.next();
-            String destinationNode = scanner.next();
-            int edgeWeight = scanner.nextInt();
-
-            int sourceIndex = alphabetLabels.indexOf(sourceNode.charAt(0));
-            int destinationIndex = alphabetLabels.indexOf(destinationNode.charAt(0));
-            adjacencyList.computeIfAbsent(sourceIndex, k -> new ArrayList<>())
-                    .add(new Edge(destinationIndex, edgeWeight));
-            if (graphType == 'U') {
-                adjacencyList.computeIfAbsent(destinationIndex, k -> new ArrayList<>())
-                        .add(new Edge(sourceIndex, edgeWeight));
-            }
-        }
-
-        startingVertex = alphabetLabels.indexOf(scanner.next().charAt(0));
-        scanner.close();
+    private void readGraphFile(String filePath) throws IOException {
+        graph = graphReader.load(filePath, false);
+        numVertices = graph.vertexCount();
+        numEdges = graph.edgeCount();
+        startingVertex = Math.max(graph.sourceVertex(), 0);
     }
 
     /**
-     * Calculates shortest paths using Dijkstra's algorithm.
+     * Calculates shortest paths from the starting vertex into the reusable workspace.
      */
     private void calculateShortestPaths() {
-        
-        PriorityQueue<Node> minHeap = new PriorityQueue<>(Comparator.comparingInt(Node::getDistance));
-        Arrays.fill(shortestDistances, Integer.MAX_VALUE);
-        shortestDistances[startingVertex] = 0;
-        minHeap.offer(new Node(startingVertex, 0));
-
-        // Loop until priority queue is empty
-        while (!minHeap.isEmpty()) {
-            Node currentNode = minHeap.poll();
-            int vertex = currentNode.getVertex();
-            int distance = currentNode.getDistance();
-
-            if (visitedNodes[vertex]) continue;
-            visitedNodes[vertex] = true;
-            
-            // Iterate over neighbors of current vertex
-            for (Edge neighbor : adjacencyList.getOrDefault(vertex, Collections.emptyList())) {
-                int nextVertex = neighbor.getDestination();
-                int weight = neighbor.getWeight();
-                int newDistance = distance + weight; // Calculate new distance to neighbor
-                // Update shortest distance if new distance is shorter
-                if (newDistance < shortestDistances[nextVertex]) {
-                    shortestDistances[nextVertex] = newDistance;
-                    minHeap.offer(new Node(nextVertex, newDistance));
-                }
-            }
+        if (workspace == null || !workspace.fits(graph, heapType)) {
+            workspace = new DijkstraWorkspace(numVertices, heapType);
         }
+        calculateShortestPaths(graph, startingVertex, workspace);
+        shortestPathTree = workspace.toShortestPathTree(graph);
     }
 
     /**
-     * Prints results.
+     * Runs Dijkstra's algorithm with a real decrease-key, recording the parent of every
+     * vertex as it is relaxed. Results are left in the workspace.
      * 
-     * startTime Start time of algorithm execution.
-     * endTime End time of algorithm execution.
+     * graph Graph to search; weights must be non-negative.
+     * source Source vertex.
+     * workspace Scratch state sized for the graph, reset before use.
      */
-    private void printResults(long startTime, long endTime) {
-        System.out.println("Number of Vertices: " + numVertices);
-        System.out.println("Number of Edges: " + numEdges);
-        System.out.println("Execution Time: " + (endTime - startTime) + " nanoseconds");
-        System.out.println("Shortest Path Tree from source vertex " + alphabetLabels.charAt(startingVertex) + ":");
-        System.out.println("Path from " + alphabetLabels.charAt(startingVertex) + " to other vertices:");
-
-        for (int i = 0; i < numVertices; i++) {
-            if (i != startingVertex) {
-                String path = reconstructPath(i);
-                System.out.println(alphabetLabels.charAt(startingVertex) + path + " Path cost: " + shortestDistances[i]);
-            }
-        }
+    public static void calculateShortestPaths(CsrGraph graph, int source, DijkstraWorkspace workspace) {
+        calculateShortestPaths(graph.cursor(), source, workspace);
     }
 
     /**
-     * Reconstructs the shortest path from starting vertex to destination vertex.
+     * Runs Dijkstra's algorithm on a compressed graph, decoding each neighbor list as
+     * its vertex is settled. Distances are the same as on the uncompressed graph.
      * 
-     * destination Destination vertex.
-     * return Shortest path as a string.
+     * graph Compressed graph to search; weights must be non-negative.
+     * source Source vertex.
+     * workspace Scratch state sized for the graph, reset before use.
      */
-    private String reconstructPath(int destination) {
-        StringBuilder path = new StringBuilder();
-        int currentVertex = destination;
-        while (currentVertex != startingVertex) {
-            path.insert(0, " --> " + alphabetLabels.charAt(currentVertex));
-            currentVertex = findPreviousVertex(currentVertex);
+    public static void calculateShortestPaths(CompressedGraph graph, int source, DijkstraWorkspace workspace) {
+        calculateShortestPaths(graph.cursor(), source, workspace);
+    }
+
+    private static void calculateShortestPaths(NeighborCursor neighbors, int source, DijkstraWorkspace workspace) {
+        long startTime = Metrics.ENABLED ? System.nanoTime() : 0;
+        long relaxations = 0;
+        IndexedMinQueue minHeap = workspace.queue;
+        int[] distances = workspace.distances;
+        workspace.reset();
+        workspace.source = source;
+        workspace.seed(source, 0);
+
+        // Loop until priority queue is empty
+        while (!minHeap.isEmpty()) {
+            int vertex = minHeap.pollMin();
+            int distance = distances[vertex];
+            workspace.settledCount++;
+
+            // Iterate over neighbors of current vertex
+            neighbors.moveTo(vertex);
+            while (neighbors.next()) {
+                if (Metrics.ENABLED) relaxations++;
+                long newDistance = (long) distance + neighbors.weight(); // Calculate new distance to neighbor
+                workspace.relax(vertex, neighbors.target(), newDistance, newDistance);
+            }
         }
-        return path.toString();
+
+        if (Metrics.ENABLED) recordMetrics(workspace, startTime, relaxations);
+    }
+
+    private static void recordMetrics(DijkstraWorkspace workspace, long startTime, long relaxations) {
+        // Every vertex is queued once and decreased in place, so pops equal settled vertices
+        // and no stale entry is ever skipped
+        workspace.metrics = new RunMetrics(Metrics.Algorithm.DIJKSTRA)
+                .add(RunMetrics.Counter.COMPUTE_NANOS, System.nanoTime() - startTime)
+                .add(RunMetrics.Counter.VERTICES_SETTLED, workspace.settledCount)
+                .add(RunMetrics.Counter.EDGE_RELAXATIONS, relaxations)
+                .add(RunMetrics.Counter.HEAP_PUSHES, workspace.pushCount)
+                .add(RunMetrics.Counter.HEAP_POPS, workspace.settledCount)
+                .add(RunMetrics.Counter.DECREASE_KEYS, workspace.decreaseKeyCount);
+        Metrics.record(workspace.metrics);
     }
 
     /**
-     * Finds the previous vertex in the shortest path.
+     * Returns the shortest path tree of the last run.
      * 
-     * vertex Current vertex.
-     * return Previous vertex in the shortest path.
+     * return The tree, or null if no graph has been processed yet.
      */
-    private int findPreviousVertex(int vertex) {
-        for (int i = 0; i < numVertices; i++) {
-            int v = i;
-            if (adjacencyList.getOrDefault(v, Collections.emptyList()).stream()
-                    .anyMatch(edge -> edge.getDestination() == vertex && shortestDistances[v] + edge.getWeight() == shortestDistances[vertex])) {
-                return i;
-            }
-        }
-        return -1;
+    public ShortestPathTree getShortestPathTree() {
+        return shortestPathTree;
     }
 
     /**
-     * Node class representing a vertex and its distance.
+     * Starts a dynamic tree from the last run, so that edge updates repair it instead of
+     * running again.
+     * 
+     * return The dynamic tree, or null if no graph has been processed yet.
      */
-    private static class Node {
-        private int vertex;
-        private int distance;
-
-        public Node(int vertex, int distance) {
-            this.vertex = vertex;
-            this.distance = distance;
-        }
-
-        public int getVertex() {
-            return vertex;
-        }
-
-        public int getDistance() {
-            return distance;
-        }
+    public DynamicShortestPathTree toDynamicTree() {
+        if (shortestPathTree == null) return null;
+        return DynamicShortestPathTree.of(shortestPathTree);
     }
 
     /**
-     * Edge class representing a weighted edge between two vertices.
+     * Prints results.
+     * 
+     * startTime Start time of algorithm execution.
+     * endTime End time of algorithm execution.
      */
-    private static class Edge {
-        private int destination;
-        private int weight;
-
-        public Edge(int destination, int weight) {
-            this.destination = destination;
-            this.weight = weight;
-        }
-
-        public int getDestination() {
-            return destination;
-        }
+    private void printResults(long startTime, long endTime) {
+        System.out.println("Number of Vertices: " + numVertices);
+        System.out.println("Number of Edges: " + numEdges);
+        System.out.println(graphReader.describeLoad());
+        System.out.println("Execution Time: " + (endTime - startTime) + " nanoseconds (" + heapType + " heap)");
+        System.out.println("Shortest Path Tree from source vertex " + graph.label(startingVertex) + ":");
+        System.out.println("Path from " + graph.label(startingVertex) + " to other vertices:");
 
-        public int getWeight() {
-            return weight;
+        for (int i = 0; i < numVertices; i++) {
+            if (i != startingVertex) {
+                if (shortestPathTree.isReachable(i)) {
+                    System.out.println(shortestPathTree.formatPath(i) + " Path cost: " + shortestPathTree.distance(i));
+                } else {
+                    System.out.println(graph.label(i) + " is unreachable from " + graph.label(startingVertex));
+                }
+            }
         }
     }
 }
\ No newline at end of file
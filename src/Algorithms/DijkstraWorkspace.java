@@ -0,0 +1,163 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Reusable scratch state for Dijkstra runs on graphs up to a fixed vertex count.
+ * Only the entries touched by the previous run are reset, so once a workspace has
+ * been created repeated queries allocate nothing.
+ */
+public class DijkstraWorkspace {
+
+    final int[] distances;
+    final int[] parents;
+    final IndexedMinQueue queue;
+    final IntStack touched;
+    private final HeapType heapType;
+    int source = -1;
+    int settledCount;
+    // Queue operations of the current run, counted only while Metrics.ENABLED
+    long pushCount;
+    long decreaseKeyCount;
+    RunMetrics metrics;
+
+    /**
+     * Creates a workspace.
+     *
+     * vertexCount Largest vertex count of the graphs it will be used with.
+     * heapType Priority queue to run with.
+     */
+    public DijkstraWorkspace(int vertexCount, HeapType heapType) {
+        this.distances = new int[vertexCount];
+        this.parents = new int[vertexCount];
+        this.queue = heapType.create(vertexCount);
+        this.touched = new IntStack(Math.min(vertexCount, 1024));
+        this.heapType = heapType;
+        Arrays.fill(distances, ShortestPathTree.UNREACHABLE);
+        Arrays.fill(parents, -1);
+    }
+
+    /**
+     * Checks whether the workspace can run on a graph with the given settings.
+     *
+     * graph Graph to run on.
+     * heapType Requested priority queue.
+     * return true if no new workspace is needed.
+     */
+    public boolean fits(CsrGraph graph, HeapType heapType) {
+        return graph.vertexCount() <= distances.length && this.heapType == heapType;
+    }
+
+    /**
+     * Clears the results of the previous run.
+     */
+    void reset() {
+        for (int i = 0; i < touched.size(); i++) {
+            int vertex = touched.get(i);
+            distances[vertex] = ShortestPathTree.UNREACHABLE;
+            parents[vertex] = -1;
+        }
+        touched.clear();
+        queue.clear();
+        settledCount = 0;
+        pushCount = 0;
+        decreaseKeyCount = 0;
+        metrics = null;
+        source = -1;
+    }
+
+    /**
+     * Starts a search at the vertex.
+     *
+     * vertex Start vertex, at distance 0.
+     * key Queue key of the start vertex.
+     */
+    void seed(int vertex, int key) {
+        distances[vertex] = 0;
+        touched.push(vertex);
+        queue.insert(vertex, key);
+    }
+
+    /**
+     * Offers a path to a vertex and queues it if the path is shorter than the best so far.
+     * Equal paths switch to the lower parent id so the tree does not depend on heap order.
+     *
+     * from Vertex the path arrives from.
+     * to Vertex being relaxed.
+     * newDistance Length of the offered path.
+     * key Queue key for the vertex, newDistance for plain Dijkstra.
+     * return true if the distance improved.
+     */
+    boolean relax(int from, int to, long newDistance, long key) {
+        int oldDistance = distances[to];
+        if (newDistance < oldDistance) {
+            distances[to] = (int) newDistance;
+            parents[to] = from;
+            int queueKey = (int) Math.min(key, Integer.MAX_VALUE - 1);
+            if (oldDistance == ShortestPathTree.UNREACHABLE) {
+                touched.push(to);
+                queue.insert(to, queueKey);
+                if (Metrics.ENABLED) pushCount++;
+            } else if (queue.contains(to)) {
+                queue.decreaseKey(to, queueKey);
+                if (Metrics.ENABLED) decreaseKeyCount++;
+            } else {
+                queue.insert(to, queueKey); // reopened by an inconsistent heuristic
+                if (Metrics.ENABLED) pushCount++;
+            }
+            return true;
+        }
+        if (newDistance == oldDistance && from < parents[to] && queue.contains(to)) {
+            parents[to] = from;
+        }
+        return false;
+    }
+
+    public HeapType getHeapType() {
+        return heapType;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Number of vertices settled by the last run.
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Counters of the last run of calculateShortestPaths.
+     *
+     * return The counters, or null if metrics are disabled.
+     */
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int distance(int vertex) {
+        return distances[vertex];
+    }
+
+    public int parent(int vertex) {
+        return parents[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return distances[vertex] != ShortestPathTree.UNREACHABLE;
+    }
+
+    /**
+     * Copies the last run out into a standalone result.
+     *
+     * graph Graph the run was made on.
+     * return A tree that stays valid after the workspace is reused.
+     */
+    public ShortestPathTree toShortestPathTree(CsrGraph graph) {
+        int numVertices = graph.vertexCount();
+        return new ShortestPathTree(graph, source, Arrays.copyOf(distances, numVertices),
+                Arrays.copyOf(parents, numVertices));
+    }
+}
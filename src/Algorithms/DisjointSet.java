@@ -0,0 +1,110 @@
+package Algorithms;
+
+/**
+ * Single-threaded union-find over int arrays, with union by size and iterative path
+ * halving, so no call recurses however long a parent chain gets.
+ */
+public class DisjointSet implements UnionFind {
+
+    private final int[] parents;
+    private final int[] sizes;
+    private int componentCount;
+    // Counted only while Metrics.ENABLED
+    private long findCount;
+    private long findPathLength;
+    private long unionCount;
+
+    /**
+     * Creates singleton sets.
+     *
+     * size Number of elements.
+     */
+    public DisjointSet(int size) {
+        parents = new int[size];
+        sizes = new int[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+        componentCount = size;
+    }
+
+    @Override
+    public int size() {
+        return parents.length;
+    }
+
+    @Override
+    public int find(int element) {
+        if (Metrics.ENABLED) findCount++;
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+            if (Metrics.ENABLED) findPathLength++;
+        }
+        return element;
+    }
+
+    @Override
+    public boolean union(int a, int b) {
+        return unionRoots(find(a), find(b));
+    }
+
+    /**
+     * Merges two sets given by their representatives, hanging the smaller under the
+     * larger.
+     *
+     * rootA Representative of the first set.
+     * rootB Representative of the second set.
+     * return true if they were different sets.
+     */
+    public boolean unionRoots(int rootA, int rootB) {
+        if (rootA == rootB) return false;
+        if (sizes[rootA] < sizes[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parents[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+        componentCount--;
+        if (Metrics.ENABLED) unionCount++;
+        return true;
+    }
+
+    @Override
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    @Override
+    public int componentCount() {
+        return componentCount;
+    }
+
+    @Override
+    public int componentSize(int element) {
+        return sizes[find(element)];
+    }
+
+    /**
+     * Number of find calls so far; only counted while metrics are enabled.
+     */
+    public long getFindCount() {
+        return findCount;
+    }
+
+    /**
+     * Parent links followed by all find calls so far; only counted while metrics are enabled.
+     */
+    public long getFindPathLength() {
+        return findPathLength;
+    }
+
+    /**
+     * Number of merging unions so far; only counted while metrics are enabled.
+     */
+    public long getUnionCount() {
+        return unionCount;
+    }
+}
@@ -0,0 +1,24 @@
+package Algorithms;
+
+/**
+ * Lower bound on the remaining distance used to direct an A* search.
+ * Implementations must be consistent: estimate(u, t) <= w(u, v) + estimate(v, t)
+ * for every arc (u, v), and estimate(t, t) == 0.
+ */
+public interface DistanceHeuristic {
+
+    /**
+     * Heuristic that always answers 0, which turns A* into plain Dijkstra with early exit.
+     */
+    DistanceHeuristic NONE = (vertex, target) -> 0;
+
+    /**
+     * Estimates the distance between two vertices without overestimating it.
+     *
+     * vertex Vertex being expanded.
+     * target Query target.
+     * return A lower bound on the distance from vertex to target, or
+     *        ShortestPathTree.UNREACHABLE if the target provably cannot be reached.
+     */
+    int estimate(int vertex, int target);
+}
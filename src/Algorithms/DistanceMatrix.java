@@ -0,0 +1,216 @@
+package Algorithms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Shortest distance between every pair of vertices, as one flat row-major int array:
+ * the distance from u to v is entry u * V + v, ShortestPathTree.UNREACHABLE if there is
+ * no path. Indices are ints, so a matrix holds at most 46336 vertices, the most that
+ * still fit once padded to whole Floyd-Warshall tiles.
+ *
+ * A matrix is written to a binary file (little endian): a 64 byte header, the V * V
+ * distances, then labelOffsets[V + 1] and the UTF-8 label bytes, checksummed with CRC32C
+ * like a GraphSnapshot. The file can be read back onto the heap or mapped, in which case
+ * the distances stay in the file and are paged in as they are looked up.
+ */
+public class DistanceMatrix {
+
+    public static final String EXTENSION = ".dmat";
+
+    private static final int MAGIC = 0x54414D44; // "DMAT"
+    private static final int VERSION = 1;
+    private static final int CHUNK_MASK = OffHeapAdjacency.CHUNK_INTS - 1;
+    static final int MAX_VERTICES = 46336;
+
+    private final VertexLabels labels;
+    private final int vertexCount;
+    // Exactly one of these holds the distances
+    private final int[] distances;
+    private final IntBuffer[] mappedDistances;
+
+    /**
+     * Wraps the distances computed for a graph; the matrix takes ownership of the array.
+     *
+     * labels Labels of the graph.
+     * vertexCount Number of vertices.
+     * distances V * V distances, row-major.
+     */
+    DistanceMatrix(VertexLabels labels, int vertexCount, int[] distances) {
+        this.labels = labels;
+        this.vertexCount = vertexCount;
+        this.distances = distances;
+        this.mappedDistances = null;
+    }
+
+    private DistanceMatrix(VertexLabels labels, int vertexCount, IntBuffer[] mappedDistances) {
+        this.labels = labels;
+        this.vertexCount = vertexCount;
+        this.distances = null;
+        this.mappedDistances = mappedDistances;
+    }
+
+    /**
+     * Checks that a graph is small enough for a matrix.
+     *
+     * throws IllegalArgumentException if it has more than MAX_VERTICES vertices.
+     */
+    static void checkSize(int numVertices) {
+        if (numVertices > MAX_VERTICES) {
+            throw new IllegalArgumentException("Distance matrices are limited to " + MAX_VERTICES
+                    + " vertices, the graph has " + numVertices);
+        }
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Shortest distance from one vertex to another.
+     *
+     * from Source vertex.
+     * to Destination vertex.
+     * return The distance, or ShortestPathTree.UNREACHABLE if there is no path.
+     */
+    public int distance(int from, int to) {
+        int index = from * vertexCount + to;
+        if (distances != null) return distances[index];
+        return mappedDistances[index >>> OffHeapAdjacency.CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    public boolean isReachable(int from, int to) {
+        return distance(from, to) != ShortestPathTree.UNREACHABLE;
+    }
+
+    public String label(int vertex) {
+        return labels.labelOf(vertex);
+    }
+
+    public int vertexOf(String label) {
+        return labels.idOf(label);
+    }
+
+    /**
+     * Whether the distances are mapped from a file rather than held on the heap.
+     */
+    public boolean isMapped() {
+        return mappedDistances != null;
+    }
+
+    /**
+     * Writes the matrix to a file.
+     *
+     * matrixPath Destination file.
+     * throws IOException
+     */
+    public void write(String matrixPath) throws IOException {
+        byte[][] labelBytes = new byte[vertexCount][];
+        long totalLabelBytes = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            labelBytes[v] = label(v).getBytes(StandardCharsets.UTF_8);
+            totalLabelBytes += labelBytes[v].length;
+        }
+        if (totalLabelBytes > Integer.MAX_VALUE) {
+            throw new IOException("Vertex labels exceed 2 GB");
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(matrixPath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            GraphSnapshot.SectionWriter out = new GraphSnapshot.SectionWriter(channel);
+            int count = vertexCount * vertexCount;
+            for (int i = 0; i < count; i++) {
+                out.putInt(distances != null ? distances[i]
+                        : mappedDistances[i >>> OffHeapAdjacency.CHUNK_SHIFT].get(i & CHUNK_MASK));
+            }
+            int labelOffset = 0;
+            out.putInt(0);
+            for (int v = 0; v < vertexCount; v++) {
+                labelOffset += labelBytes[v].length;
+                out.putInt(labelOffset);
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                out.putBytes(labelBytes[v]);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(GraphSnapshot.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(vertexCount).putInt(0)
+                    .putLong(totalLabelBytes).putLong(out.checksum.getValue());
+            header.flip();
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * Loads a matrix file onto the heap, verifying its checksum.
+     *
+     * matrixPath Matrix file.
+     * return The stored matrix.
+     * throws IOException
+     */
+    public static DistanceMatrix read(String matrixPath) throws IOException {
+        return load(matrixPath, true, false);
+    }
+
+    /**
+     * Loads a matrix file with the distances left in the file, so that they take no
+     * heap; only the labels are read.
+     *
+     * matrixPath Matrix file.
+     * verify Whether to check the CRC32C of the payload, which reads the whole file once.
+     * return The stored matrix.
+     * throws IOException
+     */
+    public static DistanceMatrix map(String matrixPath, boolean verify) throws IOException {
+        return load(matrixPath, verify, true);
+    }
+
+    private static DistanceMatrix load(String matrixPath, boolean verify, boolean mapped) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(matrixPath), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(GraphSnapshot.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Not a distance matrix: " + matrixPath);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a distance matrix: " + matrixPath);
+            }
+            int numVertices = header.getInt();
+            header.getInt();
+            long labelBytes = header.getLong();
+            long checksum = header.getLong();
+            if (numVertices < 0 || numVertices > MAX_VERTICES) {
+                throw new IOException("Not a distance matrix: " + matrixPath);
+            }
+
+            GraphSnapshot.SectionReader in = new GraphSnapshot.SectionReader(channel, verify);
+            int count = numVertices * numVertices;
+            // Mappings stay valid after the channel is closed
+            IntBuffer[] mappedDistances = mapped ? in.mapInts(count) : null;
+            int[] distances = mapped ? null : in.getInts(count);
+            int[] labelOffsets = in.getInts(numVertices + 1);
+            byte[] bytes = in.getBytes((int) labelBytes);
+            if (verify && in.checksum.getValue() != checksum) {
+                throw new IOException("Distance matrix checksum mismatch: " + matrixPath);
+            }
+
+            String[] labels = new String[numVertices];
+            for (int v = 0; v < numVertices; v++) {
+                labels[v] = new String(bytes, labelOffsets[v], labelOffsets[v + 1] - labelOffsets[v],
+                        StandardCharsets.UTF_8);
+            }
+            VertexLabels vertexLabels = new VertexLabels(labels);
+            return mapped ? new DistanceMatrix(vertexLabels, numVertices, mappedDistances)
+                    : new DistanceMatrix(vertexLabels, numVertices, distances);
+        }
+    }
+}
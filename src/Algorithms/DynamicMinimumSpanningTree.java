@@ -0,0 +1,451 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Minimum spanning forest that is kept up to date under a stream of edge insertions
+ * and weight decreases, in O(log V) amortized time per update.
+ *
+ * The forest is stored in a link-cut tree in which every vertex and every tree edge is
+ * a node, so the heaviest edge on a tree path is a single path query. A new edge
+ * between two trees is linked; a new edge inside a tree replaces the heaviest edge of
+ * the cycle it closes if it is lighter. Since edges are never deleted, which trees
+ * are joined is tracked with a plain DisjointSet. Ties keep the edge already in the
+ * forest, which is the same choice Kruskal makes for edges in arrival order.
+ */
+public class DynamicMinimumSpanningTree {
+
+    private static final int NONE = -1;
+    private static final long VERTEX_KEY = Long.MIN_VALUE; // vertex nodes never win a path maximum
+
+    /**
+     * Receives the edges of the forest.
+     */
+    public interface EdgeVisitor {
+        void visit(int u, int v, int weight);
+    }
+
+    // Link-cut tree nodes: splay children and parent, pending reversal, key and subtree maximum
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private boolean[] flipped;
+    private long[] keys;
+    private int[] maxNode;
+    // Endpoints of edge nodes
+    private int[] edgeU;
+    private int[] edgeV;
+    private int nodeCount;
+    private final IntStack freeNodes = new IntStack();
+    private final IntStack splayPath = new IntStack();
+
+    private int[] vertexNode;
+    private int vertexCount;
+    private DisjointSet trees;
+    private final EdgeIndex treeEdges = new EdgeIndex();
+    private long totalCost;
+    private int treeEdgeCount;
+    private long updateCount;
+
+    /**
+     * Creates a forest of isolated vertices.
+     *
+     * vertexCount Number of vertices.
+     */
+    public DynamicMinimumSpanningTree(int vertexCount) {
+        int capacity = Math.max(16, 2 * vertexCount);
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        flipped = new boolean[capacity];
+        keys = new long[capacity];
+        maxNode = new int[capacity];
+        edgeU = new int[capacity];
+        edgeV = new int[capacity];
+        vertexNode = new int[Math.max(16, vertexCount)];
+        trees = new DisjointSet(vertexNode.length);
+        for (int v = 0; v < vertexCount; v++) {
+            vertexNode[v] = newNode(VERTEX_KEY);
+        }
+        this.vertexCount = vertexCount;
+    }
+
+    /**
+     * Starts from the minimum spanning forest of a graph, computed in one batch.
+     *
+     * graph Graph to span.
+     * return The dynamic forest.
+     */
+    public static DynamicMinimumSpanningTree of(CsrGraph graph) {
+        EdgeArrays edges = EdgeArrays.of(graph);
+        DynamicMinimumSpanningTree forest = new DynamicMinimumSpanningTree(graph.vertexCount());
+        for (int edge : new PackedKruskal(edges).radixKruskal()) {
+            forest.insertEdge(edges.source(edge), edges.target(edge), edges.weight(edge));
+        }
+        return forest;
+    }
+
+    /**
+     * Adds an isolated vertex.
+     *
+     * return Id of the new vertex.
+     */
+    public int addVertex() {
+        if (vertexCount == vertexNode.length) {
+            vertexNode = Arrays.copyOf(vertexNode, vertexCount * 2);
+            DisjointSet grown = new DisjointSet(vertexNode.length);
+            for (int v = 0; v < vertexCount; v++) {
+                grown.union(v, trees.find(v));
+            }
+            trees = grown;
+        }
+        vertexNode[vertexCount] = newNode(VERTEX_KEY);
+        return vertexCount++;
+    }
+
+    /**
+     * Offers an edge to the forest. Offering a known edge with a lower weight is a
+     * weight decrease.
+     *
+     * u One end.
+     * v Other end.
+     * weight Edge weight.
+     * return true if the forest changed.
+     */
+    public boolean insertEdge(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        updateCount++;
+        if (u == v) return false;
+
+        int existing = treeEdges.get(u, v);
+        if (existing != NONE) {
+            if (weight >= keys[existing]) return false;
+            // Lowering a tree edge keeps the forest minimal
+            access(existing);
+            totalCost += weight - keys[existing];
+            keys[existing] = weight;
+            update(existing);
+            return true;
+        }
+
+        if (trees.union(u, v)) {
+            link(u, v, weight);
+            return true;
+        }
+        int heaviest = pathMax(vertexNode[u], vertexNode[v]);
+        if (keys[heaviest] <= weight) return false;
+        removeTreeEdge(heaviest);
+        link(u, v, weight);
+        return true;
+    }
+
+    /**
+     * Lowers the weight of an edge; the same as offering it again with the new weight.
+     */
+    public boolean decreaseWeight(int u, int v, int weight) {
+        return insertEdge(u, v, weight);
+    }
+
+    public long totalCost() {
+        return totalCost;
+    }
+
+    public int treeEdgeCount() {
+        return treeEdgeCount;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Number of trees in the forest.
+     */
+    public int componentCount() {
+        return vertexCount - treeEdgeCount;
+    }
+
+    /**
+     * Number of insertEdge calls so far.
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    public boolean connected(int u, int v) {
+        return trees.connected(u, v);
+    }
+
+    /**
+     * Heaviest edge weight on the forest path between two vertices.
+     *
+     * u One end.
+     * v Other end.
+     * return The weight, or Integer.MIN_VALUE if u == v or they are not connected.
+     */
+    public int maxWeightOnPath(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        if (u == v || !trees.connected(u, v)) return Integer.MIN_VALUE;
+        return (int) keys[pathMax(vertexNode[u], vertexNode[v])];
+    }
+
+    /**
+     * Visits every forest edge, in no particular order.
+     *
+     * visitor Receives each edge once.
+     */
+    public void forEachTreeEdge(EdgeVisitor visitor) {
+        for (int node = 0; node < nodeCount; node++) {
+            if (edgeU[node] != NONE) {
+                visitor.visit(edgeU[node], edgeV[node], (int) keys[node]);
+            }
+        }
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IllegalArgumentException("Vertex out of range: " + vertex);
+        }
+    }
+
+    private void link(int u, int v, int weight) {
+        int edge = newNode(weight);
+        edgeU[edge] = u;
+        edgeV[edge] = v;
+        treeEdges.put(u, v, edge);
+        makeRoot(edge);
+        parent[edge] = vertexNode[u];
+        makeRoot(vertexNode[v]);
+        parent[vertexNode[v]] = edge;
+        totalCost += weight;
+        treeEdgeCount++;
+    }
+
+    private void removeTreeEdge(int edge) {
+        cut(edge, vertexNode[edgeU[edge]]);
+        cut(edge, vertexNode[edgeV[edge]]);
+        treeEdges.remove(edgeU[edge], edgeV[edge]);
+        totalCost -= keys[edge];
+        treeEdgeCount--;
+        edgeU[edge] = NONE;
+        edgeV[edge] = NONE;
+        freeNodes.push(edge);
+    }
+
+    private int newNode(long key) {
+        int node;
+        if (!freeNodes.isEmpty()) {
+            node = freeNodes.pop();
+        } else {
+            if (nodeCount == left.length) grow(nodeCount * 2);
+            node = nodeCount++;
+        }
+        left[node] = NONE;
+        right[node] = NONE;
+        parent[node] = NONE;
+        flipped[node] = false;
+        keys[node] = key;
+        maxNode[node] = node;
+        edgeU[node] = NONE;
+        edgeV[node] = NONE;
+        return node;
+    }
+
+    private void grow(int capacity) {
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        flipped = Arrays.copyOf(flipped, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        maxNode = Arrays.copyOf(maxNode, capacity);
+        edgeU = Arrays.copyOf(edgeU, capacity);
+        edgeV = Arrays.copyOf(edgeV, capacity);
+    }
+
+    // Link-cut tree operations
+
+    private boolean isSplayRoot(int x) {
+        int p = parent[x];
+        return p == NONE || (left[p] != x && right[p] != x);
+    }
+
+    private void pushDown(int x) {
+        if (!flipped[x]) return;
+        int swap = left[x];
+        left[x] = right[x];
+        right[x] = swap;
+        if (left[x] != NONE) flipped[left[x]] ^= true;
+        if (right[x] != NONE) flipped[right[x]] ^= true;
+        flipped[x] = false;
+    }
+
+    private void update(int x) {
+        int best = x;
+        if (left[x] != NONE && keys[maxNode[left[x]]] > keys[best]) best = maxNode[left[x]];
+        if (right[x] != NONE && keys[maxNode[right[x]]] > keys[best]) best = maxNode[right[x]];
+        maxNode[x] = best;
+    }
+
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+        if (!isSplayRoot(p)) {
+            if (left[g] == p) left[g] = x;
+            else right[g] = x;
+        }
+        parent[x] = g;
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NONE) parent[right[x]] = p;
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NONE) parent[left[x]] = p;
+            left[x] = p;
+        }
+        parent[p] = x;
+        update(p);
+        update(x);
+    }
+
+    private void splay(int x) {
+        // Push pending reversals down from the top of x's splay tree first
+        splayPath.clear();
+        for (int y = x; ; y = parent[y]) {
+            splayPath.push(y);
+            if (isSplayRoot(y)) break;
+        }
+        while (!splayPath.isEmpty()) {
+            pushDown(splayPath.pop());
+        }
+        while (!isSplayRoot(x)) {
+            int p = parent[x];
+            if (!isSplayRoot(p)) {
+                int g = parent[p];
+                boolean zigZig = (left[g] == p) == (left[p] == x);
+                rotate(zigZig ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    private void access(int x) {
+        int last = NONE;
+        for (int y = x; y != NONE; y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            update(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        flipped[x] ^= true;
+    }
+
+    private void cut(int x, int y) {
+        makeRoot(x);
+        access(y);
+        // x is now y's left child and has no right child
+        left[y] = NONE;
+        parent[x] = NONE;
+        update(y);
+    }
+
+    private int pathMax(int x, int y) {
+        makeRoot(x);
+        access(y);
+        return maxNode[y];
+    }
+
+    /**
+     * Open addressed map from an unordered vertex pair to the node of its tree edge.
+     */
+    private static class EdgeIndex {
+        private static final long EMPTY = -1;
+        private static final long DELETED = -2;
+
+        private long[] pairs = new long[16];
+        private int[] nodes = new int[16];
+        private int size;
+        private int used;
+
+        EdgeIndex() {
+            Arrays.fill(pairs, EMPTY);
+        }
+
+        private static long pair(int u, int v) {
+            return u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+        }
+
+        private int slot(long pair) {
+            long hash = pair * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & (pairs.length - 1);
+        }
+
+        int get(int u, int v) {
+            long pair = pair(u, v);
+            for (int i = slot(pair); pairs[i] != EMPTY; i = (i + 1) & (pairs.length - 1)) {
+                if (pairs[i] == pair) return nodes[i];
+            }
+            return NONE;
+        }
+
+        void put(int u, int v, int node) {
+            if ((used + 1) * 2 > pairs.length) rehash(size * 4 > pairs.length ? pairs.length * 2 : pairs.length);
+            long pair = pair(u, v);
+            int tombstone = -1;
+            int i = slot(pair);
+            for (; pairs[i] != EMPTY; i = (i + 1) & (pairs.length - 1)) {
+                if (pairs[i] == pair) {
+                    nodes[i] = node;
+                    return;
+                }
+                if (pairs[i] == DELETED && tombstone < 0) tombstone = i;
+            }
+            if (tombstone >= 0) {
+                i = tombstone;
+            } else {
+                used++;
+            }
+            pairs[i] = pair;
+            nodes[i] = node;
+            size++;
+        }
+
+        void remove(int u, int v) {
+            long pair = pair(u, v);
+            for (int i = slot(pair); pairs[i] != EMPTY; i = (i + 1) & (pairs.length - 1)) {
+                if (pairs[i] == pair) {
+                    pairs[i] = DELETED;
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            long[] oldPairs = pairs;
+            int[] oldNodes = nodes;
+            pairs = new long[capacity];
+            nodes = new int[capacity];
+            Arrays.fill(pairs, EMPTY);
+            size = 0;
+            used = 0;
+            for (int i = 0; i < oldPairs.length; i++) {
+                if (oldPairs[i] >= 0) {
+                    int slot = slot(oldPairs[i]);
+                    while (pairs[slot] != EMPTY) slot = (slot + 1) & (capacity - 1);
+                    pairs[slot] = oldPairs[i];
+                    nodes[slot] = oldNodes[i];
+                    size++;
+                    used++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,558 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Single-source shortest path tree that is kept up to date under batches of edge
+ * weight changes, insertions and deletions, repairing only the part of the tree the
+ * batch affects, after Ramalingam and Reps.
+ *
+ * The graph is changed with setWeight and removeEdge, and the tree repaired for all
+ * changes since the last repair in applyUpdates, which works in two phases:
+ *
+ * 1. Every vertex whose tree arc got heavier or was deleted is a candidate. Candidates
+ *    are taken in order of their old distance; one with another arc, from a vertex
+ *    that is not affected, that is still as short is moved onto it and the search
+ *    stops there. Otherwise it is affected and its children in the tree become
+ *    candidates.
+ * 2. Every affected vertex starts from its best arc from an unaffected vertex, every
+ *    arc that got lighter or was inserted is relaxed, and Dijkstra runs from those
+ *    vertices until the queue is empty.
+ *
+ * So the work is proportional to the vertices whose distance changes and their arcs,
+ * not the whole graph. Distances always match a full run of Dijkstra on the updated
+ * graph; where paths tie, the tree may pick other parents than a full run would.
+ *
+ * An edge is identified by its two ends, so parallel arcs are updated together, and an
+ * update of an undirected edge applies to both its arcs. Weights must be non-negative.
+ * Arcs that are not in the original graph are kept in per-vertex lists, so a graph
+ * whose structure changes a lot is better rebuilt from time to time.
+ */
+public class DynamicShortestPathTree {
+
+    private static final int REMOVED = -1;
+
+    private final CsrGraph graph;
+    private final int source;
+    private final int vertexCount;
+    // Current weight of every arc of the original graph, REMOVED once deleted
+    private final int[] weights;
+    // Arcs into every vertex: the forward arc ids and where they come from
+    private final int[] inOffsets;
+    private final int[] inArcs;
+    private final int[] inSources;
+
+    // Arcs inserted later, numbered from 0, listed by both ends
+    private int[] extraSources = new int[16];
+    private int[] extraTargets = new int[16];
+    private int[] extraWeights = new int[16];
+    private int extraCount;
+    private final IntStack[] extraOut;
+    private final IntStack[] extraIn;
+
+    private final int[] distances;
+    private final int[] parents;
+    private final IndexedMinQueue queue;
+
+    // Changes since the last repair: vertices whose tree arc may have got heavier, and
+    // (u, v) pairs of arcs that may have got lighter
+    private final IntStack increased = new IntStack();
+    private final IntStack decreased = new IntStack();
+
+    // Repair state, reused across batches; a vertex is marked when its stamp is current
+    private final int[] affectedStamps;
+    private final int[] touchedStamps;
+    private int stamp;
+    private final int[] previousDistances;
+    private final IntStack affected = new IntStack();
+    private final IntStack touched = new IntStack();
+
+    private long updateCount;
+    private int lastAffectedCount;
+
+    private DynamicShortestPathTree(CsrGraph graph, int source, int[] distances, int[] parents, HeapType heapType) {
+        this.graph = graph;
+        this.source = source;
+        this.vertexCount = graph.vertexCount();
+        int numArcs = graph.arcCount();
+        this.weights = new int[numArcs];
+        this.inOffsets = new int[vertexCount + 1];
+        this.inArcs = new int[numArcs];
+        this.inSources = new int[numArcs];
+        for (int arc = 0; arc < numArcs; arc++) {
+            int weight = graph.weight(arc);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative edge weight: " + weight);
+            }
+            weights[arc] = weight;
+            inOffsets[graph.target(arc) + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] next = Arrays.copyOf(inOffsets, vertexCount);
+        for (int u = 0; u < vertexCount; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int slot = next[graph.target(arc)]++;
+                inArcs[slot] = arc;
+                inSources[slot] = u;
+            }
+        }
+        this.extraOut = new IntStack[vertexCount];
+        this.extraIn = new IntStack[vertexCount];
+        this.distances = distances;
+        this.parents = parents;
+        this.queue = heapType.create(vertexCount);
+        this.affectedStamps = new int[vertexCount];
+        this.touchedStamps = new int[vertexCount];
+        this.previousDistances = new int[vertexCount];
+    }
+
+    /**
+     * Computes the shortest path tree of a graph to start from.
+     *
+     * graph Graph to search; weights must be non-negative.
+     * source Source vertex.
+     * return The dynamic tree.
+     * throws IllegalArgumentException if the graph has a negative weight.
+     */
+    public static DynamicShortestPathTree of(CsrGraph graph, int source) {
+        DijkstraWorkspace workspace = new DijkstraWorkspace(graph.vertexCount(), HeapType.QUATERNARY);
+        DijkstraShortestPath.calculateShortestPaths(graph, source, workspace);
+        return of(workspace.toShortestPathTree(graph));
+    }
+
+    /**
+     * Starts from a shortest path tree already computed; the tree is copied, not changed.
+     *
+     * tree Result of a previous run.
+     * return The dynamic tree.
+     * throws IllegalArgumentException if the graph has a negative weight.
+     */
+    public static DynamicShortestPathTree of(ShortestPathTree tree) {
+        int numVertices = tree.vertexCount();
+        int[] distances = new int[numVertices];
+        int[] parents = new int[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            distances[v] = tree.distance(v);
+            parents[v] = tree.parent(v);
+        }
+        return new DynamicShortestPathTree(tree.getGraph(), tree.getSource(), distances, parents, HeapType.QUATERNARY);
+    }
+
+    /**
+     * Changes the weight of the edge between two vertices, inserting it if
+     * there is none. The tree is repaired in applyUpdates.
+     *
+     * u Vertex the edge leaves.
+     * v Vertex the edge enters.
+     * weight New weight, non-negative.
+     * throws IllegalArgumentException if a vertex is out of range or the weight is negative.
+     */
+    public void setWeight(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative edge weight: " + weight);
+        }
+        setArcWeight(u, v, weight);
+        if (!graph.isDirected()) setArcWeight(v, u, weight);
+    }
+
+    /**
+     * Deletes the edge between two vertices. The tree is repaired in applyUpdates.
+     *
+     * u Vertex the edge leaves.
+     * v Vertex the edge enters.
+     * return false if there is no such edge.
+     * throws IllegalArgumentException if a vertex is out of range.
+     */
+    public boolean removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        boolean removed = setArcWeight(u, v, REMOVED);
+        if (!graph.isDirected()) setArcWeight(v, u, REMOVED);
+        return removed;
+    }
+
+    /**
+     * Sets the weight of every arc u -> v, adding one if there is none and the weight
+     * is not REMOVED, and queues the repairs the change needs.
+     *
+     * return true if an arc existed.
+     */
+    private boolean setArcWeight(int u, int v, int weight) {
+        boolean found = false;
+        boolean heavier = false;
+        boolean lighter = false;
+        for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+            if (graph.target(arc) == v && weights[arc] != REMOVED) {
+                heavier |= weight == REMOVED || weight > weights[arc];
+                lighter |= weight != REMOVED && weight < weights[arc];
+                weights[arc] = weight;
+                found = true;
+            }
+        }
+        if (extraOut[u] != null) {
+            IntStack arcs = extraOut[u];
+            for (int i = 0; i < arcs.size(); i++) {
+                int extra = arcs.get(i);
+                if (extraTargets[extra] == v && extraWeights[extra] != REMOVED) {
+                    heavier |= weight == REMOVED || weight > extraWeights[extra];
+                    lighter |= weight != REMOVED && weight < extraWeights[extra];
+                    extraWeights[extra] = weight;
+                    found = true;
+                }
+            }
+        }
+        if (!found && weight != REMOVED) {
+            // Bring back a deleted arc of the original graph before adding a new one
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u) && !found; arc++) {
+                if (graph.target(arc) == v) {
+                    weights[arc] = weight;
+                    found = true;
+                }
+            }
+            if (!found) addExtraArc(u, v, weight);
+            lighter = true;
+        }
+        updateCount++;
+        // Only the tree arc into v matters when an arc gets heavier
+        if (heavier && parents[v] == u) increased.push(v);
+        if (lighter) {
+            decreased.push(u);
+            decreased.push(v);
+        }
+        return found;
+    }
+
+    private void addExtraArc(int u, int v, int weight) {
+        if (extraCount == extraTargets.length) {
+            extraSources = Arrays.copyOf(extraSources, extraCount * 2);
+            extraTargets = Arrays.copyOf(extraTargets, extraCount * 2);
+            extraWeights = Arrays.copyOf(extraWeights, extraCount * 2);
+        }
+        extraSources[extraCount] = u;
+        extraTargets[extraCount] = v;
+        extraWeights[extraCount] = weight;
+        if (extraOut[u] == null) extraOut[u] = new IntStack(4);
+        if (extraIn[v] == null) extraIn[v] = new IntStack(4);
+        extraOut[u].push(extraCount);
+        extraIn[v].push(extraCount);
+        extraCount++;
+    }
+
+    /**
+     * Repairs the tree after the queued changes.
+     *
+     * return The vertices whose distance changed, in ascending order.
+     */
+    public int[] applyUpdates() {
+        if (increased.isEmpty() && decreased.isEmpty()) return new int[0];
+        newStamp();
+        findAffected();
+        repair();
+
+        int[] changed = new int[touched.size()];
+        int changedCount = 0;
+        for (int i = 0; i < touched.size(); i++) {
+            int vertex = touched.get(i);
+            if (distances[vertex] != previousDistances[vertex]) changed[changedCount++] = vertex;
+        }
+        lastAffectedCount = affected.size();
+        increased.clear();
+        decreased.clear();
+        affected.clear();
+        touched.clear();
+        changed = Arrays.copyOf(changed, changedCount);
+        Arrays.sort(changed);
+        return changed;
+    }
+
+    /**
+     * Phase 1: collects in affected the vertices whose tree path got longer and that
+     * have no other path as short, taking candidates in order of their old distance.
+     */
+    private void findAffected() {
+        for (int i = 0; i < increased.size(); i++) {
+            int vertex = increased.get(i);
+            if (vertex != source && parents[vertex] != -1 && !queue.contains(vertex)) {
+                queue.insert(vertex, distances[vertex]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int vertex = queue.pollMin();
+            int distance = distances[vertex];
+            // Every vertex closer than this one is decided by now. Only a strictly
+            // closer parent is taken, so the tree cannot close a cycle through zero
+            // weight arcs.
+            int parent = tightParent(vertex, distance);
+            if (parent != -1) {
+                parents[vertex] = parent;
+                continue;
+            }
+            affectedStamps[vertex] = stamp;
+            affected.push(vertex);
+            touch(vertex);
+            forEachChild(vertex);
+        }
+    }
+
+    /**
+     * Finds an unaffected vertex, closer than the given distance, with a live arc that
+     * still reaches the vertex at that distance.
+     *
+     * return The vertex, or -1 if there is none.
+     */
+    private int tightParent(int vertex, int distance) {
+        for (int i = inOffsets[vertex]; i < inOffsets[vertex + 1]; i++) {
+            int weight = weights[inArcs[i]];
+            int from = inSources[i];
+            if (weight > 0 && isTight(from, weight, distance)) return from;
+        }
+        if (extraIn[vertex] != null) {
+            IntStack arcs = extraIn[vertex];
+            for (int i = 0; i < arcs.size(); i++) {
+                int extra = arcs.get(i);
+                int weight = extraWeights[extra];
+                if (weight > 0 && isTight(extraSources[extra], weight, distance)) return extraSources[extra];
+            }
+        }
+        return -1;
+    }
+
+    private boolean isTight(int from, int weight, int distance) {
+        return affectedStamps[from] != stamp && distances[from] != ShortestPathTree.UNREACHABLE
+                && (long) distances[from] + weight == distance;
+    }
+
+    /**
+     * Queues the tree children of an affected vertex as candidates, whether or not the
+     * arc to them is still there.
+     */
+    private void forEachChild(int vertex) {
+        for (int arc = graph.firstArc(vertex); arc < graph.endArc(vertex); arc++) {
+            queueChild(vertex, graph.target(arc));
+        }
+        if (extraOut[vertex] != null) {
+            IntStack arcs = extraOut[vertex];
+            for (int i = 0; i < arcs.size(); i++) {
+                queueChild(vertex, extraTargets[arcs.get(i)]);
+            }
+        }
+    }
+
+    private void queueChild(int vertex, int child) {
+        if (parents[child] == vertex && affectedStamps[child] != stamp && !queue.contains(child)) {
+            queue.insert(child, distances[child]);
+        }
+    }
+
+    /**
+     * Phase 2: gives every affected vertex its best distance over arcs from unaffected
+     * vertices, relaxes the arcs that got lighter, and settles the rest with Dijkstra.
+     */
+    private void repair() {
+        for (int i = 0; i < affected.size(); i++) {
+            int vertex = affected.get(i);
+            distances[vertex] = ShortestPathTree.UNREACHABLE;
+            parents[vertex] = -1;
+        }
+        for (int i = 0; i < affected.size(); i++) {
+            int vertex = affected.get(i);
+            for (int j = inOffsets[vertex]; j < inOffsets[vertex + 1]; j++) {
+                int from = inSources[j];
+                if (affectedStamps[from] != stamp) relax(from, vertex, weights[inArcs[j]]);
+            }
+            if (extraIn[vertex] != null) {
+                IntStack arcs = extraIn[vertex];
+                for (int j = 0; j < arcs.size(); j++) {
+                    int extra = arcs.get(j);
+                    int from = extraSources[extra];
+                    if (affectedStamps[from] != stamp) relax(from, vertex, extraWeights[extra]);
+                }
+            }
+        }
+        // Queue the tails of lighter arcs at their own distance, so that every arc is
+        // relaxed from a settled vertex; affected tails are in the queue already
+        for (int i = 0; i < decreased.size(); i += 2) {
+            int u = decreased.get(i);
+            if (affectedStamps[u] != stamp && distances[u] != ShortestPathTree.UNREACHABLE
+                    && !queue.contains(u)) {
+                queue.insert(u, distances[u]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int vertex = queue.pollMin();
+            for (int arc = graph.firstArc(vertex); arc < graph.endArc(vertex); arc++) {
+                relax(vertex, graph.target(arc), weights[arc]);
+            }
+            if (extraOut[vertex] != null) {
+                IntStack arcs = extraOut[vertex];
+                for (int i = 0; i < arcs.size(); i++) {
+                    int extra = arcs.get(i);
+                    relax(vertex, extraTargets[extra], extraWeights[extra]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Offers the path through the arc from -> to and queues to if it is shorter. Unlike
+     * a full run, equal paths never switch parents: the vertex offering one may be a
+     * descendant of to over zero weight arcs.
+     */
+    private void relax(int from, int to, int weight) {
+        int distance = distances[from];
+        if (weight == REMOVED || distance == ShortestPathTree.UNREACHABLE) return;
+        long newDistance = (long) distance + weight;
+        int oldDistance = distances[to];
+        if (newDistance < oldDistance) {
+            touch(to);
+            distances[to] = (int) newDistance;
+            parents[to] = from;
+            int key = (int) Math.min(newDistance, Integer.MAX_VALUE - 1);
+            if (queue.contains(to)) {
+                queue.decreaseKey(to, key);
+            } else {
+                queue.insert(to, key);
+            }
+        }
+    }
+
+    /**
+     * Remembers the distance a vertex had before the batch, the first time it changes.
+     */
+    private void touch(int vertex) {
+        if (touchedStamps[vertex] != stamp) {
+            touchedStamps[vertex] = stamp;
+            previousDistances[vertex] = distances[vertex];
+            touched.push(vertex);
+        }
+    }
+
+    private void newStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(affectedStamps, 0);
+            Arrays.fill(touchedStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IllegalArgumentException("Vertex out of range: " + vertex);
+        }
+    }
+
+    /**
+     * Current weight of the edge from u to v.
+     *
+     * return The weight, or -1 if there is no such edge.
+     */
+    public int weight(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+            if (graph.target(arc) == v && weights[arc] != REMOVED) return weights[arc];
+        }
+        if (extraOut[u] != null) {
+            IntStack arcs = extraOut[u];
+            for (int i = 0; i < arcs.size(); i++) {
+                int extra = arcs.get(i);
+                if (extraTargets[extra] == v && extraWeights[extra] != REMOVED) return extraWeights[extra];
+            }
+        }
+        return REMOVED;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int distance(int vertex) {
+        return distances[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return distances[vertex] != ShortestPathTree.UNREACHABLE;
+    }
+
+    public int parent(int vertex) {
+        return parents[vertex];
+    }
+
+    /**
+     * Number of setWeight and removeEdge calls so far, counting each arc of an
+     * undirected edge.
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * Number of vertices that lost their path in the last applyUpdates and had to be
+     * searched again.
+     */
+    public int getLastAffectedCount() {
+        return lastAffectedCount;
+    }
+
+    /**
+     * Copies the current tree out into a standalone result, labelled by the original
+     * graph.
+     *
+     * return A tree that stays valid after later updates.
+     */
+    public ShortestPathTree toShortestPathTree() {
+        return new ShortestPathTree(graph, source, distances.clone(), parents.clone());
+    }
+
+    /**
+     * Builds a CsrGraph of the edges as they are now.
+     *
+     * return The updated graph, sharing the labels of the original.
+     */
+    public CsrGraph toCsrGraph() {
+        int[] offsets = new int[vertexCount + 1];
+        for (int u = 0; u < vertexCount; u++) {
+            int degree = 0;
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                if (weights[arc] != REMOVED) degree++;
+            }
+            if (extraOut[u] != null) {
+                for (int i = 0; i < extraOut[u].size(); i++) {
+                    if (extraWeights[extraOut[u].get(i)] != REMOVED) degree++;
+                }
+            }
+            offsets[u + 1] = offsets[u] + degree;
+        }
+        int[] targets = new int[offsets[vertexCount]];
+        int[] arcWeights = new int[offsets[vertexCount]];
+        int next = 0;
+        for (int u = 0; u < vertexCount; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                if (weights[arc] == REMOVED) continue;
+                targets[next] = graph.target(arc);
+                arcWeights[next++] = weights[arc];
+            }
+            if (extraOut[u] != null) {
+                for (int i = 0; i < extraOut[u].size(); i++) {
+                    int extra = extraOut[u].get(i);
+                    if (extraWeights[extra] == REMOVED) continue;
+                    targets[next] = extraTargets[extra];
+                    arcWeights[next++] = extraWeights[extra];
+                }
+            }
+        }
+        // Undirected edges are stored as two arcs
+        int edgeCount = graph.isDirected() ? next : next / 2;
+        return new CsrGraph(graph.labels(), graph.isDirected(), edgeCount, graph.sourceVertex(),
+                offsets, targets, arcWeights);
+    }
+}
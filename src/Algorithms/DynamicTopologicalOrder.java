@@ -0,0 +1,358 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Topological order of a growing DAG, kept valid across single edge insertions with
+ * the Pearce-Kelly algorithm. An edge u -> v that already points forward costs O(1).
+ * Otherwise only the affected region, the positions between v and u, is searched: one
+ * search forward from v and one backward from u, pruned to that region. The two sets
+ * of vertices found are then moved so that everything behind u comes before
+ * everything after v, reusing their old positions.
+ *
+ * The forward search reaching u means the edge would close a cycle. Such an edge is
+ * rejected, the graph and order are left unchanged, and the cycle is kept for
+ * getLastCycle.
+ */
+public class DynamicTopologicalOrder {
+
+    private int[] positions;
+    private int[] vertices;
+    private IntStack[] successors;
+    private IntStack[] predecessors;
+    private int vertexCount;
+    private long edgeCount;
+
+    // Search state, reused across insertions; a vertex is marked when marks[v] == markStamp
+    private int[] marks;
+    private int markStamp;
+    private int[] searchParents;
+    private final IntStack searchStack = new IntStack();
+    private final IntStack forward = new IntStack();
+    private final IntStack backward = new IntStack();
+
+    private int[] lastCycle;
+    private long reorderedCount;
+    private long rejectedCount;
+
+    /**
+     * Creates isolated vertices, ordered by id.
+     *
+     * vertexCount Number of vertices.
+     */
+    public DynamicTopologicalOrder(int vertexCount) {
+        int capacity = Math.max(16, vertexCount);
+        positions = new int[capacity];
+        vertices = new int[capacity];
+        successors = new IntStack[capacity];
+        predecessors = new IntStack[capacity];
+        marks = new int[capacity];
+        searchParents = new int[capacity];
+        for (int v = 0; v < vertexCount; v++) {
+            positions[v] = v;
+            vertices[v] = v;
+        }
+        this.vertexCount = vertexCount;
+    }
+
+    /**
+     * Starts from a DAG sorted in one batch, taking every arc as directed.
+     *
+     * graph Graph to order.
+     * return The dynamic order.
+     * throws IllegalArgumentException if the graph has a cycle.
+     */
+    public static DynamicTopologicalOrder of(CsrGraph graph) {
+        return of(graph, new KahnTopologicalSort(graph).sort());
+    }
+
+    /**
+     * Starts from a DAG and an order already computed for it.
+     *
+     * graph Graph to order.
+     * levels Sort result of the graph.
+     * return The dynamic order.
+     * throws IllegalArgumentException if the sort was incomplete, that is the graph has a cycle.
+     */
+    static DynamicTopologicalOrder of(CsrGraph graph, TopologicalLevels levels) {
+        if (!levels.isComplete()) {
+            throw new IllegalArgumentException("Graph has a cycle");
+        }
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder(graph.vertexCount());
+        for (int i = 0; i < levels.size(); i++) {
+            order.positions[levels.vertex(i)] = i;
+            order.vertices[i] = levels.vertex(i);
+        }
+        // Every arc points forward in the sorted order, so these never search
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                order.addEdge(u, graph.target(arc));
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Adds an isolated vertex at the end of the order.
+     *
+     * return Id of the new vertex.
+     */
+    public int addVertex() {
+        if (vertexCount == positions.length) {
+            int capacity = vertexCount * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            vertices = Arrays.copyOf(vertices, capacity);
+            successors = Arrays.copyOf(successors, capacity);
+            predecessors = Arrays.copyOf(predecessors, capacity);
+            marks = Arrays.copyOf(marks, capacity);
+            searchParents = Arrays.copyOf(searchParents, capacity);
+        }
+        positions[vertexCount] = vertexCount;
+        vertices[vertexCount] = vertexCount;
+        return vertexCount++;
+    }
+
+    /**
+     * Adds the edge u -> v unless it would close a cycle.
+     *
+     * u Vertex that has to come first.
+     * v Vertex that has to come later.
+     * return true if the edge was added, false if it was rejected.
+     */
+    public boolean addEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        if (u == v) {
+            return reject(new int[] {u});
+        }
+        int lowerBound = positions[v];
+        int upperBound = positions[u];
+        if (lowerBound > upperBound) {
+            link(u, v);
+            return true;
+        }
+
+        // v is not after u: find what has to move, or the cycle
+        newMarks();
+        if (!searchForward(v, u, upperBound)) {
+            return reject(cyclePath(v, u));
+        }
+        searchBackward(u, lowerBound);
+        reorder();
+        link(u, v);
+        return true;
+    }
+
+    /**
+     * Whether adding u -> v would close a cycle, without changing anything.
+     */
+    public boolean wouldCloseCycle(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        if (u == v) return true;
+        if (positions[v] > positions[u]) return false;
+        newMarks();
+        return !searchForward(v, u, positions[u]);
+    }
+
+    /**
+     * Depth-first search along successors from start, only through positions up to
+     * upperBound, recording the vertices found in forward.
+     *
+     * return false if the search reached target.
+     */
+    private boolean searchForward(int start, int target, int upperBound) {
+        forward.clear();
+        searchStack.clear();
+        marks[start] = markStamp;
+        searchParents[start] = -1;
+        searchStack.push(start);
+        while (!searchStack.isEmpty()) {
+            int vertex = searchStack.pop();
+            forward.push(vertex);
+            IntStack next = successors[vertex];
+            if (next == null) continue;
+            for (int i = 0; i < next.size(); i++) {
+                int w = next.get(i);
+                if (w == target) {
+                    searchParents[target] = vertex;
+                    return false;
+                }
+                if (marks[w] != markStamp && positions[w] < upperBound) {
+                    marks[w] = markStamp;
+                    searchParents[w] = vertex;
+                    searchStack.push(w);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Depth-first search along predecessors from start, only through positions from
+     * lowerBound on, recording the vertices found in backward.
+     */
+    private void searchBackward(int start, int lowerBound) {
+        backward.clear();
+        searchStack.clear();
+        marks[start] = markStamp;
+        searchStack.push(start);
+        while (!searchStack.isEmpty()) {
+            int vertex = searchStack.pop();
+            backward.push(vertex);
+            IntStack previous = predecessors[vertex];
+            if (previous == null) continue;
+            for (int i = 0; i < previous.size(); i++) {
+                int w = previous.get(i);
+                // The forward set cannot be reached, or there would be a cycle already
+                if (marks[w] != markStamp && positions[w] > lowerBound) {
+                    marks[w] = markStamp;
+                    searchStack.push(w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the backward set in front of the forward set, each keeping its relative
+     * order, over the positions the two sets held.
+     */
+    private void reorder() {
+        int[] backwardSet = sortByPosition(backward);
+        int[] forwardSet = sortByPosition(forward);
+        int[] slots = new int[backwardSet.length + forwardSet.length];
+        int count = 0;
+        for (int vertex : backwardSet) {
+            slots[count++] = positions[vertex];
+        }
+        for (int vertex : forwardSet) {
+            slots[count++] = positions[vertex];
+        }
+        Arrays.sort(slots);
+        count = 0;
+        for (int vertex : backwardSet) {
+            place(vertex, slots[count++]);
+        }
+        for (int vertex : forwardSet) {
+            place(vertex, slots[count++]);
+        }
+        reorderedCount += slots.length;
+    }
+
+    private int[] sortByPosition(IntStack set) {
+        // Sort (position, vertex) pairs packed into longs
+        long[] keyed = new long[set.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            int vertex = set.get(i);
+            keyed[i] = ((long) positions[vertex] << 32) | vertex;
+        }
+        Arrays.sort(keyed);
+        int[] sorted = new int[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = (int) keyed[i];
+        }
+        return sorted;
+    }
+
+    private void place(int vertex, int position) {
+        positions[vertex] = position;
+        vertices[position] = vertex;
+    }
+
+    /**
+     * The path from v to u the forward search found, which the edge u -> v would close.
+     */
+    private int[] cyclePath(int v, int u) {
+        IntStack path = new IntStack();
+        for (int vertex = u; vertex != -1; vertex = searchParents[vertex]) {
+            path.push(vertex);
+        }
+        int[] cycle = new int[path.size()];
+        for (int i = 0; i < cycle.length; i++) {
+            cycle[i] = path.get(cycle.length - 1 - i);
+        }
+        return cycle;
+    }
+
+    private boolean reject(int[] cycle) {
+        lastCycle = cycle;
+        rejectedCount++;
+        return false;
+    }
+
+    private void link(int u, int v) {
+        if (successors[u] == null) successors[u] = new IntStack(4);
+        if (predecessors[v] == null) predecessors[v] = new IntStack(4);
+        successors[u].push(v);
+        predecessors[v].push(u);
+        edgeCount++;
+    }
+
+    private void newMarks() {
+        if (++markStamp == 0) {
+            Arrays.fill(marks, 0);
+            markStamp = 1;
+        }
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IllegalArgumentException("Vertex out of range: " + vertex);
+        }
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Position of a vertex in the current order.
+     */
+    public int position(int vertex) {
+        checkVertex(vertex);
+        return positions[vertex];
+    }
+
+    /**
+     * Vertex at a position of the current order.
+     */
+    public int vertexAt(int position) {
+        if (position < 0 || position >= vertexCount) {
+            throw new IllegalArgumentException("Position out of range: " + position);
+        }
+        return vertices[position];
+    }
+
+    /**
+     * The current order.
+     *
+     * return A copy of the vertices by position.
+     */
+    public int[] order() {
+        return Arrays.copyOf(vertices, vertexCount);
+    }
+
+    /**
+     * The cycle the last rejected edge u -> v would have closed.
+     *
+     * return The path from v to u, or null if no edge was rejected yet.
+     */
+    public int[] getLastCycle() {
+        return lastCycle == null ? null : lastCycle.clone();
+    }
+
+    /**
+     * Total number of vertices moved by insertions.
+     */
+    public long getReorderedCount() {
+        return reorderedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+}
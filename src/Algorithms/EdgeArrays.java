@@ -0,0 +1,164 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Edges of a graph as parallel int arrays indexed by edge id, the compact form the
+ * spanning tree algorithms work on. An undirected edge appears once, from its lower
+ * numbered end, and ids follow the arc order of the graph.
+ */
+public final class EdgeArrays {
+
+    private final int vertexCount;
+    final int[] sources;
+    final int[] targets;
+    final int[] weights;
+
+    private EdgeArrays(int vertexCount, int[] sources, int[] targets, int[] weights) {
+        this.vertexCount = vertexCount;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Extracts the edges of a graph.
+     *
+     * graph Graph to read.
+     * return The edges.
+     */
+    public static EdgeArrays of(CsrGraph graph) {
+        return of(graph.vertexCount(), graph.isDirected(), graph.cursor());
+    }
+
+    /**
+     * Extracts the edges of a compressed graph. Ids follow the sorted lists.
+     *
+     * graph Graph to read.
+     * return The edges.
+     */
+    public static EdgeArrays of(CompressedGraph graph) {
+        return of(graph.vertexCount(), graph.isDirected(), graph.cursor());
+    }
+
+    /**
+     * Scans every neighbor list twice: once to count the edges and once to fill them in.
+     */
+    private static EdgeArrays of(int numVertices, boolean directed, NeighborCursor neighbors) {
+        int count = 0;
+        for (int u = 0; u < numVertices; u++) {
+            neighbors.moveTo(u);
+            while (neighbors.next()) {
+                if (directed || u < neighbors.target()) count++;
+            }
+        }
+        int[] sources = new int[count];
+        int[] targets = new int[count];
+        int[] weights = new int[count];
+        int edge = 0;
+        for (int u = 0; u < numVertices; u++) {
+            neighbors.moveTo(u);
+            while (neighbors.next()) {
+                int v = neighbors.target();
+                if (directed || u < v) {
+                    sources[edge] = u;
+                    targets[edge] = v;
+                    weights[edge] = neighbors.weight();
+                    edge++;
+                }
+            }
+        }
+        return new EdgeArrays(numVertices, sources, targets, weights);
+    }
+
+    /**
+     * Maps every arc of a graph to the id its edge gets in of(graph). In an undirected
+     * graph both arcs of an edge map to the same id; the k-th arc from u to v is the
+     * twin of the k-th arc from v to u, since the builder adds both in input order.
+     * Self loops of undirected graphs have no edge and map to -1.
+     *
+     * graph Graph to read.
+     * return Edge id per arc.
+     */
+    public static int[] arcEdgeIds(CsrGraph graph) {
+        int numVertices = graph.vertexCount();
+        int[] edgeIds = new int[graph.arcCount()];
+        if (graph.isDirected()) {
+            for (int arc = 0; arc < edgeIds.length; arc++) {
+                edgeIds[arc] = arc;
+            }
+            return edgeIds;
+        }
+
+        // Number the arcs leaving the lower end, and bucket the arcs v -> u with u < v by u
+        int[] downStart = new int[numVertices + 1];
+        int next = 0;
+        for (int u = 0; u < numVertices; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int v = graph.target(arc);
+                if (u < v) edgeIds[arc] = next++;
+                else if (u > v) downStart[v + 1]++;
+                else edgeIds[arc] = -1;
+            }
+        }
+        for (int u = 0; u < numVertices; u++) {
+            downStart[u + 1] += downStart[u];
+        }
+        // Bucket u holds its down arcs ordered by their tail, then by position in its list
+        int[] downArcs = new int[downStart[numVertices]];
+        int[] fill = Arrays.copyOf(downStart, numVertices);
+        for (int v = 0; v < numVertices; v++) {
+            for (int arc = graph.firstArc(v); arc < graph.endArc(v); arc++) {
+                int u = graph.target(arc);
+                if (u < v) downArcs[fill[u]++] = arc;
+            }
+        }
+
+        // Match the up arcs of u, in order, with the down arcs from each v, in order
+        int[] cursor = new int[numVertices];
+        for (int u = 0; u < numVertices; u++) {
+            for (int i = downStart[u + 1] - 1; i >= downStart[u]; i--) {
+                cursor[tailOf(graph, downArcs[i])] = i; // ends at the first arc from each tail
+            }
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int v = graph.target(arc);
+                if (u < v) edgeIds[downArcs[cursor[v]++]] = edgeIds[arc];
+            }
+        }
+        return edgeIds;
+    }
+
+    /**
+     * Tail vertex of an arc, by binary search over the offsets.
+     */
+    private static int tailOf(CsrGraph graph, int arc) {
+        int low = 0;
+        int high = graph.vertexCount() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (graph.firstArc(middle) <= arc) low = middle;
+            else high = middle - 1;
+        }
+        return low;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int edgeCount() {
+        return sources.length;
+    }
+
+    public int source(int edge) {
+        return sources[edge];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int weight(int edge) {
+        return weights[edge];
+    }
+}
@@ -0,0 +1,51 @@
+package Algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel loop over an index range as fork-join tasks, shared by the parallel solvers.
+ */
+final class ForkJoinLoops {
+
+    private ForkJoinLoops() {
+    }
+
+    /**
+     * Runs body(0) .. body(count - 1) in the pool, or inline when there is only one.
+     */
+    static void parallelFor(ForkJoinPool pool, int count, IntConsumer body) {
+        if (count == 1) {
+            body.accept(0);
+        } else if (count > 1) {
+            pool.invoke(new ForEachTask(0, count, body));
+        }
+    }
+
+    /**
+     * Splits an index range in halves down to single indices.
+     */
+    @SuppressWarnings("serial")
+    private static class ForEachTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        ForEachTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ForEachTask(from, middle, body), new ForEachTask(middle, to, body));
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package Algorithms;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the ipfiles edge-list format into a CsrGraph.
+ * The first line is "V E D|U", followed by E lines of "source destination weight"
+ * and an optional line naming the source vertex.
+ *
+ * The file is memory mapped and tokens are parsed straight from the mapped bytes, so
+ * numbers never become Strings and a label only becomes one the first time it is seen.
+ * When an up-to-date GraphSnapshot sits next to the text file it is loaded instead.
+ *
+ * With -Dalgorithms.graph.offheap=true, or setOffHeap, graphs are kept off the heap:
+ * snapshots are mapped in place and text files are parsed in two passes, the second
+ * writing every arc straight into direct buffers. Only the labels and the per-vertex
+ * offsets are ever held on the heap, so the arcs may outgrow it.
+ */
+public class GraphFileReader {
+
+    private static final int WINDOW_SIZE = 1 << 30;
+    private static final int MAX_TOKEN_LENGTH = 1 << 16;
+    private static final boolean OFF_HEAP_DEFAULT = Boolean.getBoolean("algorithms.graph.offheap");
+
+    private FileChannel channel;
+    private long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+    private int limit;
+    private int tokenStart;
+    private int tokenLength;
+
+    private long bytesRead;
+    private long parseNanos;
+    private boolean fromSnapshot;
+    private boolean offHeap = OFF_HEAP_DEFAULT;
+
+    /**
+     * Reads a graph file.
+     *
+     * filePath Path to the input file.
+     * return The loaded graph.
+     * throws IOException
+     */
+    public static CsrGraph read(String filePath) throws IOException {
+        return new GraphFileReader().load(filePath, false);
+    }
+
+    /**
+     * Reads a graph file, optionally keeping only the listed direction of every edge.
+     *
+     * filePath Path to the input file.
+     * asDirected Whether to treat an undirected file as directed.
+     * return The loaded graph.
+     * throws IOException
+     */
+    public static CsrGraph read(String filePath, boolean asDirected) throws IOException {
+        return new GraphFileReader().load(filePath, asDirected);
+    }
+
+    /**
+     * Parses the text file, ignoring any snapshot.
+     *
+     * filePath Path to the input file.
+     * asDirected Whether to treat an undirected file as directed.
+     * return The loaded graph.
+     * throws IOException
+     */
+    public static CsrGraph parse(String filePath, boolean asDirected) throws IOException {
+        return new GraphFileReader().parseText(filePath, asDirected, null);
+    }
+
+    /**
+     * Parses the text file in two passes, writing the arcs into storage from the
+     * allocator instead of building them on the heap.
+     *
+     * filePath Path to the input file.
+     * asDirected Whether to treat an undirected file as directed.
+     * allocator Creates the storage once the offsets are known.
+     * return The graph, backed by the allocated storage.
+     * throws IOException
+     */
+    static CsrGraph parse(String filePath, boolean asDirected, StorageAllocator allocator) throws IOException {
+        return new GraphFileReader().parseText(filePath, asDirected, allocator);
+    }
+
+    /**
+     * Loads a graph file or its snapshot and records how long it took.
+     *
+     * filePath Path to the input file, text or .gsnap.
+     * asDirected Whether to treat an undirected file as directed.
+     * return The loaded graph.
+     * throws IOException
+     */
+    public CsrGraph load(String filePath, boolean asDirected) throws IOException {
+        String snapshotPath = null;
+        if (filePath.endsWith(GraphSnapshot.EXTENSION)) {
+            snapshotPath = filePath;
+        } else if (GraphSnapshot.isCurrent(filePath, asDirected)) {
+            snapshotPath = GraphSnapshot.snapshotPathFor(filePath);
+        }
+        if (snapshotPath == null) {
+            return parseText(filePath, asDirected, offHeap ? OffHeapAdjacency::allocate : null);
+        }
+
+        long startTime = System.nanoTime();
+        CsrGraph graph = offHeap ? GraphSnapshot.map(snapshotPath, true) : GraphSnapshot.read(snapshotPath);
+        bytesRead = new File(snapshotPath).length();
+        parseNanos = System.nanoTime() - startTime;
+        fromSnapshot = true;
+        return graph;
+    }
+
+    private CsrGraph parseText(String filePath, boolean asDirected, StorageAllocator allocator) throws IOException {
+        long startTime = System.nanoTime();
+        try (FileChannel fileChannel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            channel = fileChannel;
+            fileSize = fileChannel.size();
+            CsrGraph graph = allocator == null ? build(asDirected) : stream(asDirected, allocator);
+            bytesRead = fileSize;
+            parseNanos = System.nanoTime() - startTime;
+            fromSnapshot = false;
+            return graph;
+        } catch (NoSuchFileException e) {
+            FileNotFoundException notFound = new FileNotFoundException(filePath);
+            notFound.initCause(e);
+            throw notFound;
+        } finally {
+            channel = null;
+            window = null;
+        }
+    }
+
+    /**
+     * Collects the edges in a CsrGraph.Builder, which lays them out on the heap.
+     */
+    private CsrGraph build(boolean asDirected) throws IOException {
+        rewind();
+        int numVertices = nextInt(); // only a sizing hint, the count comes from the distinct labels
+        int numEdges = nextInt();
+        char graphType = (char) nextByte();
+
+        CsrGraph.Builder builder = new CsrGraph.Builder(asDirected || graphType == 'D', numVertices, numEdges);
+        VertexLabels labels = builder.labels();
+        for (int i = 0; i < numEdges; i++) {
+            int sourceNode = nextLabel(labels);
+            int destinationNode = nextLabel(labels);
+            builder.addEdge(sourceNode, destinationNode, nextInt());
+        }
+        if (nextToken()) {
+            builder.sourceVertex(labels.intern(window, tokenStart, tokenLength));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Lays the graph out the way CsrGraph.Builder does without holding the edges: the
+     * first pass interns the labels and counts the arcs of each vertex, the second
+     * writes every arc straight to its place in the allocated storage.
+     */
+    private CsrGraph stream(boolean asDirected, StorageAllocator allocator) throws IOException {
+        rewind();
+        int numVertices = nextInt();
+        int numEdges = nextInt();
+        char graphType = (char) nextByte();
+        boolean directed = asDirected || graphType == 'D';
+        if (!directed && numEdges > Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("Undirected graphs are limited to " + Integer.MAX_VALUE / 2 + " edges");
+        }
+
+        // Arc counts by the order the labels are first seen
+        VertexLabels labels = new VertexLabels(numVertices);
+        int[] degrees = new int[Math.max(numVertices, 4)];
+        for (int i = 0; i < numEdges; i++) {
+            int sourceNode = nextLabel(labels);
+            int destinationNode = nextLabel(labels);
+            nextInt();
+            if (labels.size() > degrees.length) degrees = Arrays.copyOf(degrees, 2 * labels.size());
+            degrees[sourceNode]++;
+            if (!directed) degrees[destinationNode]++;
+        }
+        int sourceVertex = nextToken() ? labels.intern(window, tokenStart, tokenLength) : -1;
+
+        int[] newIds = labels.sortNaturally();
+        int vertexCount = labels.size();
+        int[] offsets = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount && v < degrees.length; v++) {
+            offsets[newIds[v] + 1] = degrees[v];
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        AdjacencyStorage storage = allocator.allocate(offsets);
+
+        // Labels now intern to their sorted ids
+        rewind();
+        nextInt();
+        nextInt();
+        nextByte();
+        int[] next = Arrays.copyOf(offsets, vertexCount);
+        for (int i = 0; i < numEdges; i++) {
+            int source = nextLabel(labels);
+            int destination = nextLabel(labels);
+            int weight = nextInt();
+            storage.setArc(next[source]++, destination, weight);
+            if (!directed) storage.setArc(next[destination]++, source, weight);
+        }
+        return new CsrGraph(labels, directed, numEdges, sourceVertex < 0 ? -1 : newIds[sourceVertex], storage);
+    }
+
+    /**
+     * Sets whether later loads keep the graph's arrays off the heap.
+     */
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    public long parseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * Parse throughput of the last load in megabytes per second.
+     */
+    public double throughputMBps() {
+        return parseNanos == 0 ? 0 : (bytesRead / 1e6) / (parseNanos / 1e9);
+    }
+
+    /**
+     * Describes the last load for the execution reports.
+     */
+    public String describeLoad() {
+        return String.format("Parse Time: %d nanoseconds (%s%s%.1f MB/s)", parseNanos,
+                fromSnapshot ? "snapshot, " : "", offHeap ? "off-heap, " : "", throughputMBps());
+    }
+
+    private void rewind() {
+        window = null;
+        windowStart = 0;
+        position = 0;
+        limit = 0;
+    }
+
+    private int nextLabel(VertexLabels labels) throws IOException {
+        requireToken("vertex label");
+        return labels.intern(window, tokenStart, tokenLength);
+    }
+
+    private int nextByte() throws IOException {
+        requireToken("graph type");
+        return window.get(tokenStart);
+    }
+
+    private int nextInt() throws IOException {
+        requireToken("number");
+        int index = tokenStart;
+        int end = tokenStart + tokenLength;
+        boolean negative = window.get(index) == '-';
+        if (negative || window.get(index) == '+') index++;
+        if (index == end) throw malformed("number");
+        long value = 0;
+        for (; index < end; index++) {
+            int digit = window.get(index) - '0';
+            if (digit < 0 || digit > 9) throw malformed("number");
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) throw malformed("number");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw malformed("number");
+        return (int) value;
+    }
+
+    private void requireToken(String expected) throws IOException {
+        if (!nextToken()) {
+            throw new IOException("Unexpected end of file, expected " + expected);
+        }
+    }
+
+    private IOException malformed(String expected) {
+        return new IOException("Malformed " + expected + " at byte " + (windowStart + tokenStart));
+    }
+
+    /**
+     * Moves to the next whitespace separated token.
+     *
+     * return false at end of file.
+     */
+    private boolean nextToken() throws IOException {
+        // Skip whitespace, sliding the window when it runs out
+        while (true) {
+            while (position < limit && window.get(position) <= ' ') position++;
+            if (position < limit) break;
+            if (!slideWindow()) return false;
+        }
+        // Make sure a whole token fits in what is left of the window
+        if (limit - position < MAX_TOKEN_LENGTH) slideWindow();
+        tokenStart = position;
+        while (position < limit && window.get(position) > ' ') position++;
+        tokenLength = position - tokenStart;
+        return true;
+    }
+
+    /**
+     * Remaps the window so that it starts at the current position.
+     *
+     * return false if the window already reaches the end of the file.
+     */
+    private boolean slideWindow() throws IOException {
+        long start = window == null ? 0 : windowStart + position;
+        if (window != null && windowStart + limit >= fileSize) return false;
+        if (start >= fileSize) return false;
+        int length = (int) Math.min(WINDOW_SIZE, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        windowStart = start;
+        position = 0;
+        limit = length;
+        return true;
+    }
+
+    /**
+     * Creates the storage a two-pass parse writes its arcs into.
+     */
+    interface StorageAllocator {
+        /**
+         * offsets Start of each vertex's arcs, with the arc count last.
+         * return Storage with those offsets, its arcs to be filled with setArc.
+         */
+        AdjacencyStorage allocate(int[] offsets) throws IOException;
+    }
+}
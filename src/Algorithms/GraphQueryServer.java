@@ -0,0 +1,527 @@
+package Algorithms;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived query daemon. Graphs are loaded once under a name and stay in memory, so
+ * a query pays neither JVM startup nor parsing nor a cold JIT. Clients talk over stdin
+ * or a local socket, one request per line and one reply line per request:
+ *
+ *   LOAD name path [directed]   load a graph file, replacing any graph of that name;
+ *                               directed keeps only the listed direction of every edge
+ *   UNLOAD name                 drop a graph
+ *   LIST                        names of the loaded graphs
+ *   PATH name source target     "OK distance vertex..." or "OK unreachable"
+ *   TREE name source            "OK count vertex=distance..." for every reachable vertex
+ *   MST name                    "OK weight count source-target:weight..."
+ *   TOPO name                   "OK acyclic levels vertex..." or "OK cyclic components";
+ *                               only for graphs loaded as directed
+ *   WARM name [queries]         run queries and the cached computations to warm the JIT
+ *   QUIT                        end the session
+ *
+ * Vertices are named by their labels. Failed requests get "ERR message", or the name
+ * of the exception when it has no message.
+ *
+ * Every query runs on its own virtual thread, so a client may pipeline any number of
+ * lines without waiting; replies still come back in request order. LOAD and UNLOAD
+ * take effect before the next line is read, so a pipeline behaves as if it ran one
+ * request at a time. Dijkstra workspaces are pooled per graph, and the spanning tree
+ * and topological order of a graph are computed once and then served from memory.
+ * Shortest path trees computed for TREE go into a ShortestPathCache that answers later
+ * TREE and PATH requests from the same source; a graph's trees are dropped from it when
+ * the graph is unloaded or replaced.
+ */
+public class GraphQueryServer implements AutoCloseable {
+
+    // Replies of one client that may be pending before reading pauses
+    private static final int MAX_PIPELINED = 1024;
+    // Dijkstra runs of a WARM request without a count
+    private static final int DEFAULT_WARMUP_QUERIES = 20;
+    // Vertex count from which the topological sort processes frontiers in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final Future<String> END = CompletableFuture.completedFuture(null);
+    // Shortest path trees kept across requests, by count and by at most a quarter of the heap
+    private static final int CACHE_ENTRIES = 1024;
+    private static final long CACHE_BYTES = Math.min(256L << 20, Runtime.getRuntime().maxMemory() / 4);
+
+    private final ConcurrentHashMap<String, LoadedGraph> graphs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HeapType heapType;
+    private final ShortestPathCache cache;
+
+    public GraphQueryServer() {
+        this(HeapType.QUATERNARY);
+    }
+
+    /**
+     * Creates a server with no graphs loaded.
+     *
+     * heapType Priority queue used by every shortest path query.
+     */
+    public GraphQueryServer(HeapType heapType) {
+        this(heapType, new ShortestPathCache(CACHE_ENTRIES, CACHE_BYTES));
+    }
+
+    /**
+     * Creates a server with no graphs loaded that keeps shortest path trees in a given cache.
+     *
+     * heapType Priority queue used by every shortest path query.
+     * cache Cache for the trees of TREE and PATH requests.
+     */
+    public GraphQueryServer(HeapType heapType, ShortestPathCache cache) {
+        this.heapType = heapType;
+        this.cache = cache;
+    }
+
+    public ShortestPathCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Runs the server. Arguments are "--port N" to listen on a loopback socket instead
+     * of serving stdin, and any number of "name=path" or "name=path,directed" graphs
+     * to load and warm up before the first request.
+     */
+    public static void main(String[] args) {
+        int port = -1;
+        List<String> preloads = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else {
+                preloads.add(args[i]);
+            }
+        }
+
+        // Does nothing when Main has already started it
+        Metrics.start();
+        try (GraphQueryServer server = new GraphQueryServer()) {
+            for (String preload : preloads) {
+                int separator = preload.indexOf('=');
+                if (separator <= 0) {
+                    System.err.println("Expected name=path, got " + preload);
+                    return;
+                }
+                String path = preload.substring(separator + 1);
+                boolean directed = path.endsWith(",directed");
+                if (directed) path = path.substring(0, path.length() - ",directed".length());
+                String[] request = {"LOAD", preload.substring(0, separator), path};
+                System.err.println(server.load(request, directed));
+                System.err.println(server.warm(server.lookup(request[1]), DEFAULT_WARMUP_QUERIES));
+            }
+            if (port >= 0) {
+                server.listen(port);
+            } else {
+                server.serve(System.in, System.out);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Server stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Accepts clients on a loopback port until the process ends, serving each on its
+     * own virtual thread.
+     *
+     * port Port to listen on, or 0 for any free port.
+     * throws IOException if the port cannot be opened.
+     */
+    public void listen(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, 64, InetAddress.getLoopbackAddress())) {
+            System.err.println("Listening on " + serverSocket.getLocalSocketAddress());
+            while (true) {
+                Socket client = serverSocket.accept();
+                executor.submit(() -> {
+                    try (client) {
+                        serve(client.getInputStream(), client.getOutputStream());
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Serves one client until it sends QUIT or its input ends. Returns once every
+     * reply has been written.
+     *
+     * input Request lines.
+     * output Reply lines.
+     * throws IOException if reading or writing fails.
+     */
+    public void serve(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        BlockingQueue<Future<String>> replies = new ArrayBlockingQueue<>(MAX_PIPELINED);
+        Future<Void> replyWriter = executor.submit(() -> {
+            writeReplies(replies, writer);
+            return null;
+        });
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (line.equalsIgnoreCase("QUIT")) break;
+                enqueue(replies, submit(line), replyWriter);
+            }
+            enqueue(replies, END, replyWriter);
+            replyWriter.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while serving");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    private static void enqueue(BlockingQueue<Future<String>> replies, Future<String> reply, Future<Void> replyWriter)
+            throws InterruptedException, ExecutionException {
+        // A writer that failed, e.g. on a closed connection, would never make room again
+        while (!replies.offer(reply, 100, TimeUnit.MILLISECONDS)) {
+            if (replyWriter.isDone()) {
+                replyWriter.get();
+                throw new ExecutionException(new IOException("Reply writer stopped"));
+            }
+        }
+    }
+
+    /**
+     * Writes replies in request order, flushing whenever the next one is not ready yet
+     * so that a pipelined batch goes out in few writes.
+     */
+    private static void writeReplies(BlockingQueue<Future<String>> replies, Writer writer)
+            throws IOException, InterruptedException {
+        while (true) {
+            Future<String> reply = replies.poll();
+            if (reply == null) {
+                writer.flush();
+                reply = replies.take();
+            }
+            if (reply == END) {
+                writer.flush();
+                return;
+            }
+            if (!reply.isDone()) writer.flush();
+            String text;
+            try {
+                text = reply.get();
+            } catch (ExecutionException e) {
+                text = "ERR " + describe(e.getCause());
+            }
+            writer.write(text);
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Parses a request and starts it. Graph names are resolved here, on the reading
+     * thread, so a request sees exactly the graphs loaded by the lines before it.
+     *
+     * line Request line.
+     * return The pending reply.
+     */
+    Future<String> submit(String line) {
+        String[] words = line.split("\\s+");
+        try {
+            switch (words[0].toUpperCase(Locale.ROOT)) {
+                case "LOAD": {
+                    expectWords(words, 3, 4, "LOAD name path [directed]");
+                    if (words.length == 4 && !words[3].equalsIgnoreCase("directed")) {
+                        throw new IllegalArgumentException("Usage: LOAD name path [directed]");
+                    }
+                    return completed(load(words, words.length == 4));
+                }
+                case "UNLOAD": {
+                    expectWords(words, 2, 2, "UNLOAD name");
+                    LoadedGraph removed = graphs.remove(words[1]);
+                    if (removed == null) {
+                        throw new IllegalArgumentException("Unknown graph: " + words[1]);
+                    }
+                    cache.invalidate(removed.graph);
+                    return completed("OK " + words[1]);
+                }
+                case "LIST": {
+                    List<String> names = new ArrayList<>(graphs.keySet());
+                    Collections.sort(names);
+                    return completed(names.isEmpty() ? "OK" : "OK " + String.join(" ", names));
+                }
+                case "PATH": {
+                    expectWords(words, 4, 4, "PATH name source target");
+                    LoadedGraph loaded = lookup(words[1]);
+                    int source = loaded.vertex(words[2]);
+                    int target = loaded.vertex(words[3]);
+                    return executor.submit(() -> path(loaded, source, target));
+                }
+                case "TREE": {
+                    expectWords(words, 3, 3, "TREE name source");
+                    LoadedGraph loaded = lookup(words[1]);
+                    int source = loaded.vertex(words[2]);
+                    return executor.submit(() -> tree(loaded, source));
+                }
+                case "MST": {
+                    expectWords(words, 2, 2, "MST name");
+                    LoadedGraph loaded = lookup(words[1]);
+                    return executor.submit((Callable<String>) loaded::spanningTree);
+                }
+                case "TOPO": {
+                    expectWords(words, 2, 2, "TOPO name");
+                    LoadedGraph loaded = lookup(words[1]);
+                    // Every undirected edge is a cycle of two arcs, so the answer would always be cyclic
+                    if (!loaded.graph.isDirected()) {
+                        throw new IllegalArgumentException("TOPO needs a directed graph: LOAD " + words[1]
+                                + " path directed");
+                    }
+                    return executor.submit((Callable<String>) loaded::topologicalOrder);
+                }
+                case "WARM": {
+                    expectWords(words, 2, 3, "WARM name [queries]");
+                    LoadedGraph loaded = lookup(words[1]);
+                    int queries = words.length == 3 ? Integer.parseInt(words[2]) : DEFAULT_WARMUP_QUERIES;
+                    if (queries < 0) {
+                        throw new IllegalArgumentException("Query count must not be negative: " + queries);
+                    }
+                    return executor.submit(() -> warm(loaded, queries));
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown request: " + words[0]);
+            }
+        } catch (IOException e) {
+            return completed("ERR Could not read graph file: " + describe(e));
+        } catch (IllegalArgumentException e) {
+            return completed("ERR " + describe(e));
+        }
+    }
+
+    private static Future<String> completed(String reply) {
+        return CompletableFuture.completedFuture(reply);
+    }
+
+    /**
+     * Text of an error reply: the message, or the exception's name if it has none.
+     */
+    private static String describe(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static void expectWords(String[] words, int min, int max, String usage) {
+        if (words.length < min || words.length > max) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+    }
+
+    private String load(String[] words, boolean asDirected) throws IOException {
+        CsrGraph graph = new GraphFileReader().load(words[2], asDirected);
+        LoadedGraph replaced = graphs.put(words[1], new LoadedGraph(graph));
+        if (replaced != null) cache.invalidate(replaced.graph);
+        return "OK " + words[1] + " " + graph.vertexCount() + " " + graph.edgeCount()
+                + (graph.isDirected() ? " directed" : " undirected");
+    }
+
+    private LoadedGraph lookup(String name) {
+        LoadedGraph loaded = graphs.get(name);
+        if (loaded == null) {
+            throw new IllegalArgumentException("Unknown graph: " + name);
+        }
+        return loaded;
+    }
+
+    private String path(LoadedGraph loaded, int source, int target) {
+        ShortestPathTree tree = cache.get(loaded.graph, source);
+        if (tree == null) return pointToPoint(loaded, source, target);
+        if (!tree.isReachable(target)) return "OK unreachable";
+        StringBuilder reply = new StringBuilder("OK ").append(tree.distance(target));
+        for (int vertex : tree.path(target)) {
+            reply.append(' ').append(loaded.graph.label(vertex));
+        }
+        return reply.toString();
+    }
+
+    /**
+     * Answers PATH without a cached tree, by a bidirectional search that stops when
+     * the two frontiers meet.
+     */
+    private String pointToPoint(LoadedGraph loaded, int source, int target) {
+        PointToPointQuery query = loaded.borrowPointQuery();
+        try {
+            int distance = query.bidirectionalDistance(source, target);
+            if (distance == ShortestPathTree.UNREACHABLE) return "OK unreachable";
+            StringBuilder reply = new StringBuilder("OK ").append(distance);
+            for (int vertex : query.lastPath()) {
+                reply.append(' ').append(loaded.graph.label(vertex));
+            }
+            return reply.toString();
+        } finally {
+            loaded.pointQueries.offer(query);
+        }
+    }
+
+    private String tree(LoadedGraph loaded, int source) {
+        CsrGraph graph = loaded.graph;
+        ShortestPathTree tree = cache.computeIfAbsent(graph, source, loaded::computeTree);
+        StringBuilder reply = new StringBuilder();
+        int reachable = 0;
+        for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+            if (!tree.isReachable(vertex)) continue;
+            reachable++;
+            reply.append(' ').append(graph.label(vertex)).append('=').append(tree.distance(vertex));
+        }
+        return "OK " + reachable + reply;
+    }
+
+    private String warm(LoadedGraph loaded, int queries) {
+        int numVertices = loaded.graph.vertexCount();
+        long startTime = System.nanoTime();
+        if (numVertices > 0) {
+            for (int i = 0; i < queries; i++) {
+                // Sources spread over the id range, so the runs do not all see the same region;
+                // the cache is bypassed so that every run really searches
+                int source = (int) ((long) i * numVertices / queries);
+                loaded.computeTree(source);
+                pointToPoint(loaded, source, numVertices - 1 - source);
+            }
+        }
+        loaded.spanningTree();
+        if (loaded.graph.isDirected()) loaded.topologicalOrder();
+        return "OK warmed " + queries + " " + (System.nanoTime() - startTime) + " nanoseconds";
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * A graph with its pooled query state and the results computed from it so far.
+     * The graph is never modified, so the cached replies stay valid for its lifetime.
+     */
+    private final class LoadedGraph {
+        final CsrGraph graph;
+        final ConcurrentLinkedQueue<DijkstraWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedQueue<PointToPointQuery> pointQueries = new ConcurrentLinkedQueue<>();
+        private CsrGraph reverse;
+        private volatile String spanningTree;
+        private volatile String topologicalOrder;
+
+        LoadedGraph(CsrGraph graph) {
+            this.graph = graph;
+        }
+
+        int vertex(String label) {
+            int vertex = graph.vertexOf(label);
+            if (vertex < 0) {
+                throw new IllegalArgumentException("Unknown vertex: " + label);
+            }
+            return vertex;
+        }
+
+        DijkstraWorkspace borrowWorkspace() {
+            DijkstraWorkspace workspace = workspaces.poll();
+            return workspace != null ? workspace : new DijkstraWorkspace(graph.vertexCount(), heapType);
+        }
+
+        ShortestPathTree computeTree(int source) {
+            DijkstraWorkspace workspace = borrowWorkspace();
+            try {
+                DijkstraShortestPath.calculateShortestPaths(graph, source, workspace);
+                return workspace.toShortestPathTree(graph);
+            } finally {
+                workspaces.offer(workspace);
+            }
+        }
+
+        PointToPointQuery borrowPointQuery() {
+            PointToPointQuery query = pointQueries.poll();
+            return query != null ? query : new PointToPointQuery(graph, reverse(), heapType);
+        }
+
+        private synchronized CsrGraph reverse() {
+            if (reverse == null) reverse = graph.reverse();
+            return reverse;
+        }
+
+        String spanningTree() {
+            String reply = spanningTree;
+            if (reply == null) {
+                synchronized (this) {
+                    if (spanningTree == null) spanningTree = computeSpanningTree();
+                    reply = spanningTree;
+                }
+            }
+            return reply;
+        }
+
+        private String computeSpanningTree() {
+            EdgeArrays edges = EdgeArrays.of(graph);
+            MstMode mode = MstMode.AUTO.select(graph.vertexCount(), graph.edgeCount(), graph.isDirected());
+            int[] chosen;
+            if (mode == MstMode.DENSE_PRIM) {
+                chosen = new PrimMinimumSpanningTree(graph).densePrim();
+            } else if (mode == MstMode.HEAP_PRIM) {
+                chosen = new PrimMinimumSpanningTree(graph).heapPrim();
+            } else {
+                chosen = new PackedKruskal(edges).radixKruskal();
+            }
+            long totalWeight = 0;
+            StringBuilder edgeList = new StringBuilder();
+            for (int edge : chosen) {
+                totalWeight += edges.weight(edge);
+                edgeList.append(' ').append(graph.label(edges.source(edge))).append('-')
+                        .append(graph.label(edges.target(edge))).append(':').append(edges.weight(edge));
+            }
+            return "OK " + totalWeight + " " + chosen.length + edgeList;
+        }
+
+        String topologicalOrder() {
+            String reply = topologicalOrder;
+            if (reply == null) {
+                synchronized (this) {
+                    if (topologicalOrder == null) topologicalOrder = computeTopologicalOrder();
+                    reply = topologicalOrder;
+                }
+            }
+            return reply;
+        }
+
+        private String computeTopologicalOrder() {
+            KahnTopologicalSort sorter = new KahnTopologicalSort(graph);
+            TopologicalLevels levels = graph.vertexCount() >= PARALLEL_THRESHOLD ? sorter.parallelSort() : sorter.sort();
+            if (!levels.isComplete()) {
+                return "OK cyclic " + new StronglyConnectedComponents(graph).cyclicComponentCount();
+            }
+            StringBuilder reply = new StringBuilder("OK acyclic ").append(levels.levelCount());
+            for (int i = 0; i < levels.size(); i++) {
+                reply.append(' ').append(graph.label(levels.vertex(i)));
+            }
+            return reply.toString();
+        }
+    }
+}
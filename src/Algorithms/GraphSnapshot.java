@@ -0,0 +1,403 @@
+package Algorithms;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary image of a CsrGraph that loads without any text parsing.
+ *
+ * Layout (little endian): a 64 byte header, then offsets[V + 1], targets[A], weights[A],
+ * labelOffsets[V + 1] and the UTF-8 label bytes. The header records the size and
+ * modification time of the text file the snapshot was made from, so a stale snapshot
+ * can be detected, and a CRC32C of everything after the header.
+ */
+public class GraphSnapshot {
+
+    public static final String EXTENSION = ".gsnap";
+
+    private static final int MAGIC = 0x504E5347; // "GSNP"
+    private static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    private static final int FLAG_DIRECTED = 1;
+    private static final int CHUNK_SIZE = 1 << 30;
+
+    private GraphSnapshot() {
+    }
+
+    /**
+     * Path of the snapshot that belongs to a text graph file.
+     *
+     * filePath Path to the text file.
+     * return The same path with the extension replaced by .gsnap.
+     */
+    public static String snapshotPathFor(String filePath) {
+        int dot = filePath.lastIndexOf('.');
+        int slash = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf(File.separatorChar));
+        return (dot > slash ? filePath.substring(0, dot) : filePath) + EXTENSION;
+    }
+
+    /**
+     * Converts a text graph file into a snapshot next to it. The text is parsed in two
+     * passes and the arcs are written straight into the mapped sections of the snapshot,
+     * so the graph is never built on the heap and may be larger than memory.
+     *
+     * filePath Path to the text file.
+     * return Path of the written snapshot.
+     * throws IOException
+     */
+    public static String convert(String filePath) throws IOException {
+        File source = new File(filePath);
+        String snapshotPath = snapshotPathFor(filePath);
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotPath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            SectionWriter out = new SectionWriter(channel);
+            CsrGraph graph = GraphFileReader.parse(filePath, false, offsets -> {
+                int numArcs = offsets[offsets.length - 1];
+                return OffHeapAdjacency.withOffsets(offsets, out.mapInts(offsets.length),
+                        out.mapInts(numArcs), out.mapInts(numArcs), true);
+            });
+            writeLabelsAndHeader(channel, out, graph, encodeLabels(graph), source.length(), source.lastModified());
+        }
+        return snapshotPath;
+    }
+
+    /**
+     * Writes a graph snapshot.
+     *
+     * graph Graph to store.
+     * snapshotPath Destination file.
+     * sourceSize Size of the text file the graph came from, or 0.
+     * sourceModified Modification time of that text file, or 0.
+     * throws IOException
+     */
+    public static void write(CsrGraph graph, String snapshotPath, long sourceSize, long sourceModified)
+            throws IOException {
+        int numVertices = graph.vertexCount();
+        int numArcs = graph.arcCount();
+        byte[][] labelBytes = encodeLabels(graph);
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotPath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SectionWriter out = new SectionWriter(channel);
+            for (int v = 0; v <= numVertices; v++) {
+                out.putInt(v == numVertices ? numArcs : graph.firstArc(v));
+            }
+            for (int arc = 0; arc < numArcs; arc++) {
+                out.putInt(graph.target(arc));
+            }
+            for (int arc = 0; arc < numArcs; arc++) {
+                out.putInt(graph.weight(arc));
+            }
+            writeLabelsAndHeader(channel, out, graph, labelBytes, sourceSize, sourceModified);
+        }
+    }
+
+    private static byte[][] encodeLabels(CsrGraph graph) throws IOException {
+        byte[][] labelBytes = new byte[graph.vertexCount()][];
+        long totalLabelBytes = 0;
+        for (int v = 0; v < labelBytes.length; v++) {
+            labelBytes[v] = graph.label(v).getBytes(StandardCharsets.UTF_8);
+            totalLabelBytes += labelBytes[v].length;
+        }
+        if (totalLabelBytes > Integer.MAX_VALUE) {
+            throw new IOException("Vertex labels exceed 2 GB");
+        }
+        return labelBytes;
+    }
+
+    /**
+     * Finishes a snapshot whose arc sections have been written: appends the labels,
+     * then writes the header with the checksum of the whole payload.
+     */
+    private static void writeLabelsAndHeader(FileChannel channel, SectionWriter out, CsrGraph graph,
+                                             byte[][] labelBytes, long sourceSize, long sourceModified)
+            throws IOException {
+        int labelOffset = 0;
+        out.putInt(0);
+        for (byte[] bytes : labelBytes) {
+            labelOffset += bytes.length;
+            out.putInt(labelOffset);
+        }
+        for (byte[] bytes : labelBytes) {
+            out.putBytes(bytes);
+        }
+        out.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION)
+                .putInt(graph.isDirected() ? FLAG_DIRECTED : 0)
+                .putInt(graph.vertexCount()).putInt(graph.arcCount()).putInt(graph.edgeCount())
+                .putInt(graph.sourceVertex()).putInt(0)
+                .putLong(labelOffset).putLong(sourceSize).putLong(sourceModified)
+                .putLong(out.checksum.getValue());
+        header.flip();
+        channel.write(header, 0);
+    }
+
+    /**
+     * Loads a snapshot, verifying its checksum.
+     *
+     * snapshotPath Snapshot file.
+     * return The stored graph.
+     * throws IOException
+     */
+    public static CsrGraph read(String snapshotPath) throws IOException {
+        return read(snapshotPath, true);
+    }
+
+    /**
+     * Loads a snapshot by mapping it and copying the arrays out in bulk.
+     *
+     * snapshotPath Snapshot file.
+     * verify Whether to check the CRC32C of the payload.
+     * return The stored graph.
+     * throws IOException
+     */
+    public static CsrGraph read(String snapshotPath, boolean verify) throws IOException {
+        return load(snapshotPath, verify, false);
+    }
+
+    /**
+     * Loads a snapshot with the offsets, targets and weights left in the file. They are
+     * mapped rather than copied, so they take no heap and the operating system pages
+     * them in as they are used; only the labels are read onto the heap.
+     *
+     * snapshotPath Snapshot file.
+     * verify Whether to check the CRC32C of the payload, which reads the whole file once.
+     * return The stored graph, backed by OffHeapAdjacency.
+     * throws IOException
+     */
+    public static CsrGraph map(String snapshotPath, boolean verify) throws IOException {
+        return load(snapshotPath, verify, true);
+    }
+
+    private static CsrGraph load(String snapshotPath, boolean verify, boolean mapped) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotPath), StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            if (header == null) {
+                throw new IOException("Not a graph snapshot: " + snapshotPath);
+            }
+            SectionReader in = new SectionReader(channel, verify);
+            AdjacencyStorage storage;
+            if (mapped) {
+                // Mappings stay valid after the channel is closed
+                IntBuffer[] offsets = in.mapInts(header.vertexCount + 1);
+                IntBuffer[] targets = in.mapInts(header.arcCount);
+                IntBuffer[] weights = in.mapInts(header.arcCount);
+                storage = new OffHeapAdjacency(offsets, targets, weights, header.vertexCount, header.arcCount, true);
+            } else {
+                int[] offsets = in.getInts(header.vertexCount + 1);
+                int[] targets = in.getInts(header.arcCount);
+                int[] weights = in.getInts(header.arcCount);
+                storage = new HeapAdjacency(offsets, targets, weights);
+            }
+            int[] labelOffsets = in.getInts(header.vertexCount + 1);
+            byte[] labelBytes = in.getBytes((int) header.labelBytes);
+            if (verify && in.checksum.getValue() != header.checksum) {
+                throw new IOException("Snapshot checksum mismatch: " + snapshotPath);
+            }
+
+            String[] labels = new String[header.vertexCount];
+            for (int v = 0; v < labels.length; v++) {
+                labels[v] = new String(labelBytes, labelOffsets[v], labelOffsets[v + 1] - labelOffsets[v],
+                        StandardCharsets.UTF_8);
+            }
+            return new CsrGraph(new VertexLabels(labels), header.directed, header.edgeCount,
+                    header.sourceVertex, storage);
+        }
+    }
+
+    /**
+     * Checks whether a snapshot exists and was made from the text file as it is now.
+     *
+     * filePath Path to the text file.
+     * asDirected Whether the caller wants the edges in their listed direction only,
+     *            which an undirected snapshot cannot provide.
+     * return true if the snapshot can be loaded in place of the text file.
+     */
+    public static boolean isCurrent(String filePath, boolean asDirected) {
+        File source = new File(filePath);
+        File snapshot = new File(snapshotPathFor(filePath));
+        if (!snapshot.isFile() || snapshot.equals(source)) return false;
+        try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            return header != null && (header.directed || !asDirected)
+                    && header.sourceSize == source.length()
+                    && header.sourceModified == source.lastModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads and validates the header.
+     *
+     * return The header, or null if the file is not a snapshot of this version.
+     */
+    private static Header readHeader(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) return null;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) return null;
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+        Header header = new Header();
+        header.directed = (buffer.getInt() & FLAG_DIRECTED) != 0;
+        header.vertexCount = buffer.getInt();
+        header.arcCount = buffer.getInt();
+        header.edgeCount = buffer.getInt();
+        header.sourceVertex = buffer.getInt();
+        buffer.getInt();
+        header.labelBytes = buffer.getLong();
+        header.sourceSize = buffer.getLong();
+        header.sourceModified = buffer.getLong();
+        header.checksum = buffer.getLong();
+        return header;
+    }
+
+    /**
+     * Fixed-size snapshot header.
+     */
+    private static class Header {
+        boolean directed;
+        int vertexCount, arcCount, edgeCount, sourceVertex;
+        long labelBytes, sourceSize, sourceModified, checksum;
+    }
+
+    /**
+     * Buffers payload writes after the header and checksums them on the way out. Also
+     * used by DistanceMatrix, whose files share the header size.
+     */
+    static class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        final CRC32C checksum = new CRC32C();
+        private long position = HEADER_SIZE;
+        // Sections mapped for writing, checksummed by the next flush
+        private final List<ByteBuffer> mappedSections = new ArrayList<>();
+
+        SectionWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Maps the next count ints of the file for writing, in the chunks OffHeapAdjacency
+         * uses. They must be filled in before anything else is put, since the next flush
+         * takes them into the checksum.
+         */
+        IntBuffer[] mapInts(int count) throws IOException {
+            IntBuffer[] chunks = new IntBuffer[Math.max(1, (int) (((long) count + OffHeapAdjacency.CHUNK_INTS - 1)
+                    >>> OffHeapAdjacency.CHUNK_SHIFT))];
+            for (int k = 0; k < chunks.length; k++) {
+                int length = (int) Math.min(OffHeapAdjacency.CHUNK_INTS, count - ((long) k << OffHeapAdjacency.CHUNK_SHIFT));
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) length * Integer.BYTES);
+                mapped.order(ByteOrder.LITTLE_ENDIAN);
+                mappedSections.add(mapped);
+                chunks[k] = mapped.asIntBuffer();
+                position += (long) length * Integer.BYTES;
+            }
+            return chunks;
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) flush();
+            buffer.putInt(value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) flush();
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            for (ByteBuffer section : mappedSections) {
+                checksum.update(section.duplicate());
+            }
+            mappedSections.clear();
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Maps the payload a chunk at a time and copies each section out in bulk.
+     */
+    static class SectionReader {
+        private final FileChannel channel;
+        private final boolean verify;
+        final CRC32C checksum = new CRC32C();
+        private long position = HEADER_SIZE;
+
+        SectionReader(FileChannel channel, boolean verify) {
+            this.channel = channel;
+            this.verify = verify;
+        }
+
+        int[] getInts(int count) throws IOException {
+            int[] values = new int[count];
+            int done = 0;
+            while (done < count) {
+                int length = Math.min(count - done, CHUNK_SIZE / Integer.BYTES);
+                IntBuffer ints = map((long) length * Integer.BYTES).asIntBuffer();
+                ints.get(values, done, length);
+                done += length;
+            }
+            return values;
+        }
+
+        /**
+         * Maps count ints without copying them, in the chunks OffHeapAdjacency uses.
+         */
+        IntBuffer[] mapInts(int count) throws IOException {
+            IntBuffer[] chunks = new IntBuffer[Math.max(1, (int) (((long) count + OffHeapAdjacency.CHUNK_INTS - 1)
+                    >>> OffHeapAdjacency.CHUNK_SHIFT))];
+            for (int k = 0; k < chunks.length; k++) {
+                int length = (int) Math.min(OffHeapAdjacency.CHUNK_INTS, count - ((long) k << OffHeapAdjacency.CHUNK_SHIFT));
+                chunks[k] = map((long) length * Integer.BYTES).asIntBuffer();
+            }
+            return chunks;
+        }
+
+        byte[] getBytes(int count) throws IOException {
+            byte[] values = new byte[count];
+            int done = 0;
+            while (done < count) {
+                int length = Math.min(count - done, CHUNK_SIZE);
+                map(length).get(values, done, length);
+                done += length;
+            }
+            return values;
+        }
+
+        private ByteBuffer map(long length) throws IOException {
+            if (position + length > channel.size()) {
+                throw new IOException("Snapshot is truncated");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (verify) checksum.update(mapped.duplicate());
+            position += length;
+            return mapped;
+        }
+    }
+}
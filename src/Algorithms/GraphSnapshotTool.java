@@ -0,0 +1,36 @@
+package Algorithms;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Converts text graph files into GraphSnapshot files.
+ * With no arguments every .txt file under ./ipfiles is converted.
+ */
+public class GraphSnapshotTool {
+    public static void main(String[] args) {
+        String[] filePaths = args;
+        if (filePaths.length == 0) {
+            File[] inputs = new File("./ipfiles").listFiles((dir, name) -> name.endsWith(".txt"));
+            if (inputs == null) {
+                System.out.println("No input files found in ./ipfiles");
+                return;
+            }
+            filePaths = new String[inputs.length];
+            for (int i = 0; i < inputs.length; i++) {
+                filePaths[i] = inputs[i].getPath();
+            }
+        }
+
+        for (String filePath : filePaths) {
+            try {
+                long startTime = System.nanoTime();
+                String snapshotPath = GraphSnapshot.convert(filePath);
+                long endTime = System.nanoTime();
+                System.out.println(filePath + " --> " + snapshotPath + " (" + (endTime - startTime) + " nanoseconds)");
+            } catch (IOException e) {
+                System.out.println("Could not convert " + filePath + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package Algorithms;
+
+/**
+ * Adjacency arrays as plain int arrays on the Java heap.
+ */
+final class HeapAdjacency extends AdjacencyStorage {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    HeapAdjacency(int[] offsets, int[] targets, int[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    AdjacencyStorage allocateLike(int[] offsets) {
+        int numArcs = offsets[offsets.length - 1];
+        return new HeapAdjacency(offsets, new int[numArcs], new int[numArcs]);
+    }
+
+    @Override
+    void setArc(int arc, int target, int weight) {
+        targets[arc] = target;
+        weights[arc] = weight;
+    }
+
+    @Override
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int arcCount() {
+        return targets.length;
+    }
+
+    @Override
+    public int firstArc(int vertex) {
+        return offsets[vertex];
+    }
+
+    @Override
+    public int endArc(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    @Override
+    public int target(int arc) {
+        return targets[arc];
+    }
+
+    @Override
+    public int weight(int arc) {
+        return weights[arc];
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return false;
+    }
+
+    @Override
+    public NeighborCursor cursor() {
+        return new Cursor(offsets, targets, weights);
+    }
+
+    /**
+     * Holds the arrays themselves, so that stepping reads them without going through
+     * the storage.
+     */
+    private static final class Cursor implements NeighborCursor {
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] weights;
+        private int arc;
+        private int end;
+
+        Cursor(int[] offsets, int[] targets, int[] weights) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        @Override
+        public void moveTo(int vertex) {
+            arc = offsets[vertex] - 1;
+            end = offsets[vertex + 1];
+        }
+
+        @Override
+        public boolean next() {
+            return ++arc < end;
+        }
+
+        @Override
+        public int target() {
+            return targets[arc];
+        }
+
+        @Override
+        public int weight() {
+            return weights[arc];
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package Algorithms;
+
+/**
+ * Priority queue used by a Dijkstra run.
+ */
+public enum HeapType {
+    BINARY,
+    QUATERNARY,
+    RADIX;
+
+    /**
+     * Creates an empty queue of this type.
+     *
+     * capacity Number of vertex ids the queue must accept.
+     * return The queue.
+     */
+    public IndexedMinQueue create(int capacity) {
+        switch (this) {
+            case BINARY:
+                return new IndexedDaryHeap(capacity, 2);
+            case RADIX:
+                return new RadixHeap(capacity);
+            default:
+                return new IndexedDaryHeap(capacity, 4);
+        }
+    }
+}
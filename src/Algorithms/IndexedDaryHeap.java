@@ -0,0 +1,120 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap over primitive arrays. A wider heap is shallower, so
+ * decrease-key does fewer swaps and sift-down touches fewer cache lines.
+ */
+public class IndexedDaryHeap implements IndexedMinQueue {
+
+    private final int arity;
+    private final int[] heap;      // vertex stored in each heap slot
+    private final int[] heapKeys;  // key of the vertex in each heap slot
+    private final int[] positions; // heap slot of each vertex, -1 when not queued
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * capacity Number of vertex ids the heap must accept.
+     * arity Number of children per node, at least 2.
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.heapKeys = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    @Override
+    public void insert(int vertex, int key) {
+        siftUp(size++, vertex, key);
+    }
+
+    @Override
+    public void decreaseKey(int vertex, int key) {
+        siftUp(positions[vertex], vertex, key);
+    }
+
+    @Override
+    public int pollMin() {
+        int min = heap[0];
+        positions[min] = -1;
+        if (--size > 0) {
+            siftDown(0, heap[size], heapKeys[size]);
+        }
+        return min;
+    }
+
+    @Override
+    public int minKey() {
+        return heapKeys[0];
+    }
+
+    /**
+     * Current key of a queued vertex.
+     */
+    public int key(int vertex) {
+        return heapKeys[positions[vertex]];
+    }
+
+    @Override
+    public boolean contains(int vertex) {
+        return positions[vertex] >= 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot, int vertex, int key) {
+        while (slot > 0) {
+            int parent = (slot - 1) / arity;
+            if (heapKeys[parent] <= key) break;
+            move(heap[parent], heapKeys[parent], slot);
+            slot = parent;
+        }
+        move(vertex, key, slot);
+    }
+
+    private void siftDown(int slot, int vertex, int key) {
+        while (true) {
+            int firstChild = slot * arity + 1;
+            if (firstChild >= size) break;
+            int lastChild = Math.min(firstChild + arity, size);
+            int best = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (heapKeys[child] < heapKeys[best]) best = child;
+            }
+            if (heapKeys[best] >= key) break;
+            move(heap[best], heapKeys[best], slot);
+            slot = best;
+        }
+        move(vertex, key, slot);
+    }
+
+    private void move(int vertex, int key, int slot) {
+        heap[slot] = vertex;
+        heapKeys[slot] = key;
+        positions[vertex] = slot;
+    }
+}
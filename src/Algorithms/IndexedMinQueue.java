@@ -0,0 +1,47 @@
+package Algorithms;
+
+/**
+ * Priority queue of vertex ids keyed by int distances, with in-place decrease-key.
+ * Each vertex is held at most once, so no stale entries ever need to be skipped.
+ */
+public interface IndexedMinQueue {
+
+    /**
+     * Adds a vertex that is not currently queued.
+     *
+     * vertex Vertex id.
+     * key Priority of the vertex.
+     */
+    void insert(int vertex, int key);
+
+    /**
+     * Lowers the key of a queued vertex.
+     *
+     * vertex Vertex id.
+     * key New priority, no larger than the current one.
+     */
+    void decreaseKey(int vertex, int key);
+
+    /**
+     * Removes the vertex with the smallest key.
+     *
+     * return The removed vertex.
+     */
+    int pollMin();
+
+    /**
+     * Key of the vertex pollMin would return; the queue must not be empty.
+     */
+    int minKey();
+
+    boolean contains(int vertex);
+
+    boolean isEmpty();
+
+    int size();
+
+    /**
+     * Empties the queue so it can be reused for another run.
+     */
+    void clear();
+}
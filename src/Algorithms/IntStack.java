@@ -0,0 +1,78 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Growable stack of primitive ints, used in place of boxed lists on hot paths.
+ */
+public class IntStack {
+
+    private int[] elements;
+    private int size;
+
+    public IntStack() {
+        this(16);
+    }
+
+    public IntStack(int initialCapacity) {
+        elements = new int[Math.max(initialCapacity, 4)];
+    }
+
+    public void push(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = value;
+    }
+
+    public int pop() {
+        return elements[--size];
+    }
+
+    public int peek() {
+        return elements[size - 1];
+    }
+
+    public int get(int index) {
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Finds the first position holding the value.
+     *
+     * value Value to look for.
+     * return Index of the value, or -1 if it is not on the stack.
+     */
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the elements from the given index up to the top of the stack.
+     *
+     * fromIndex First index to copy.
+     * return The copied elements, bottom first.
+     */
+    public int[] copyFrom(int fromIndex) {
+        return Arrays.copyOfRange(elements, fromIndex, size);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
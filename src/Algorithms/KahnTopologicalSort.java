@@ -0,0 +1,186 @@
+package Algorithms;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+/**
+ * Iterative topological sort by Kahn's algorithm over int vertex ids. Vertices with
+ * no remaining incoming arcs form the frontier; removing the whole frontier at once
+ * yields the next one, so the order comes out grouped into levels. Nothing recurses,
+ * so chains of any depth are fine.
+ *
+ * The parallel mode processes every frontier as fork-join tasks over chunks, counting
+ * in-degrees down with atomic decrements. Levels are sorted by id in both modes, so
+ * both return exactly the same result.
+ */
+public class KahnTopologicalSort {
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int MIN_GRAIN = 1024;
+
+    private final CsrGraph graph;
+    private final ForkJoinPool pool;
+
+    public KahnTopologicalSort(CsrGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a sorter for one graph.
+     *
+     * graph Graph to sort; arcs are taken as directed whatever the graph says.
+     * pool Pool the parallel mode runs in.
+     */
+    public KahnTopologicalSort(CsrGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Sorts on the calling thread.
+     *
+     * return The sorted vertices by level.
+     */
+    public TopologicalLevels sort() {
+        // One pass over the arc array, far quicker than list by list
+        int[] inDegrees = new int[graph.vertexCount()];
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            inDegrees[graph.target(arc)]++;
+        }
+        return sort(graph, inDegrees, graph.cursor());
+    }
+
+    /**
+     * Sorts a compressed graph on the calling thread, decoding each neighbor list once
+     * to count in-degrees and once when its vertex leaves the frontier. Levels are
+     * sorted by id, so the result matches sort() on the uncompressed graph.
+     *
+     * graph Graph to sort; arcs are taken as directed whatever the graph says.
+     * return The sorted vertices by level; getGraph() of the result is null.
+     */
+    public static TopologicalLevels sort(CompressedGraph graph) {
+        NeighborCursor neighbors = graph.cursor();
+        int[] inDegrees = new int[graph.vertexCount()];
+        for (int vertex = 0; vertex < inDegrees.length; vertex++) {
+            neighbors.moveTo(vertex);
+            while (neighbors.next()) {
+                inDegrees[neighbors.target()]++;
+            }
+        }
+        return sort(null, inDegrees, neighbors);
+    }
+
+    /**
+     * Removes frontier after frontier, scanning the list of every vertex as it leaves.
+     *
+     * graph Graph the result reports as sorted, or null for a CompressedGraph.
+     * inDegrees Arcs into every vertex; counted down to zero.
+     * neighbors Cursor over the graph being sorted.
+     */
+    private static TopologicalLevels sort(CsrGraph graph, int[] inDegrees, NeighborCursor neighbors) {
+        int numVertices = inDegrees.length;
+        // The order doubles as the queue: each level is appended behind the previous one
+        int[] order = new int[numVertices];
+        IntStack levelStarts = new IntStack();
+        int end = 0;
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            if (inDegrees[vertex] == 0) order[end++] = vertex;
+        }
+        int start = 0;
+        while (start < end) {
+            levelStarts.push(start);
+            int levelEnd = end;
+            for (int i = start; i < levelEnd; i++) {
+                neighbors.moveTo(order[i]);
+                while (neighbors.next()) {
+                    int next = neighbors.target();
+                    if (--inDegrees[next] == 0) order[end++] = next;
+                }
+            }
+            Arrays.sort(order, levelEnd, end);
+            start = levelEnd;
+        }
+        int levelCount = levelStarts.size();
+        levelStarts.push(end);
+        return new TopologicalLevels(graph, numVertices, order, levelStarts.toArray(), levelCount);
+    }
+
+    /**
+     * Sorts with every frontier processed in parallel in the pool.
+     *
+     * return The sorted vertices by level, the same as sort() returns.
+     */
+    public TopologicalLevels parallelSort() {
+        int numVertices = graph.vertexCount();
+        int[] inDegrees = new int[numVertices];
+        parallelFor(chunkCount(numVertices), chunk -> {
+            int to = Math.min(numVertices, (chunk + 1) * MIN_GRAIN);
+            for (int vertex = chunk * MIN_GRAIN; vertex < to; vertex++) {
+                for (int arc = graph.firstArc(vertex); arc < graph.endArc(vertex); arc++) {
+                    INTS.getAndAdd(inDegrees, graph.target(arc), 1);
+                }
+            }
+        });
+
+        int[] order = new int[numVertices];
+        IntStack levelStarts = new IntStack();
+        int end = 0;
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            if (inDegrees[vertex] == 0) order[end++] = vertex;
+        }
+        int start = 0;
+        while (start < end) {
+            levelStarts.push(start);
+            int from = start;
+            int levelEnd = end;
+            int chunks = chunkCount(levelEnd - from);
+            IntStack[] ready = new IntStack[chunks];
+            parallelFor(chunks, chunk -> {
+                IntStack found = new IntStack();
+                int to = Math.min(levelEnd, from + (chunk + 1) * MIN_GRAIN);
+                for (int i = from + chunk * MIN_GRAIN; i < to; i++) {
+                    int vertex = order[i];
+                    for (int arc = graph.firstArc(vertex); arc < graph.endArc(vertex); arc++) {
+                        int next = graph.target(arc);
+                        // Exactly one decrement sees the count drop to zero
+                        if ((int) INTS.getAndAdd(inDegrees, next, -1) == 1) found.push(next);
+                    }
+                }
+                ready[chunk] = found;
+            });
+            for (IntStack found : ready) {
+                for (int i = 0; i < found.size(); i++) {
+                    order[end++] = found.get(i);
+                }
+            }
+            if (end - levelEnd > MIN_GRAIN) Arrays.parallelSort(order, levelEnd, end);
+            else Arrays.sort(order, levelEnd, end);
+            start = levelEnd;
+        }
+        return finish(order, levelStarts, end);
+    }
+
+    private TopologicalLevels finish(int[] order, IntStack levelStarts, int end) {
+        int levelCount = levelStarts.size();
+        levelStarts.push(end);
+        return new TopologicalLevels(graph, graph.vertexCount(), order, levelStarts.toArray(), levelCount);
+    }
+
+    private static int chunkCount(int size) {
+        return (size + MIN_GRAIN - 1) / MIN_GRAIN;
+    }
+
+    /**
+     * Runs body(0) .. body(count - 1) in the pool, or inline when there is only one.
+     */
+    private void parallelFor(int count, IntConsumer body) {
+        ForkJoinLoops.parallelFor(pool, count, body);
+    }
+}
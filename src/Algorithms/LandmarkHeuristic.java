@@ -0,0 +1,87 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * ALT lower bounds (A*, landmarks, triangle inequality). Exact distances to and from
+ * a few landmark vertices are precomputed with DijkstraShortestPath, and for any
+ * landmark L the triangle inequality gives
+ * d(v, t) >= d(L, t) - d(L, v) and d(v, t) >= d(v, L) - d(t, L).
+ */
+public class LandmarkHeuristic implements DistanceHeuristic {
+
+    private final int[] landmarks;
+    private final int[][] fromLandmark; // d(L, v)
+    private final int[][] toLandmark;   // d(v, L)
+
+    /**
+     * Picks landmarks by farthest-point selection and precomputes their distances.
+     *
+     * graph Graph the queries will run on; weights must be non-negative.
+     * landmarkCount Number of landmarks to place.
+     */
+    public LandmarkHeuristic(CsrGraph graph, int landmarkCount) {
+        int numVertices = graph.vertexCount();
+        int count = Math.min(landmarkCount, numVertices);
+        CsrGraph reverse = graph.reverse();
+        DijkstraWorkspace workspace = new DijkstraWorkspace(numVertices, HeapType.QUATERNARY);
+
+        int[] chosen = new int[count];
+        int[][] from = new int[count][];
+        int[][] to = new int[count][];
+        // Distance from the nearest landmark chosen so far to each vertex
+        int[] nearest = new int[numVertices];
+        Arrays.fill(nearest, ShortestPathTree.UNREACHABLE);
+
+        int placed = 0;
+        int next = Math.max(graph.sourceVertex(), 0);
+        while (placed < count && next >= 0) {
+            chosen[placed] = next;
+            DijkstraShortestPath.calculateShortestPaths(graph, next, workspace);
+            from[placed] = Arrays.copyOf(workspace.distances, numVertices);
+            DijkstraShortestPath.calculateShortestPaths(reverse, next, workspace);
+            to[placed] = Arrays.copyOf(workspace.distances, numVertices);
+
+            // The next landmark is the reachable vertex farthest from all chosen ones
+            int farthest = -1;
+            for (int v = 0; v < numVertices; v++) {
+                nearest[v] = Math.min(nearest[v], from[placed][v]);
+                if (nearest[v] != ShortestPathTree.UNREACHABLE && nearest[v] > 0
+                        && (farthest < 0 || nearest[v] > nearest[farthest])) {
+                    farthest = v;
+                }
+            }
+            // Once everything reachable is covered, continue in an unexplored part of the graph
+            for (int v = 0; v < numVertices && farthest < 0; v++) {
+                if (nearest[v] == ShortestPathTree.UNREACHABLE) farthest = v;
+            }
+            placed++;
+            next = farthest;
+        }
+        landmarks = Arrays.copyOf(chosen, placed);
+        fromLandmark = Arrays.copyOf(from, placed);
+        toLandmark = Arrays.copyOf(to, placed);
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    @Override
+    public int estimate(int vertex, int target) {
+        int best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            int[] from = fromLandmark[i];
+            int[] to = toLandmark[i];
+            if (from[vertex] != ShortestPathTree.UNREACHABLE && from[target] != ShortestPathTree.UNREACHABLE) {
+                best = Math.max(best, from[target] - from[vertex]);
+            }
+            if (to[target] != ShortestPathTree.UNREACHABLE) {
+                // If the target reaches L but the vertex does not, the vertex cannot reach the target
+                if (to[vertex] == ShortestPathTree.UNREACHABLE) return ShortestPathTree.UNREACHABLE;
+                best = Math.max(best, to[vertex] - to[target]);
+            }
+        }
+        return best;
+    }
+}
@@ -4,9 +4,23 @@ import java.util.*;
 
 public class Main {
     public static void main(String[] args) {
+        // Exports counters over JMX when run with -Dalgorithms.metrics=true, in every mode
+        Metrics.start();
+        // "serve [--port N] [name=path ...]" keeps graphs loaded and answers requests instead
+        if (args.length > 0 && args[0].equals("serve")) {
+            GraphQueryServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "apsp graphFile [matrixFile [mode]]" computes the distance matrix and writes it
+        if (args.length > 1 && args[0].equals("apsp")) {
+            ApspMode mode = args.length > 3 ? ApspMode.valueOf(args[3].toUpperCase()) : ApspMode.AUTO;
+            new AllPairsShortestPaths().executeAllPairs(args[1], mode, args.length > 2 ? args[2] : null);
+            return;
+        }
     	DijkstraShortestPath algorithm = new DijkstraShortestPath();
         MinimumSpanningTree algorithms = new MinimumSpanningTree();
         TopologicalSort topologicalSort = new TopologicalSort();
+        AllPairsShortestPaths allPairs = new AllPairsShortestPaths();
 
         Scanner sc = new Scanner(System.in);
         int ipFile;
@@ -14,7 +28,8 @@ public class Main {
         System.out.println("Select an Algorithm:\n" +
                 "1. Dijkstra's Algorithm (Calculates Shortest Path)\n" +
                 "2. Kruskal's Algorithm (Minimum Spanning Tree)\n" +
-                "3. Topological Sorting (if cyclic, print cycles; if not, print topological order)");
+                "3. Topological Sorting (if cyclic, print cycles; if not, print topological order)\n" +
+                "4. All-Pairs Shortest Paths (Distance Matrix)");
 
         int ch = Integer.parseInt(sc.nextLine());
         switch (ch) {
@@ -58,6 +73,22 @@ public class Main {
                 System.out.println("========== Topological Sorting ==========");
                 topologicalSort.executeTopologicalSorting(filePathTopo);
                 break;
+            case 4:
+                // All-Pairs Shortest Paths
+                System.out.println("Select an Input File\n" +
+                        "1. Undirected Graph-1\n" +
+                        "2. Undirected Graph-2\n" +
+                        "3. Undirected Graph-3.\n" +
+                        "4. Undirected Graph-4.\n"+
+                        "5. Directed Graph-1\n" +
+                        "6. Directed Graph-2\n" +
+                        "7. Directed Graph-3.\n" +
+                        "8. Directed Graph-4.");
+                ipFile = Integer.parseInt(sc.nextLine());
+                String filePathMatrix = getFilePath(ipFile);
+                System.out.println("========== All-Pairs Shortest Paths ==========");
+                allPairs.executeAllPairs(filePathMatrix);
+                break;
             default:
                 System.out.println("Invalid Input!");
                 break;
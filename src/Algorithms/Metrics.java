@@ -0,0 +1,278 @@
+package Algorithms;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Run counters of the graph algorithms, per run and summed over all runs, exported
+ * through JMX and as plain text.
+ *
+ * Collection is off unless the JVM runs with -Dalgorithms.metrics=true. ENABLED is a
+ * static final constant, so the JIT drops every "if (Metrics.ENABLED)" block and its
+ * counting when collection is off. With -Dalgorithms.metrics.port=N, start() also
+ * serves the text on http://localhost:N/metrics.
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("algorithms.metrics");
+
+    /**
+     * Algorithms that report, with the counters each one fills.
+     */
+    public enum Algorithm {
+        DIJKSTRA(RunMetrics.Counter.PARSE_NANOS, RunMetrics.Counter.COMPUTE_NANOS,
+                RunMetrics.Counter.VERTICES_SETTLED, RunMetrics.Counter.EDGE_RELAXATIONS,
+                RunMetrics.Counter.HEAP_PUSHES, RunMetrics.Counter.HEAP_POPS, RunMetrics.Counter.DECREASE_KEYS),
+        MINIMUM_SPANNING_TREE(RunMetrics.Counter.PARSE_NANOS, RunMetrics.Counter.COMPUTE_NANOS,
+                RunMetrics.Counter.EDGES_EXAMINED, RunMetrics.Counter.FIND_CALLS,
+                RunMetrics.Counter.FIND_PATH_LENGTH, RunMetrics.Counter.UNIONS),
+        TOPOLOGICAL_SORT(RunMetrics.Counter.PARSE_NANOS, RunMetrics.Counter.COMPUTE_NANOS,
+                RunMetrics.Counter.LEVELS, RunMetrics.Counter.MAX_LEVEL_WIDTH, RunMetrics.Counter.MAX_SEARCH_DEPTH);
+
+        private final RunMetrics.Counter[] counters;
+
+        Algorithm(RunMetrics.Counter... counters) {
+            this.counters = counters;
+        }
+
+        public RunMetrics.Counter[] counters() {
+            return counters.clone();
+        }
+
+        String metricName() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Totals of one algorithm; sums in adders, maxima in accumulators.
+     */
+    private static final class Totals {
+        final LongAdder runs = new LongAdder();
+        final LongAdder[] sums = new LongAdder[RunMetrics.Counter.values().length];
+        final LongAccumulator[] maxima = new LongAccumulator[sums.length];
+        volatile RunMetrics lastRun;
+
+        Totals() {
+            for (RunMetrics.Counter counter : RunMetrics.Counter.values()) {
+                if (counter.isMaximum()) maxima[counter.ordinal()] = new LongAccumulator(Math::max, 0);
+                else sums[counter.ordinal()] = new LongAdder();
+            }
+        }
+
+        long get(RunMetrics.Counter counter) {
+            int index = counter.ordinal();
+            return counter.isMaximum() ? maxima[index].get() : sums[index].sum();
+        }
+    }
+
+    private static final Map<Algorithm, Totals> TOTALS = new EnumMap<>(Algorithm.class);
+
+    static {
+        for (Algorithm algorithm : Algorithm.values()) {
+            TOTALS.put(algorithm, new Totals());
+        }
+    }
+
+    private static boolean started;
+
+    private Metrics() {
+    }
+
+    /**
+     * Adds a finished run to the totals of its algorithm.
+     *
+     * run Counters of the run.
+     */
+    public static void record(RunMetrics run) {
+        Totals totals = TOTALS.get(run.getAlgorithm());
+        totals.runs.increment();
+        for (RunMetrics.Counter counter : run.getAlgorithm().counters) {
+            long value = run.get(counter);
+            if (counter.isMaximum()) totals.maxima[counter.ordinal()].accumulate(value);
+            else totals.sums[counter.ordinal()].add(value);
+        }
+        totals.lastRun = run;
+    }
+
+    /**
+     * Adds to one total without counting a run, for work done outside the recorded
+     * run such as parsing the input.
+     */
+    public static void add(Algorithm algorithm, RunMetrics.Counter counter, long value) {
+        Totals totals = TOTALS.get(algorithm);
+        if (counter.isMaximum()) totals.maxima[counter.ordinal()].accumulate(value);
+        else totals.sums[counter.ordinal()].add(value);
+    }
+
+    public static long runs(Algorithm algorithm) {
+        return TOTALS.get(algorithm).runs.sum();
+    }
+
+    /**
+     * Sum, or maximum, of a counter over all recorded runs of an algorithm.
+     */
+    public static long total(Algorithm algorithm, RunMetrics.Counter counter) {
+        return TOTALS.get(algorithm).get(counter);
+    }
+
+    /**
+     * Counters of the most recent run of an algorithm, or null if none was recorded.
+     */
+    public static RunMetrics lastRun(Algorithm algorithm) {
+        return TOTALS.get(algorithm).lastRun;
+    }
+
+    /**
+     * All totals in the Prometheus text format, one line per counter, like
+     * "algorithms_dijkstra_edge_relaxations_total 1234".
+     */
+    public static String toText() {
+        StringBuilder text = new StringBuilder();
+        for (Algorithm algorithm : Algorithm.values()) {
+            String prefix = "algorithms_" + algorithm.metricName() + "_";
+            text.append(prefix).append("runs_total ").append(runs(algorithm)).append('\n');
+            for (RunMetrics.Counter counter : algorithm.counters) {
+                text.append(prefix).append(counter.metricName()).append(counter.isMaximum() ? "_max " : "_total ")
+                        .append(total(algorithm, counter)).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Starts exporting if collection is enabled: registers one MBean per algorithm as
+     * Algorithms:type=Metrics,algorithm=name and, when a port is configured, starts
+     * the text endpoint. Calling it again does nothing.
+     */
+    public static synchronized void start() {
+        if (!ENABLED || started) return;
+        started = true;
+        try {
+            registerMBeans(ManagementFactory.getPlatformMBeanServer());
+            Integer port = Integer.getInteger("algorithms.metrics.port");
+            if (port != null) startTextEndpoint(port);
+        } catch (JMException | IOException e) {
+            System.out.println("Could not export metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the metrics MBeans.
+     *
+     * server Server to register with.
+     * throws JMException if a name is taken.
+     */
+    public static void registerMBeans(MBeanServer server) throws JMException {
+        for (Algorithm algorithm : Algorithm.values()) {
+            server.registerMBean(new AlgorithmMBean(algorithm),
+                    new ObjectName("Algorithms:type=Metrics,algorithm=" + algorithm.metricName()));
+        }
+    }
+
+    /**
+     * Serves toText() on /metrics from daemon threads, so the endpoint never keeps the
+     * JVM alive. Like GraphQueryServer it only listens on the loopback address, so the
+     * counters are not exposed to the network.
+     *
+     * port Port to listen on, 0 for any free one.
+     * return The running server, to read its address or stop it.
+     * throws IOException if the port cannot be bound.
+     */
+    public static HttpServer startTextEndpoint(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = toText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // Virtual threads are always daemon threads
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        // The dispatcher thread takes its daemon status from the thread that starts it
+        Thread starter = Thread.ofPlatform().daemon().name("metrics-endpoint-start").start(server::start);
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return server;
+    }
+
+    /**
+     * Read-only MBean whose attributes are the totals of one algorithm.
+     */
+    private static final class AlgorithmMBean implements DynamicMBean {
+        private final Algorithm algorithm;
+
+        AlgorithmMBean(Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            if (name.equals("runs")) return runs(algorithm);
+            for (RunMetrics.Counter counter : algorithm.counters) {
+                if (counter.metricName().equals(name)) return total(algorithm, counter);
+            }
+            throw new IllegalArgumentException("No metric " + name);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] names) {
+            AttributeList list = new AttributeList();
+            for (String name : names) {
+                list.add(new Attribute(name, getAttribute(name)));
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) {
+            throw new UnsupportedOperationException("Metrics are read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String action, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException("No operation " + action);
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[algorithm.counters.length + 1];
+            attributes[0] = new MBeanAttributeInfo("runs", "long", "Recorded runs", true, false, false);
+            for (int i = 0; i < algorithm.counters.length; i++) {
+                RunMetrics.Counter counter = algorithm.counters[i];
+                attributes[i + 1] = new MBeanAttributeInfo(counter.metricName(), "long",
+                        counter.isMaximum() ? "Largest value of a run" : "Sum over all runs", true, false, false);
+            }
+            return new MBeanInfo(AlgorithmMBean.class.getName(), "Totals of " + algorithm.metricName(),
+                    attributes, null, null, null);
+        }
+    }
+}
@@ -1,26 +1,24 @@
 package Algorithms;
 
-import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.Scanner;
 
 /**
  * This class implements Kruskal's algorithm to find the Minimum Spanning Tree (MST) of a graph.
+ * A disconnected graph gets a minimum spanning forest, one tree per component.
+ * Dense graphs are handed to Prim instead, unless a mode is forced.
  */
 public class MinimumSpanningTree {
-    private Scanner fileScanner;
+    private CsrGraph graph;
+    private GraphFileReader graphReader = new GraphFileReader();
     private int numVertices, numEdges;
     private int edgeCount;
     private Edge[] edgeList, mstEdges;
-    private String vertexLabels = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-
-    /**
-     * Represents a link between two vertices.
-     */
-    class Link {
-        int vertexA, vertexB;
-    }
+    private MstMode requestedMode = MstMode.AUTO;
+    private MstMode mode;
+    private EdgeArrays packedEdges;
+    private RunMetrics metrics;
 
     /**
      * Represents a weighted edge between two vertices.
@@ -30,10 +28,21 @@ public class MinimumSpanningTree {
 
         @Override
         public int compareTo(Edge otherEdge) {
-            return this.weight - otherEdge.weight;
+            return Integer.compare(this.weight, otherEdge.weight);
         }
     }
 
+    /**
+     * Executes the given spanning tree algorithm.
+     * 
+     * filePath Path to the file containing the graph data.
+     * mode Kruskal variant, Boruvka, Prim variant, or AUTO to choose by density.
+     */
+    public void executeAlgorithm(String filePath, MstMode mode) {
+        this.requestedMode = mode;
+        executeAlgorithm(filePath);
+    }
+
     /**
      * Executes Kruskal's algorithm on the graph loaded from the specified file.
      * 
@@ -46,9 +55,17 @@ public class MinimumSpanningTree {
             runKruskalAlgorithm();
             long endTime = System.nanoTime();
             displayResults(startTime, endTime);
+            if (Metrics.ENABLED) {
+                metrics.add(RunMetrics.Counter.PARSE_NANOS, graphReader.parseNanos())
+                        .add(RunMetrics.Counter.COMPUTE_NANOS, endTime - startTime);
+                Metrics.record(metrics);
+                System.out.println("Metrics: " + metrics);
+            }
         } catch (FileNotFoundException e) {
             System.out.println("File not found.");
             e.printStackTrace();
+        } catch (IOException e) {
+            System.out.println("Could not read graph file: " + e.getMessage());
         }
     }
 
@@ -56,93 +73,119 @@ public class MinimumSpanningTree {
      * Reads the graph data from the specified file.
      * 
      * filePath Path to the file containing the graph data.
-     * throws FileNotFoundException
+     * throws IOException
      */
-    private void readGraphFromFile(String filePath) throws FileNotFoundException {
-        File file = new File(filePath);
-        fileScanner = new Scanner(file);
-        numVertices = fileScanner.nextInt();
-        numEdges = fileScanner.nextInt();
+    private void readGraphFromFile(String filePath) throws IOException {
+        graph = graphReader.load(filePath, false);
+        numVertices = graph.vertexCount();
+        numEdges = graph.edgeCount();
         System.out.println("Number of Vertices: " + numVertices);
         System.out.println("Number of Edges: " + numEdges);
-        fileScanner.next().charAt(0); // Consume newline character
-        edgeList = new Edge[numEdges];
-        for (int i = 0; i < numEdges; ++i) {
-            edgeList[i] = new Edge();
+        System.out.println(graphReader.describeLoad());
+        mode = requestedMode.select(numVertices, numEdges, graph.isDirected());
+
+        edgeList = null;
+        packedEdges = null;
+        if (mode != MstMode.OBJECT_SORT) {
+            packedEdges = EdgeArrays.of(graph);
+            return;
         }
-        for (int i = 0; i < numEdges; i++) {
-            int sourceVertex = vertexLabels.indexOf(fileScanner.next().charAt(0));
-            int destinationVertex = vertexLabels.indexOf(fileScanner.next().charAt(0));
-            int weight = fileScanner.nextInt();
-            edgeList[i].startVertex = sourceVertex;
-            edgeList[i].endVertex = destinationVertex;
-            edgeList[i].weight = weight;
+
+        // Each undirected edge is stored as two arcs; keep the one leaving the lower id
+        edgeList = new Edge[numEdges];
+        int index = 0;
+        for (int u = 0; u < numVertices; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int v = graph.target(arc);
+                if (graph.isDirected() || u < v) {
+                    Edge edge = new Edge();
+                    edge.startVertex = u;
+                    edge.endVertex = v;
+                    edge.weight = graph.weight(arc);
+                    edgeList[index++] = edge;
+                }
+            }
         }
-        fileScanner.close();
+        edgeList = Arrays.copyOf(edgeList, index);
     }
 
     /**
      * Runs Kruskal's algorithm to find the Minimum Spanning Tree.
      */
     void runKruskalAlgorithm() {
+        if (packedEdges != null) {
+            runPackedKruskal();
+            return;
+        }
         mstEdges = new Edge[numVertices];
         edgeCount = 0;
-        int index;
-        for (index = 0; index < numVertices; ++index) {
-            mstEdges[index] = new Edge();
-        }
         Arrays.sort(edgeList);
-        Link[] vertexLinks = new Link[numVertices];
-        for (index = 0; index < numVertices; ++index) {
-            vertexLinks[index] = new Link();
-        }
-        for (int i = 0; i < numVertices; ++i) {
-            vertexLinks[i].vertexA = i;
-            vertexLinks[i].vertexB = 0;
-        }
-        index = 0;
-        while (edgeCount < numVertices - 1) {
+        DisjointSet components = new DisjointSet(numVertices);
+        int index = 0;
+        while (edgeCount < numVertices - 1 && index < edgeList.length) {
             Edge nextEdge = edgeList[index++];
-            int vertexX = find(vertexLinks, nextEdge.startVertex);
-            int vertexY = find(vertexLinks, nextEdge.endVertex);
-            if (vertexX != vertexY) {
+            if (components.union(nextEdge.startVertex, nextEdge.endVertex)) {
                 mstEdges[edgeCount++] = nextEdge;
-                union(vertexLinks, vertexX, vertexY);
             }
         }
+        if (Metrics.ENABLED) {
+            metrics = new RunMetrics(Metrics.Algorithm.MINIMUM_SPANNING_TREE)
+                    .add(RunMetrics.Counter.EDGES_EXAMINED, index)
+                    .add(RunMetrics.Counter.FIND_CALLS, components.getFindCount())
+                    .add(RunMetrics.Counter.FIND_PATH_LENGTH, components.getFindPathLength())
+                    .add(RunMetrics.Counter.UNIONS, components.getUnionCount());
+        }
     }
 
     /**
-     * Unites two vertices in the disjoint set.
-     * 
-     * vertexLinks Array of vertex links.
-     * vertexX     First vertex.
-     * vertexY     Second vertex.
+     * Runs the packed edge Kruskal, Boruvka or Prim and keeps only the chosen edges as Edge objects.
      */
-    void union(Link[] vertexLinks, int vertexX, int vertexY) {
-        int value1 = find(vertexLinks, vertexX);
-        int value2 = find(vertexLinks, vertexY);
-        if (vertexLinks[value1].vertexB > vertexLinks[value2].vertexB)
-            vertexLinks[value2].vertexA = value1;
-        else if (vertexLinks[value1].vertexB < vertexLinks[value2].vertexB)
-            vertexLinks[value1].vertexA = value2;
-        else {
-            vertexLinks[value2].vertexA = value1;
-            vertexLinks[value1].vertexB++;
+    private void runPackedKruskal() {
+        int[] chosen;
+        metrics = null;
+        if (mode == MstMode.DENSE_PRIM) {
+            chosen = new PrimMinimumSpanningTree(graph).densePrim();
+        } else if (mode == MstMode.HEAP_PRIM) {
+            chosen = new PrimMinimumSpanningTree(graph).heapPrim();
+        } else if (mode == MstMode.BORUVKA) {
+            chosen = new ParallelBoruvka(packedEdges).minimumSpanningForest();
+        } else if (mode == MstMode.FILTER_KRUSKAL) {
+            PackedKruskal kruskal = new PackedKruskal(packedEdges);
+            chosen = kruskal.filterKruskal();
+            metrics = kruskal.getMetrics();
+        } else {
+            PackedKruskal kruskal = new PackedKruskal(packedEdges);
+            chosen = kruskal.radixKruskal();
+            metrics = kruskal.getMetrics();
+        }
+        if (Metrics.ENABLED && metrics == null) {
+            // Boruvka and Prim do not use union-find; only their times are reported
+            metrics = new RunMetrics(Metrics.Algorithm.MINIMUM_SPANNING_TREE);
+        }
+        mstEdges = new Edge[chosen.length];
+        edgeCount = chosen.length;
+        for (int i = 0; i < chosen.length; i++) {
+            Edge edge = new Edge();
+            edge.startVertex = packedEdges.source(chosen[i]);
+            edge.endVertex = packedEdges.target(chosen[i]);
+            edge.weight = packedEdges.weight(chosen[i]);
+            mstEdges[i] = edge;
         }
     }
 
     /**
-     * Finds the representative vertex of a set.
+     * Hands the tree computed by the last run over to a dynamic forest that later
+     * edge insertions and weight decreases update without rereading the graph.
      * 
-     * vertexLinks Array of vertex links.
-     * vertex Vertex to find.
-     * return Representative vertex.
+     * return The dynamic forest, or null if no graph has been processed yet.
      */
-    int find(Link[] vertexLinks, int vertex) {
-        if (vertexLinks[vertex].vertexA != vertex)
-            vertexLinks[vertex].vertexA = find(vertexLinks, vertexLinks[vertex].vertexA);
-        return vertexLinks[vertex].vertexA;
+    public DynamicMinimumSpanningTree toDynamicTree() {
+        if (mstEdges == null) return null;
+        DynamicMinimumSpanningTree forest = new DynamicMinimumSpanningTree(numVertices);
+        for (int i = 0; i < edgeCount; i++) {
+            forest.insertEdge(mstEdges[i].startVertex, mstEdges[i].endVertex, mstEdges[i].weight);
+        }
+        return forest;
     }
 
     /**
@@ -152,12 +195,17 @@ public class MinimumSpanningTree {
      * endTime   End time of algorithm execution.
      */
     public void displayResults(long startTime, long endTime) {
-        System.out.println("Execution Time: " + (endTime - startTime) + " nanoseconds");
-        int totalCost = 0;
-        System.out.println("\nMinimum Spanning Tree: \n");
+        System.out.println("Execution Time: " + (endTime - startTime) + " nanoseconds (" + mode
+                + (requestedMode == MstMode.AUTO ? ", auto" : "") + ")");
+        long totalCost = 0;
+        if (edgeCount < numVertices - 1) {
+            System.out.println("\nMinimum Spanning Forest (" + (numVertices - edgeCount) + " trees): \n");
+        } else {
+            System.out.println("\nMinimum Spanning Tree: \n");
+        }
         for (int i = 0; i < edgeCount; ++i) {
-            System.out.println(vertexLabels.charAt(mstEdges[i].startVertex) + " --> " +
-                    vertexLabels.charAt(mstEdges[i].endVertex) + " Cost: " + mstEdges[i].weight);
+            System.out.println(graph.label(mstEdges[i].startVertex) + " --> " +
+                    graph.label(mstEdges[i].endVertex) + " Cost: " + mstEdges[i].weight);
             totalCost += mstEdges[i].weight;
         }
         System.out.println("\nTotal Cost of MST: " + totalCost);
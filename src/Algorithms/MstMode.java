@@ -0,0 +1,46 @@
+package Algorithms;
+
+/**
+ * Algorithm MinimumSpanningTree runs: Kruskal with one of three ways of sorting the
+ * edges, parallel Boruvka, or one of two Prims. All of them order edges by weight and
+ * then input order, and so choose the same tree. AUTO picks by the graph's density.
+ */
+public enum MstMode {
+    // Edge objects sorted with Arrays.sort
+    OBJECT_SORT,
+    // Edges packed into longs and sorted with a parallel radix sort
+    PACKED_RADIX,
+    // Packed edges, partitioned by weight, dropping edges inside a component before sorting them
+    FILTER_KRUSKAL,
+    // Cheapest outgoing edge of every component in parallel, contracting each round
+    BORUVKA,
+    // Prim with a flat array of connection costs scanned for the minimum, O(V^2)
+    DENSE_PRIM,
+    // Prim with the frontier in an indexed heap
+    HEAP_PRIM,
+    // One of the above, chosen from the vertex and edge counts
+    AUTO;
+
+    // Fraction of all possible edges from which the O(V^2) scan beats any heap or sort
+    static final double DENSE_PRIM_DENSITY = 0.25;
+    // Average degree from which heap Prim beats sorting every edge
+    static final int HEAP_PRIM_DEGREE = 32;
+
+    /**
+     * Resolves AUTO for a graph of the given size; other modes are returned unchanged.
+     * Prim needs an undirected graph, so directed graphs always get Kruskal.
+     *
+     * numVertices Number of vertices.
+     * numEdges    Number of edges.
+     * directed    Whether the edges are directed.
+     * return The mode to run.
+     */
+    public MstMode select(int numVertices, int numEdges, boolean directed) {
+        if (this != AUTO) return this;
+        if (directed || numVertices < 2) return PACKED_RADIX;
+        double possibleEdges = (double) numVertices * (numVertices - 1) / 2;
+        if (numEdges >= DENSE_PRIM_DENSITY * possibleEdges) return DENSE_PRIM;
+        if (2.0 * numEdges / numVertices >= HEAP_PRIM_DEGREE) return HEAP_PRIM;
+        return PACKED_RADIX;
+    }
+}
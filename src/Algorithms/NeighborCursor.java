@@ -0,0 +1,30 @@
+package Algorithms;
+
+/**
+ * Walks the out-neighbors of one vertex at a time, allocating nothing:
+ *
+ *   cursor.moveTo(vertex);
+ *   while (cursor.next()) { use cursor.target() and cursor.weight() }
+ *
+ * CsrGraph.cursor() and CompressedGraph.cursor() both hand one out, so an algorithm
+ * that only needs to scan neighbor lists is written once for either form. Cursors are
+ * not thread-safe; give each thread its own.
+ */
+public interface NeighborCursor {
+
+    /**
+     * Starts on the neighbors of a vertex.
+     */
+    void moveTo(int vertex);
+
+    /**
+     * Steps to the next neighbor.
+     *
+     * return false if the list is exhausted.
+     */
+    boolean next();
+
+    int target();
+
+    int weight();
+}
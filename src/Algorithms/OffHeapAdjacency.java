@@ -0,0 +1,177 @@
+package Algorithms;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Adjacency arrays outside the Java heap, in direct buffers or in buffers mapped from a
+ * GraphSnapshot file. A buffer is indexed by int bytes, so every array is split into
+ * chunks of 2^28 ints (1 GB); arc i lives at index i & (2^28 - 1) of chunk i >>> 28.
+ *
+ * Mapped storage is paged in and out by the operating system, so graphs larger than
+ * memory work, at the cost of disk reads for pages not in the cache. Direct storage
+ * counts against -XX:MaxDirectMemorySize, which defaults to the maximum heap size, so
+ * it frees the heap but must still fit in memory. Either is released when the graph is
+ * garbage collected.
+ *
+ * Neither kind is filled from a heap copy of the graph: GraphFileReader parses a text
+ * file in two passes and writes the arcs straight into direct buffers, and
+ * GraphSnapshot.convert writes them straight into the mapped sections of the new
+ * snapshot. Only the labels and the offsets of the vertices pass through the heap.
+ */
+public final class OffHeapAdjacency extends AdjacencyStorage {
+
+    static final int CHUNK_SHIFT = 28;
+    static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_INTS - 1;
+
+    private final IntBuffer[] offsets;
+    private final IntBuffer[] targets;
+    private final IntBuffer[] weights;
+    private final int vertexCount;
+    private final int arcCount;
+    private final boolean mapped;
+
+    /**
+     * Wraps chunked buffers; chunk k holds ints k * 2^28 onwards.
+     *
+     * offsets Chunks of the vertexCount + 1 offsets.
+     * targets Chunks of the arcCount targets.
+     * weights Chunks of the arcCount weights.
+     * mapped Whether the buffers are mapped from a file.
+     */
+    OffHeapAdjacency(IntBuffer[] offsets, IntBuffer[] targets, IntBuffer[] weights,
+                     int vertexCount, int arcCount, boolean mapped) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.vertexCount = vertexCount;
+        this.arcCount = arcCount;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Copies any storage into direct buffers.
+     *
+     * storage Storage to copy.
+     * return The off-heap copy.
+     */
+    public static OffHeapAdjacency copyOf(AdjacencyStorage storage) {
+        int numVertices = storage.vertexCount();
+        int numArcs = storage.arcCount();
+        IntBuffer[] offsets = allocateInts((long) numVertices + 1);
+        for (int v = 0; v <= numVertices; v++) {
+            put(offsets, v, v == numVertices ? numArcs : storage.firstArc(v));
+        }
+        OffHeapAdjacency copy = new OffHeapAdjacency(offsets, allocateInts(numArcs), allocateInts(numArcs),
+                numVertices, numArcs, false);
+        for (int arc = 0; arc < numArcs; arc++) {
+            copy.setArc(arc, storage.target(arc), storage.weight(arc));
+        }
+        return copy;
+    }
+
+    /**
+     * Allocates direct storage for the given offsets; the arcs are filled in with setArc.
+     *
+     * offsets Start of each vertex's arcs, with the arc count last.
+     * return The empty storage.
+     */
+    static OffHeapAdjacency allocate(int[] offsets) {
+        int numArcs = offsets[offsets.length - 1];
+        return withOffsets(offsets, allocateInts(offsets.length), allocateInts(numArcs), allocateInts(numArcs), false);
+    }
+
+    /**
+     * Wraps chunked buffers for the given offsets, copying the offsets into the first.
+     *
+     * offsets Start of each vertex's arcs, with the arc count last.
+     * offsetChunks Chunks to copy the offsets into.
+     * targets Chunks for the arc targets.
+     * weights Chunks for the arc weights.
+     * mapped Whether the buffers are mapped from a file.
+     * return The storage, its arcs to be filled in with setArc.
+     */
+    static OffHeapAdjacency withOffsets(int[] offsets, IntBuffer[] offsetChunks, IntBuffer[] targets,
+                                        IntBuffer[] weights, boolean mapped) {
+        for (int v = 0; v < offsets.length; v++) {
+            put(offsetChunks, v, offsets[v]);
+        }
+        return new OffHeapAdjacency(offsetChunks, targets, weights, offsets.length - 1,
+                offsets[offsets.length - 1], mapped);
+    }
+
+    /**
+     * Allocates zeroed direct buffers for count ints, in chunks.
+     */
+    static IntBuffer[] allocateInts(long count) {
+        IntBuffer[] chunks = new IntBuffer[Math.max(1, (int) ((count + CHUNK_INTS - 1) >>> CHUNK_SHIFT))];
+        for (int k = 0; k < chunks.length; k++) {
+            int length = (int) Math.min(CHUNK_INTS, count - ((long) k << CHUNK_SHIFT));
+            chunks[k] = ByteBuffer.allocateDirect(length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return chunks;
+    }
+
+    private static int get(IntBuffer[] chunks, int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    private static void put(IntBuffer[] chunks, int index, int value) {
+        chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, value);
+    }
+
+    @Override
+    AdjacencyStorage allocateLike(int[] offsets) {
+        return allocate(offsets);
+    }
+
+    @Override
+    void setArc(int arc, int target, int weight) {
+        put(targets, arc, target);
+        put(weights, arc, weight);
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int arcCount() {
+        return arcCount;
+    }
+
+    @Override
+    public int firstArc(int vertex) {
+        return get(offsets, vertex);
+    }
+
+    @Override
+    public int endArc(int vertex) {
+        return get(offsets, vertex + 1);
+    }
+
+    @Override
+    public int target(int arc) {
+        return get(targets, arc);
+    }
+
+    @Override
+    public int weight(int arc) {
+        return get(weights, arc);
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return true;
+    }
+
+    /**
+     * Whether the arrays are mapped from a snapshot file rather than allocated.
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+}
@@ -0,0 +1,184 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Kruskal's algorithm over edges held in primitive arrays. Each edge becomes a single
+ * long record with the weight in the upper half and the edge id in the lower half, so
+ * sorting moves 8 bytes per edge and the whole run allocates a handful of arrays
+ * instead of one object per edge.
+ *
+ * Records are sorted stably by weight, in input order within a weight, which makes
+ * both modes pick exactly the edges the object based Kruskal picks.
+ */
+public class PackedKruskal {
+
+    private static final int FILTER_THRESHOLD = 1 << 16;
+    private static final int PIVOT_SAMPLES = 31;
+
+    private final int numVertices;
+    private final int edgeCount;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+
+    private DisjointSet components;
+    private IntStack chosen;
+    private long[] records;
+    private long[] buffer;
+    private long edgesExamined;
+    private RunMetrics metrics;
+
+    public PackedKruskal(CsrGraph graph) {
+        this(EdgeArrays.of(graph));
+    }
+
+    public PackedKruskal(EdgeArrays edges) {
+        numVertices = edges.vertexCount();
+        edgeCount = edges.edgeCount();
+        sources = edges.sources;
+        targets = edges.targets;
+        weights = edges.weights;
+    }
+
+    /**
+     * Radix sorts all edges, then scans them.
+     *
+     * return Ids of the chosen edges in the order they were taken.
+     */
+    public int[] radixKruskal() {
+        start();
+        kruskal(0, edgeCount);
+        return finish();
+    }
+
+    /**
+     * Filter-Kruskal: splits the edges around a sampled pivot weight, solves the light
+     * part first, then drops heavy edges whose ends are already connected before
+     * recursing into what is left. On dense graphs most heavy edges are never sorted.
+     *
+     * return Ids of the chosen edges in the order they were taken.
+     */
+    public int[] filterKruskal() {
+        start();
+        filterKruskal(0, edgeCount);
+        return finish();
+    }
+
+    private void start() {
+        edgesExamined = 0;
+        components = new DisjointSet(numVertices);
+        chosen = new IntStack(Math.max(numVertices - 1, 1));
+        records = new long[edgeCount];
+        buffer = new long[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            records[edge] = ParallelRadixSort.pack(weights[edge], edge);
+        }
+    }
+
+    private int[] finish() {
+        int[] result = chosen.toArray();
+        if (Metrics.ENABLED) {
+            metrics = new RunMetrics(Metrics.Algorithm.MINIMUM_SPANNING_TREE)
+                    .add(RunMetrics.Counter.EDGES_EXAMINED, edgesExamined)
+                    .add(RunMetrics.Counter.FIND_CALLS, components.getFindCount())
+                    .add(RunMetrics.Counter.FIND_PATH_LENGTH, components.getFindPathLength())
+                    .add(RunMetrics.Counter.UNIONS, components.getUnionCount());
+        }
+        components = null;
+        chosen = null;
+        records = null;
+        buffer = null;
+        return result;
+    }
+
+    /**
+     * Counters of the last run, without times.
+     *
+     * return The counters, or null if metrics are disabled.
+     */
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
+
+    private boolean isComplete() {
+        return chosen.size() >= numVertices - 1;
+    }
+
+    private void kruskal(int from, int to) {
+        ParallelRadixSort.sort(records, from, to, buffer);
+        for (int i = from; i < to && !isComplete(); i++) {
+            if (Metrics.ENABLED) edgesExamined++;
+            int edge = ParallelRadixSort.payload(records[i]);
+            if (components.union(sources[edge], targets[edge])) {
+                chosen.push(edge);
+            }
+        }
+    }
+
+    private void filterKruskal(int from, int to) {
+        if (isComplete()) return;
+        if (to - from <= FILTER_THRESHOLD) {
+            kruskal(from, to);
+            return;
+        }
+        long pivot = samplePivot(from, to);
+        int split = partition(from, to, pivot);
+        if (split == to) {
+            // The pivot is the largest weight; split off the records below it instead
+            split = partition(from, to, pivot - 1);
+        }
+        if (split == from) {
+            kruskal(from, to); // all weights are equal
+            return;
+        }
+        filterKruskal(from, split);
+        filterKruskal(split, filter(split, to));
+    }
+
+    /**
+     * Median of evenly spaced sample keys, compared as the unsigned upper record halves.
+     */
+    private long samplePivot(int from, int to) {
+        long[] sample = new long[PIVOT_SAMPLES];
+        long step = (to - from) / PIVOT_SAMPLES;
+        for (int i = 0; i < PIVOT_SAMPLES; i++) {
+            sample[i] = records[(int) (from + i * step)] >>> 32;
+        }
+        Arrays.sort(sample);
+        return sample[PIVOT_SAMPLES / 2];
+    }
+
+    /**
+     * Stable partition: records with key at most the pivot first, in their order,
+     * then the rest, in their order.
+     *
+     * return Index of the first record above the pivot.
+     */
+    private int partition(int from, int to, long pivot) {
+        int low = from;
+        int high = 0;
+        for (int i = from; i < to; i++) {
+            long record = records[i];
+            if (record >>> 32 <= pivot) records[low++] = record;
+            else buffer[high++] = record;
+        }
+        System.arraycopy(buffer, 0, records, low, high);
+        return low;
+    }
+
+    /**
+     * Keeps, in order, only the records joining two different components.
+     *
+     * return End of the kept records.
+     */
+    private int filter(int from, int to) {
+        int kept = from;
+        if (Metrics.ENABLED) edgesExamined += to - from;
+        for (int i = from; i < to; i++) {
+            int edge = ParallelRadixSort.payload(records[i]);
+            if (!components.connected(sources[edge], targets[edge])) records[kept++] = records[i];
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,145 @@
+package Algorithms;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Minimum spanning forest by Boruvka's algorithm, run in parallel on the common
+ * fork-join pool. Every round finds the cheapest edge leaving each component with
+ * atomic minimum updates over all remaining edges, hooks each component onto the
+ * component across that edge, flattens the hooks by pointer jumping and drops the
+ * edges that became internal. Rounds at least halve the number of components.
+ *
+ * Edges are ranked by weight and then id, a strict order that rules out cycles and
+ * makes the forest the same one a stable Kruskal finds. Disconnected input simply
+ * ends with one tree per component.
+ */
+public class ParallelBoruvka {
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int numVertices;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+    private int roundCount;
+
+    public ParallelBoruvka(CsrGraph graph) {
+        this(EdgeArrays.of(graph));
+    }
+
+    public ParallelBoruvka(EdgeArrays edges) {
+        this.numVertices = edges.vertexCount();
+        this.sources = edges.sources;
+        this.targets = edges.targets;
+        this.weights = edges.weights;
+    }
+
+    /**
+     * Number of rounds the last run took.
+     */
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    /**
+     * Computes the minimum spanning forest.
+     *
+     * return Ids of the forest edges, ordered by weight and then id.
+     */
+    public int[] minimumSpanningForest() {
+        int[] component = new int[numVertices];
+        int[] parents = new int[numVertices];
+        long[] cheapest = new long[numVertices];
+        int[] chosenBy = new int[numVertices];
+        Arrays.parallelSetAll(component, v -> v);
+        int[] roots = IntStream.range(0, numVertices).toArray();
+        int[] alive = IntStream.range(0, sources.length).toArray();
+        IntStack forest = new IntStack(Math.max(numVertices - 1, 1));
+        roundCount = 0;
+
+        while (true) {
+            int[] edges = alive;
+            alive = Arrays.stream(edges).parallel()
+                    .filter(e -> component[sources[e]] != component[targets[e]])
+                    .toArray();
+            if (alive.length == 0) break;
+            roundCount++;
+
+            // Cheapest edge leaving every component
+            IntStream.of(roots).parallel().forEach(c -> cheapest[c] = Long.MAX_VALUE);
+            Arrays.stream(alive).parallel().forEach(e -> {
+                long key = rank(e);
+                lower(cheapest, component[sources[e]], key);
+                lower(cheapest, component[targets[e]], key);
+            });
+
+            // Hook every component onto the one across its cheapest edge. Two components
+            // that picked the same edge would hook onto each other; the lower id stays root.
+            IntStream.of(roots).parallel().forEach(c -> {
+                parents[c] = c;
+                chosenBy[c] = -1;
+                if (cheapest[c] == Long.MAX_VALUE) return;
+                int edge = (int) cheapest[c];
+                int other = component[sources[edge]] == c ? component[targets[edge]] : component[sources[edge]];
+                if (cheapest[other] == cheapest[c] && c < other) return;
+                parents[c] = other;
+                chosenBy[c] = edge;
+            });
+            for (int edge : IntStream.of(roots).parallel().map(c -> chosenBy[c]).filter(e -> e >= 0).toArray()) {
+                forest.push(edge);
+            }
+
+            // Pointer jumping until every component points straight at its root
+            int jumps;
+            do {
+                jumps = IntStream.of(roots).parallel().map(c -> jump(parents, c)).sum();
+            } while (jumps > 0);
+            Arrays.parallelSetAll(component, v -> parents[component[v]]);
+            roots = IntStream.of(roots).parallel().filter(c -> parents[c] == c).toArray();
+        }
+        return sortByRank(forest.toArray());
+    }
+
+    /**
+     * Strict edge order: weight in the upper half, id in the lower.
+     */
+    private long rank(int edge) {
+        return ((long) weights[edge] << 32) | edge;
+    }
+
+    private static int jump(int[] parents, int c) {
+        int parent = parents[c];
+        int grandparent = parents[parent];
+        if (parent == grandparent) return 0;
+        parents[c] = grandparent;
+        return 1;
+    }
+
+    private int[] sortByRank(int[] edges) {
+        long[] records = new long[edges.length];
+        Arrays.parallelSort(edges);
+        for (int i = 0; i < edges.length; i++) {
+            records[i] = ParallelRadixSort.pack(weights[edges[i]], edges[i]);
+        }
+        ParallelRadixSort.sort(records, 0, records.length, new long[records.length]);
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = ParallelRadixSort.payload(records[i]);
+        }
+        return edges;
+    }
+
+    /**
+     * Atomically lowers values[index] to value.
+     */
+    private static void lower(long[] values, int index, long value) {
+        long current = (long) LONGS.getVolatile(values, index);
+        while (value < current) {
+            long witness = (long) LONGS.compareAndExchange(values, index, current, value);
+            if (witness == current) return;
+            current = witness;
+        }
+    }
+}
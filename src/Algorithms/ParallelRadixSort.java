@@ -0,0 +1,129 @@
+package Algorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Stable parallel LSD radix sort of packed long records by their upper 32 bits, read
+ * as a signed int. The lower 32 bits are a payload that rides along, typically an
+ * index into parallel arrays, so equal keys keep their input order.
+ *
+ * Each pass sorts by one byte: blocks of the input count their digits in parallel,
+ * a prefix sum over (digit, block) gives every block its own output positions, and
+ * the blocks scatter in parallel. Passes whose byte is the same in every record are
+ * skipped, so small keys such as edge weights below 65536 take two passes.
+ */
+public class ParallelRadixSort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int BUCKETS = 1 << RADIX_BITS;
+    private static final int MIN_BLOCK = 1 << 16;
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+
+    private ParallelRadixSort() {
+    }
+
+    /**
+     * Packs an int key and an int payload into one record.
+     *
+     * key Sort key, compared as a signed int.
+     * payload Value carried along with the key.
+     * return The record.
+     */
+    public static long pack(int key, int payload) {
+        // Flip the sign bit so that signed keys sort as unsigned bytes
+        return ((long) (key ^ Integer.MIN_VALUE) << 32) | (payload & 0xFFFFFFFFL);
+    }
+
+    public static int key(long record) {
+        return (int) (record >>> 32) ^ Integer.MIN_VALUE;
+    }
+
+    public static int payload(long record) {
+        return (int) record;
+    }
+
+    /**
+     * Sorts records[from, to) by key, stably.
+     *
+     * records Records made by pack.
+     * from First index to sort.
+     * to One past the last index to sort.
+     * buffer Scratch array at least as long as records.
+     */
+    public static void sort(long[] records, int from, int to, long[] buffer) {
+        int length = to - from;
+        if (length < 2) return;
+        if (length < INSERTION_SORT_THRESHOLD) {
+            insertionSort(records, from, to);
+            return;
+        }
+        int blockCount = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, length / MIN_BLOCK));
+        int blockSize = (length + blockCount - 1) / blockCount;
+
+        long[] source = records;
+        long[] target = buffer;
+        int[][] counts = new int[blockCount][BUCKETS];
+        for (int shift = 32; shift < 64; shift += RADIX_BITS) {
+            final long[] in = source;
+            final long[] out = target;
+            final int digitShift = shift;
+            IntStream.range(0, blockCount).parallel().forEach(block -> {
+                int[] count = counts[block];
+                Arrays.fill(count, 0);
+                int end = Math.min(to, from + (block + 1) * blockSize);
+                for (int i = from + block * blockSize; i < end; i++) {
+                    count[(int) (in[i] >>> digitShift) & (BUCKETS - 1)]++;
+                }
+            });
+            if (isSingleDigit(counts, length)) continue;
+
+            // Turn the counts into start positions, digit major, then block
+            int position = from;
+            for (int digit = 0; digit < BUCKETS; digit++) {
+                for (int block = 0; block < blockCount; block++) {
+                    int count = counts[block][digit];
+                    counts[block][digit] = position;
+                    position += count;
+                }
+            }
+            IntStream.range(0, blockCount).parallel().forEach(block -> {
+                int[] next = counts[block];
+                int end = Math.min(to, from + (block + 1) * blockSize);
+                for (int i = from + block * blockSize; i < end; i++) {
+                    out[next[(int) (in[i] >>> digitShift) & (BUCKETS - 1)]++] = in[i];
+                }
+            });
+            source = out;
+            target = in;
+        }
+        if (source != records) {
+            System.arraycopy(source, from, records, from, length);
+        }
+    }
+
+    private static boolean isSingleDigit(int[][] counts, int length) {
+        for (int digit = 0; digit < BUCKETS; digit++) {
+            int total = 0;
+            for (int[] count : counts) {
+                total += count[digit];
+            }
+            if (total != 0) return total == length;
+        }
+        return true;
+    }
+
+    private static void insertionSort(long[] records, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long record = records[i];
+            long key = record >>> 32;
+            int j = i - 1;
+            while (j >= from && (records[j] >>> 32) > key) {
+                records[j + 1] = records[j];
+                j--;
+            }
+            records[j + 1] = record;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Distance queries between a single pair of vertices that stop as soon as the answer
+ * is known, instead of building the whole shortest path tree. Offers bidirectional
+ * Dijkstra and goal-directed A* with a pluggable DistanceHeuristic.
+ *
+ * An instance reuses its search state between queries and is not thread-safe; give
+ * each thread its own.
+ */
+public class PointToPointQuery {
+
+    private final CsrGraph graph;
+    private final CsrGraph reverse;
+    private final DijkstraWorkspace forward;
+    private final DijkstraWorkspace backward;
+    private int source = -1;
+    private int target = -1;
+    private int meetingVertex = -1;
+
+    public PointToPointQuery(CsrGraph graph) {
+        this(graph, HeapType.QUATERNARY);
+    }
+
+    /**
+     * Creates a query object for one graph.
+     *
+     * graph Graph to search; weights must be non-negative.
+     * heapType Priority queue used by the searches.
+     */
+    public PointToPointQuery(CsrGraph graph, HeapType heapType) {
+        this(graph, graph.reverse(), heapType);
+    }
+
+    /**
+     * Creates a query object that shares an already built reverse graph, so that many
+     * query objects on one graph do not each copy it.
+     *
+     * graph Graph to search; weights must be non-negative.
+     * reverse graph.reverse().
+     * heapType Priority queue used by the searches.
+     */
+    PointToPointQuery(CsrGraph graph, CsrGraph reverse, HeapType heapType) {
+        this.graph = graph;
+        this.reverse = reverse;
+        this.forward = new DijkstraWorkspace(graph.vertexCount(), heapType);
+        this.backward = new DijkstraWorkspace(graph.vertexCount(), heapType);
+    }
+
+    /**
+     * Bidirectional Dijkstra: searches forward from the source and backward from the
+     * target, always growing the smaller frontier, and stops once the two frontier
+     * minimums together reach the best connection seen.
+     *
+     * source Source vertex.
+     * target Target vertex.
+     * return The distance, or ShortestPathTree.UNREACHABLE.
+     */
+    public int bidirectionalDistance(int source, int target) {
+        start(source, target);
+        backward.reset();
+        backward.source = target;
+        forward.seed(source, 0);
+        backward.seed(target, 0);
+        long best = source == target ? 0 : ShortestPathTree.UNREACHABLE;
+        meetingVertex = source == target ? source : -1;
+
+        while (!forward.queue.isEmpty() && !backward.queue.isEmpty()) {
+            if ((long) forward.queue.minKey() + backward.queue.minKey() >= best) break;
+            boolean forwardStep = forward.queue.size() <= backward.queue.size();
+            DijkstraWorkspace side = forwardStep ? forward : backward;
+            DijkstraWorkspace other = forwardStep ? backward : forward;
+            CsrGraph searchGraph = forwardStep ? graph : reverse;
+
+            int vertex = side.queue.pollMin();
+            int distance = side.distances[vertex];
+            side.settledCount++;
+            for (int arc = searchGraph.firstArc(vertex); arc < searchGraph.endArc(vertex); arc++) {
+                int nextVertex = searchGraph.target(arc);
+                long newDistance = (long) distance + searchGraph.weight(arc);
+                side.relax(vertex, nextVertex, newDistance, newDistance);
+                // A vertex reached from both sides closes a source-target path
+                if (other.distances[nextVertex] != ShortestPathTree.UNREACHABLE
+                        && newDistance + other.distances[nextVertex] < best) {
+                    best = newDistance + other.distances[nextVertex];
+                    meetingVertex = nextVertex;
+                }
+            }
+        }
+        return (int) Math.min(best, ShortestPathTree.UNREACHABLE);
+    }
+
+    /**
+     * A* search, which stops as soon as the target is settled.
+     *
+     * source Source vertex.
+     * target Target vertex.
+     * heuristic Consistent lower bound on the remaining distance.
+     * return The distance, or ShortestPathTree.UNREACHABLE.
+     */
+    public int aStarDistance(int source, int target, DistanceHeuristic heuristic) {
+        start(source, target);
+        int sourceEstimate = heuristic.estimate(source, target);
+        if (sourceEstimate == ShortestPathTree.UNREACHABLE) {
+            meetingVertex = -1;
+            return ShortestPathTree.UNREACHABLE;
+        }
+        forward.seed(source, sourceEstimate);
+
+        while (!forward.queue.isEmpty()) {
+            int vertex = forward.queue.pollMin();
+            forward.settledCount++;
+            if (vertex == target) break;
+            int distance = forward.distances[vertex];
+            for (int arc = graph.firstArc(vertex); arc < graph.endArc(vertex); arc++) {
+                int nextVertex = graph.target(arc);
+                int estimate = heuristic.estimate(nextVertex, target);
+                if (estimate == ShortestPathTree.UNREACHABLE) continue; // dead end for this target
+                long newDistance = (long) distance + graph.weight(arc);
+                forward.relax(vertex, nextVertex, newDistance, newDistance + estimate);
+            }
+        }
+        meetingVertex = forward.isReachable(target) ? target : -1;
+        return forward.distances[target];
+    }
+
+    /**
+     * Vertices on the path found by the last query, source first.
+     *
+     * return The path, or an empty array if the target was unreachable.
+     */
+    public int[] lastPath() {
+        if (meetingVertex < 0) return new int[0];
+        IntStack path = new IntStack();
+        for (int v = meetingVertex; v != source; v = forward.parents[v]) {
+            path.push(v);
+        }
+        path.push(source);
+        int[] vertices = new int[path.size()];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = path.get(vertices.length - 1 - i);
+        }
+        if (meetingVertex == target) return vertices;
+
+        // Continue from the meeting vertex along the backward search's parents
+        IntStack rest = new IntStack();
+        for (int v = backward.parents[meetingVertex]; v >= 0; v = backward.parents[v]) {
+            rest.push(v);
+        }
+        int[] full = Arrays.copyOf(vertices, vertices.length + rest.size());
+        for (int i = 0; i < rest.size(); i++) {
+            full[vertices.length + i] = rest.get(i);
+        }
+        return full;
+    }
+
+    /**
+     * Number of vertices settled by the last query, over both directions.
+     */
+    public int getSettledCount() {
+        return forward.settledCount + backward.settledCount;
+    }
+
+    private void start(int source, int target) {
+        this.source = source;
+        this.target = target;
+        forward.reset();
+        backward.reset();
+        forward.source = source;
+    }
+}
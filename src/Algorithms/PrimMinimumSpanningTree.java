@@ -0,0 +1,217 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Prim's algorithm over a CSR graph, in two flavours. The array version keeps the
+ * cheapest connection of every vertex in a flat array and scans it for the minimum,
+ * O(V^2) with no heap at all, which wins once E approaches V^2. The heap version
+ * keeps only the frontier in an indexed 4-ary heap, O(E log V), for medium densities.
+ *
+ * Arcs are ranked by weight and then by the id their edge has in EdgeArrays.of(graph),
+ * the same strict order the packed Kruskal and Boruvka use, so every mode picks the
+ * same forest. Each tree is grown from the lowest unreached vertex, so a disconnected
+ * graph gets one tree per component.
+ */
+public class PrimMinimumSpanningTree {
+
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    private final CsrGraph graph;
+    private final int numVertices;
+    private final int[] arcEdgeIds;
+    private final int[] edgeWeights;
+
+    /**
+     * graph Undirected graph; Prim cannot follow arcs backwards.
+     * throws IllegalArgumentException if the graph is directed.
+     */
+    public PrimMinimumSpanningTree(CsrGraph graph) {
+        if (graph.isDirected()) {
+            throw new IllegalArgumentException("Prim needs an undirected graph");
+        }
+        this.graph = graph;
+        this.numVertices = graph.vertexCount();
+        this.arcEdgeIds = EdgeArrays.arcEdgeIds(graph);
+        this.edgeWeights = new int[graph.edgeCount()];
+        for (int arc = 0; arc < arcEdgeIds.length; arc++) {
+            if (arcEdgeIds[arc] >= 0) edgeWeights[arcEdgeIds[arc]] = graph.weight(arc);
+        }
+    }
+
+    /**
+     * Array based Prim.
+     *
+     * return Ids of the forest edges, ordered by weight and then id.
+     */
+    public int[] densePrim() {
+        long[] best = new long[numVertices];
+        boolean[] inTree = new boolean[numVertices];
+        Arrays.fill(best, UNREACHED);
+        IntStack forest = new IntStack(Math.max(numVertices - 1, 1));
+
+        for (int root = 0; root < numVertices; root++) {
+            if (inTree[root]) continue;
+            int u = root;
+            while (u >= 0) {
+                inTree[u] = true;
+                if (best[u] != UNREACHED) forest.push((int) best[u]);
+                relax(u, best, inTree, null);
+
+                // Linear scan for the cheapest connection into the tree
+                u = -1;
+                long min = UNREACHED;
+                for (int v = 0; v < numVertices; v++) {
+                    if (!inTree[v] && best[v] < min) {
+                        min = best[v];
+                        u = v;
+                    }
+                }
+            }
+        }
+        return sortByRank(forest.toArray());
+    }
+
+    /**
+     * Heap based Prim.
+     *
+     * return Ids of the forest edges, ordered by weight and then id.
+     */
+    public int[] heapPrim() {
+        long[] best = new long[numVertices];
+        boolean[] inTree = new boolean[numVertices];
+        Arrays.fill(best, UNREACHED);
+        LongKeyHeap frontier = new LongKeyHeap(numVertices, best);
+        IntStack forest = new IntStack(Math.max(numVertices - 1, 1));
+
+        for (int root = 0; root < numVertices; root++) {
+            if (inTree[root]) continue;
+            int u = root;
+            while (u >= 0) {
+                inTree[u] = true;
+                if (best[u] != UNREACHED) forest.push((int) best[u]);
+                relax(u, best, inTree, frontier);
+                u = frontier.isEmpty() ? -1 : frontier.poll();
+            }
+        }
+        return sortByRank(forest.toArray());
+    }
+
+    /**
+     * Lowers the connection rank of every neighbour of u outside the tree.
+     */
+    private void relax(int u, long[] best, boolean[] inTree, LongKeyHeap frontier) {
+        for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+            int v = graph.target(arc);
+            int edge = arcEdgeIds[arc];
+            if (inTree[v] || edge < 0) continue;
+            long rank = rank(edge);
+            if (rank < best[v]) {
+                boolean queued = best[v] != UNREACHED;
+                best[v] = rank;
+                if (frontier == null) continue;
+                if (queued) frontier.decreased(v);
+                else frontier.add(v);
+            }
+        }
+    }
+
+    /**
+     * Strict edge order: weight in the upper half, id in the lower. The id is
+     * recovered from a rank by a plain int cast.
+     */
+    private long rank(int edge) {
+        return ((long) edgeWeights[edge] << 32) | edge;
+    }
+
+    private int[] sortByRank(int[] edges) {
+        Arrays.sort(edges);
+        long[] records = new long[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            records[i] = ParallelRadixSort.pack(edgeWeights[edges[i]], edges[i]);
+        }
+        ParallelRadixSort.sort(records, 0, records.length, new long[records.length]);
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = ParallelRadixSort.payload(records[i]);
+        }
+        return edges;
+    }
+
+    /**
+     * Indexed 4-ary min-heap of vertices keyed by an external array of long ranks.
+     */
+    private static final class LongKeyHeap {
+
+        private static final int ARITY = 4;
+
+        private final long[] keys;
+        private final int[] heap;
+        private final int[] positions;
+        private int size;
+
+        LongKeyHeap(int capacity, long[] keys) {
+            this.keys = keys;
+            this.heap = new int[capacity];
+            this.positions = new int[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(int vertex) {
+            heap[size] = vertex;
+            positions[vertex] = size;
+            siftUp(size++);
+        }
+
+        void decreased(int vertex) {
+            siftUp(positions[vertex]);
+        }
+
+        int poll() {
+            int top = heap[0];
+            int last = heap[--size];
+            if (size > 0) {
+                heap[0] = last;
+                positions[last] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int index) {
+            int vertex = heap[index];
+            long key = keys[vertex];
+            while (index > 0) {
+                int parent = (index - 1) / ARITY;
+                if (keys[heap[parent]] <= key) break;
+                heap[index] = heap[parent];
+                positions[heap[index]] = index;
+                index = parent;
+            }
+            heap[index] = vertex;
+            positions[vertex] = index;
+        }
+
+        private void siftDown(int index) {
+            int vertex = heap[index];
+            long key = keys[vertex];
+            while (true) {
+                int first = index * ARITY + 1;
+                if (first >= size) break;
+                int smallest = first;
+                int end = Math.min(first + ARITY, size);
+                for (int child = first + 1; child < end; child++) {
+                    if (keys[heap[child]] < keys[heap[smallest]]) smallest = child;
+                }
+                if (keys[heap[smallest]] >= key) break;
+                heap[index] = heap[smallest];
+                positions[heap[index]] = index;
+                index = smallest;
+            }
+            heap[index] = vertex;
+            positions[vertex] = index;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Indexed monotone radix heap for non-negative int keys. A key lives in the bucket
+ * numbered by the highest bit in which it differs from the last extracted key, so
+ * each element is moved at most 32 times over its lifetime. Keys must never fall
+ * below the last extracted key, which Dijkstra with non-negative weights guarantees.
+ */
+public class RadixHeap implements IndexedMinQueue {
+
+    private static final int BUCKETS = 33;
+
+    private final int[] keys;
+    private final int[] next;       // intrusive doubly linked bucket lists
+    private final int[] previous;
+    private final int[] bucketOf;   // bucket of each vertex, -1 when not queued
+    private final int[] bucketHeads = new int[BUCKETS];
+    private int lastKey;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * capacity Number of vertex ids the heap must accept.
+     */
+    public RadixHeap(int capacity) {
+        keys = new int[capacity];
+        next = new int[capacity];
+        previous = new int[capacity];
+        bucketOf = new int[capacity];
+        Arrays.fill(bucketOf, -1);
+        Arrays.fill(bucketHeads, -1);
+    }
+
+    @Override
+    public void insert(int vertex, int key) {
+        checkMonotone(key);
+        keys[vertex] = key;
+        link(vertex, bucketFor(key));
+        size++;
+    }
+
+    @Override
+    public void decreaseKey(int vertex, int key) {
+        checkMonotone(key);
+        unlink(vertex);
+        keys[vertex] = key;
+        link(vertex, bucketFor(key));
+    }
+
+    @Override
+    public int pollMin() {
+        int min = promoteMin();
+        unlink(min);
+        bucketOf[min] = -1;
+        size--;
+        return min;
+    }
+
+    @Override
+    public int minKey() {
+        return keys[promoteMin()];
+    }
+
+    /**
+     * Makes sure bucket 0 holds the minimum, redistributing the first non-empty
+     * bucket if it does not.
+     *
+     * return A vertex with the smallest key.
+     */
+    private int promoteMin() {
+        if (bucketHeads[0] < 0) {
+            // Find the first non-empty bucket and redistribute it around its minimum
+            int bucket = 1;
+            while (bucketHeads[bucket] < 0) bucket++;
+            int min = Integer.MAX_VALUE;
+            for (int v = bucketHeads[bucket]; v >= 0; v = next[v]) {
+                min = Math.min(min, keys[v]);
+            }
+            lastKey = min;
+            int v = bucketHeads[bucket];
+            bucketHeads[bucket] = -1;
+            while (v >= 0) {
+                int following = next[v];
+                link(v, bucketFor(keys[v]));
+                v = following;
+            }
+        }
+        return bucketHeads[0];
+    }
+
+    /**
+     * Current key of a queued vertex.
+     */
+    public int key(int vertex) {
+        return keys[vertex];
+    }
+
+    @Override
+    public boolean contains(int vertex) {
+        return bucketOf[vertex] >= 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            for (int v = bucketHeads[bucket]; v >= 0; v = next[v]) {
+                bucketOf[v] = -1;
+            }
+            bucketHeads[bucket] = -1;
+        }
+        lastKey = 0;
+        size = 0;
+    }
+
+    private int bucketFor(int key) {
+        return key == lastKey ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ lastKey);
+    }
+
+    private void checkMonotone(int key) {
+        if (key < lastKey) {
+            throw new IllegalArgumentException("Radix heap key " + key + " is below the last extracted key " + lastKey);
+        }
+    }
+
+    private void link(int vertex, int bucket) {
+        int head = bucketHeads[bucket];
+        next[vertex] = head;
+        previous[vertex] = -1;
+        if (head >= 0) previous[head] = vertex;
+        bucketHeads[bucket] = vertex;
+        bucketOf[vertex] = bucket;
+    }
+
+    private void unlink(int vertex) {
+        int before = previous[vertex];
+        int after = next[vertex];
+        if (before >= 0) next[before] = after;
+        else bucketHeads[bucketOf[vertex]] = after;
+        if (after >= 0) previous[after] = before;
+    }
+}
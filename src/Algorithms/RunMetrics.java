@@ -0,0 +1,91 @@
+package Algorithms;
+
+/**
+ * Counters of a single algorithm run. Filled by the thread doing the run, so the
+ * fields are plain; Metrics.record folds finished runs into the shared totals.
+ * Hot loops count into locals and add them here once at the end.
+ */
+public class RunMetrics {
+
+    /**
+     * What a run can count. Most counters add up across runs; the maxima keep the
+     * largest value seen.
+     */
+    public enum Counter {
+        PARSE_NANOS,
+        COMPUTE_NANOS,
+        // Dijkstra
+        VERTICES_SETTLED,
+        EDGE_RELAXATIONS,
+        HEAP_PUSHES,
+        HEAP_POPS,
+        DECREASE_KEYS,
+        // Spanning tree
+        EDGES_EXAMINED,
+        FIND_CALLS,
+        FIND_PATH_LENGTH,
+        UNIONS,
+        // Topological sort
+        LEVELS,
+        MAX_LEVEL_WIDTH(true),
+        MAX_SEARCH_DEPTH(true);
+
+        private final boolean maximum;
+
+        Counter() {
+            this(false);
+        }
+
+        Counter(boolean maximum) {
+            this.maximum = maximum;
+        }
+
+        public boolean isMaximum() {
+            return maximum;
+        }
+
+        /**
+         * Name used in the text export and as JMX attribute, like edge_relaxations.
+         */
+        public String metricName() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final Metrics.Algorithm algorithm;
+    private final long[] values = new long[Counter.values().length];
+
+    public RunMetrics(Metrics.Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Metrics.Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Adds to a counter, or raises it for a maximum.
+     */
+    public RunMetrics add(Counter counter, long value) {
+        int index = counter.ordinal();
+        values[index] = counter.isMaximum() ? Math.max(values[index], value) : values[index] + value;
+        return this;
+    }
+
+    public long get(Counter counter) {
+        return values[counter.ordinal()];
+    }
+
+    /**
+     * The counters of the run's algorithm, like "settled=12 edge_relaxations=40".
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Counter counter : algorithm.counters()) {
+            if (text.length() > 0) text.append(' ');
+            text.append(counter.metricName()).append('=').append(get(counter));
+        }
+        return text.toString();
+    }
+}
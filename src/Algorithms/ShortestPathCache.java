@@ -0,0 +1,182 @@
+package Algorithms;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded LRU cache of shortest path trees keyed by graph version and source vertex.
+ * Only the distance and parent arrays of a tree are kept, never the tree or its graph;
+ * a hit wraps the stored arrays, without copying them, for the graph it was asked for.
+ *
+ * The cache is bounded both by entry count and by the bytes of the cached arrays; the
+ * least recently used trees are evicted first. Since nothing else is retained, maxBytes
+ * bounds the memory the cache holds. One cache can serve several graphs at once, since
+ * every graph has its own version. Nothing is dropped when a graph goes away: its
+ * trees stay until they are evicted, unless they are dropped at once with invalidate,
+ * as GraphQueryServer does when a graph is unloaded or replaced. All methods are
+ * thread-safe.
+ */
+public class ShortestPathCache {
+
+    // Array headers plus the key, the entry and its map node
+    private static final long ENTRY_OVERHEAD = 128;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Key(long version, int source) {
+    }
+
+    private record Entry(int[] distances, int[] parents) {
+        long size() {
+            return sizeOf(distances.length);
+        }
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * maxEntries Largest number of trees kept.
+     * maxBytes Largest total size of the kept trees in bytes.
+     */
+    public ShortestPathCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Approximate heap size of a tree: a distance and a parent per vertex.
+     *
+     * tree Tree to measure.
+     * return Size in bytes.
+     */
+    public static long sizeOf(ShortestPathTree tree) {
+        return sizeOf(tree.vertexCount());
+    }
+
+    private static long sizeOf(int vertexCount) {
+        return 2L * Integer.BYTES * vertexCount + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * Looks up a tree, counting a hit or a miss.
+     *
+     * graph Graph the tree was computed on.
+     * source Source vertex.
+     * return The cached tree on that graph, or null.
+     */
+    public ShortestPathTree get(CsrGraph graph, int source) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(new Key(graph.version(), source));
+            if (entry != null) hits++;
+            else misses++;
+        }
+        return entry == null ? null : new ShortestPathTree(graph, source, entry.distances(), entry.parents());
+    }
+
+    /**
+     * Stores a tree, evicting least recently used trees to stay within the limits.
+     * A tree larger than the byte limit on its own is not stored.
+     *
+     * tree Tree to cache.
+     */
+    public synchronized void put(ShortestPathTree tree) {
+        Entry entry = new Entry(tree.distanceArray(), tree.parentArray());
+        if (entry.size() > maxBytes) return;
+        Entry previous = entries.put(new Key(tree.getGraph().version(), tree.getSource()), entry);
+        if (previous != null) currentBytes -= previous.size();
+        currentBytes += entry.size();
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || currentBytes > maxBytes) {
+            currentBytes -= eldest.next().getValue().size();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns the cached tree or computes and caches it. The computation runs outside
+     * the lock, so two threads missing on the same key may both compute it.
+     *
+     * graph Graph to query.
+     * source Source vertex.
+     * compute Computes the tree of a source on this graph.
+     * return The tree.
+     */
+    public ShortestPathTree computeIfAbsent(CsrGraph graph, int source, IntFunction<ShortestPathTree> compute) {
+        ShortestPathTree tree = get(graph, source);
+        if (tree == null) {
+            tree = compute.apply(source);
+            put(tree);
+        }
+        return tree;
+    }
+
+    /**
+     * Drops every tree computed on a graph.
+     *
+     * graph Graph whose trees are no longer wanted.
+     */
+    public synchronized void invalidate(CsrGraph graph) {
+        long version = graph.version();
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().version() == version) {
+                currentBytes -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeInBytes() {
+        return currentBytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Fraction of lookups answered from the cache.
+     */
+    public synchronized double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d trees, %d bytes, %d hits, %d misses, %d evictions",
+                entries.size(), currentBytes, hits, misses, evictions);
+    }
+}
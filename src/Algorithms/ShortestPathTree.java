@@ -0,0 +1,111 @@
+package Algorithms;
+
+/**
+ * Result of a single-source shortest path run: a distance and a parent per vertex.
+ * Lookups are O(1) and allocate nothing; a path is only materialised when asked for.
+ */
+public class ShortestPathTree {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final CsrGraph graph;
+    private final int source;
+    private final int[] distances;
+    private final int[] parents;
+
+    /**
+     * Wraps the arrays produced by a run; the tree takes ownership of them.
+     *
+     * graph Graph the tree was computed on.
+     * source Source vertex.
+     * distances Distance per vertex, UNREACHABLE if there is no path.
+     * parents Previous vertex on the shortest path, -1 for the source and unreachable vertices.
+     */
+    public ShortestPathTree(CsrGraph graph, int source, int[] distances, int[] parents) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int vertexCount() {
+        return distances.length;
+    }
+
+    public int distance(int vertex) {
+        return distances[vertex];
+    }
+
+    public boolean isReachable(int vertex) {
+        return distances[vertex] != UNREACHABLE;
+    }
+
+    public int parent(int vertex) {
+        return parents[vertex];
+    }
+
+    // The arrays themselves, for ShortestPathCache; neither is ever written after construction
+    int[] distanceArray() {
+        return distances;
+    }
+
+    int[] parentArray() {
+        return parents;
+    }
+
+    /**
+     * Number of edges on the shortest path to the vertex.
+     *
+     * vertex Destination vertex.
+     * return Hop count, or -1 if the vertex is unreachable.
+     */
+    public int hopCount(int vertex) {
+        if (!isReachable(vertex)) return -1;
+        int hops = 0;
+        for (int v = vertex; v != source; v = parents[v]) {
+            hops++;
+        }
+        return hops;
+    }
+
+    /**
+     * Vertices on the shortest path, source first.
+     *
+     * destination Destination vertex.
+     * return The path, or an empty array if the destination is unreachable.
+     */
+    public int[] path(int destination) {
+        int hops = hopCount(destination);
+        if (hops < 0) return new int[0];
+        int[] path = new int[hops + 1];
+        for (int i = hops, v = destination; i >= 0; i--, v = parents[v]) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Formats the shortest path with vertex labels, e.g. "A --> B --> E".
+     *
+     * destination Destination vertex.
+     * return The formatted path, or null if the destination is unreachable.
+     */
+    public String formatPath(int destination) {
+        if (!isReachable(destination)) return null;
+        int[] path = path(destination);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) text.append(" --> ");
+            text.append(graph.label(path[i]));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,180 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Strongly connected components by Tarjan's algorithm, run with an explicit stack so
+ * that paths of any length are fine. O(V + E) time and a few int arrays of size V.
+ *
+ * Components are numbered in the order Tarjan completes them, which is a reverse
+ * topological order of the condensation: every arc between two components leads to
+ * a lower number. A component is cyclic when it has more than one vertex or a self
+ * loop; the graph is acyclic exactly when no component is.
+ */
+public class StronglyConnectedComponents {
+
+    private static final int UNVISITED = -1;
+
+    private final CsrGraph graph;
+    private final int[] components;
+    private final int componentCount;
+    // Vertices grouped by component, ascending within each
+    private final int[] members;
+    private final int[] memberStarts;
+    private final boolean[] cyclic;
+    private final int cyclicCount;
+    private int maxDepth;
+
+    /**
+     * Computes the components of a graph, taking every arc as directed.
+     *
+     * graph Graph to split.
+     */
+    public StronglyConnectedComponents(CsrGraph graph) {
+        this.graph = graph;
+        int numVertices = graph.vertexCount();
+        components = new int[numVertices];
+        componentCount = tarjan();
+
+        memberStarts = new int[componentCount + 1];
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            memberStarts[components[vertex] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberStarts[c + 1] += memberStarts[c];
+        }
+        members = new int[numVertices];
+        int[] fill = Arrays.copyOf(memberStarts, componentCount);
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            members[fill[components[vertex]]++] = vertex;
+        }
+
+        cyclic = new boolean[componentCount];
+        int count = 0;
+        for (int c = 0; c < componentCount; c++) {
+            cyclic[c] = memberStarts[c + 1] - memberStarts[c] > 1 || hasSelfLoop(graph, members[memberStarts[c]]);
+            if (cyclic[c]) count++;
+        }
+        cyclicCount = count;
+    }
+
+    /**
+     * Iterative Tarjan: the call stack holds a vertex and the next arc to follow.
+     *
+     * return Number of components.
+     */
+    private int tarjan() {
+        int numVertices = graph.vertexCount();
+        int[] indices = new int[numVertices];
+        int[] lowLinks = new int[numVertices];
+        boolean[] onStack = new boolean[numVertices];
+        int[] callVertices = new int[numVertices];
+        int[] callArcs = new int[numVertices];
+        IntStack stack = new IntStack();
+        Arrays.fill(indices, UNVISITED);
+        int nextIndex = 0;
+        int count = 0;
+
+        for (int root = 0; root < numVertices; root++) {
+            if (indices[root] != UNVISITED) continue;
+            int depth = 0;
+            callVertices[0] = root;
+            callArcs[0] = graph.firstArc(root);
+            indices[root] = lowLinks[root] = nextIndex++;
+            stack.push(root);
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int vertex = callVertices[depth];
+                if (callArcs[depth] < graph.endArc(vertex)) {
+                    int next = graph.target(callArcs[depth]++);
+                    if (indices[next] == UNVISITED) {
+                        depth++;
+                        if (Metrics.ENABLED && depth > maxDepth) maxDepth = depth;
+                        callVertices[depth] = next;
+                        callArcs[depth] = graph.firstArc(next);
+                        indices[next] = lowLinks[next] = nextIndex++;
+                        stack.push(next);
+                        onStack[next] = true;
+                    } else if (onStack[next]) {
+                        lowLinks[vertex] = Math.min(lowLinks[vertex], indices[next]);
+                    }
+                    continue;
+                }
+
+                // All arcs done: pop the component if vertex is its root, then return
+                if (lowLinks[vertex] == indices[vertex]) {
+                    int member;
+                    do {
+                        member = stack.pop();
+                        onStack[member] = false;
+                        components[member] = count;
+                    } while (member != vertex);
+                    count++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int caller = callVertices[depth];
+                    lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[vertex]);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean hasSelfLoop(CsrGraph graph, int vertex) {
+        for (int arc = graph.firstArc(vertex); arc < graph.endArc(vertex); arc++) {
+            if (graph.target(arc) == vertex) return true;
+        }
+        return false;
+    }
+
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    public int component(int vertex) {
+        return components[vertex];
+    }
+
+    public int componentSize(int component) {
+        return memberStarts[component + 1] - memberStarts[component];
+    }
+
+    /**
+     * Vertices of one component.
+     *
+     * component Component number.
+     * return A copy of the members in ascending id order.
+     */
+    public int[] members(int component) {
+        return Arrays.copyOfRange(members, memberStarts[component], memberStarts[component + 1]);
+    }
+
+    /**
+     * Whether the component contains a cycle: more than one vertex, or a self loop.
+     */
+    public boolean isCyclic(int component) {
+        return cyclic[component];
+    }
+
+    public int cyclicComponentCount() {
+        return cyclicCount;
+    }
+
+    /**
+     * Deepest search path the pass followed, the depth a recursive search would have
+     * reached; only measured while metrics are enabled.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public boolean hasCycle() {
+        return cyclicCount > 0;
+    }
+}
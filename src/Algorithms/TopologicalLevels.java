@@ -0,0 +1,111 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Result of a Kahn topological sort: the sorted vertices grouped into levels. A vertex
+ * sits in level k when the longest path reaching it has k arcs, so no two vertices of
+ * a level depend on each other and a whole level can run concurrently once the levels
+ * before it are done. Within a level vertices are in ascending id order.
+ *
+ * Vertices on a cycle, or behind one, never become ready and are left out; the sort
+ * is then incomplete.
+ */
+public class TopologicalLevels {
+
+    private final CsrGraph graph;
+    private final int vertexCount;
+    private final int[] order;
+    private final int[] levelStarts;
+    private final int levelCount;
+
+    /**
+     * Wraps the arrays produced by a sort; the result takes ownership of them.
+     *
+     * graph Graph that was sorted, or null for a CompressedGraph.
+     * vertexCount Number of vertices of the graph.
+     * order Sorted vertices, level after level.
+     * levelStarts Start of every level in order, followed by the end of the last one.
+     * levelCount Number of levels.
+     */
+    TopologicalLevels(CsrGraph graph, int vertexCount, int[] order, int[] levelStarts, int levelCount) {
+        this.graph = graph;
+        this.vertexCount = vertexCount;
+        this.order = order;
+        this.levelStarts = levelStarts;
+        this.levelCount = levelCount;
+    }
+
+    /**
+     * The graph that was sorted, or null if it was a CompressedGraph.
+     */
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Whether every vertex was sorted, that is whether the graph is acyclic.
+     */
+    public boolean isComplete() {
+        return size() == vertexCount;
+    }
+
+    /**
+     * Number of sorted vertices.
+     */
+    public int size() {
+        return levelStarts[levelCount];
+    }
+
+    public int vertex(int index) {
+        return order[index];
+    }
+
+    public int levelCount() {
+        return levelCount;
+    }
+
+    public int levelStart(int level) {
+        return levelStarts[level];
+    }
+
+    public int levelEnd(int level) {
+        return levelStarts[level + 1];
+    }
+
+    /**
+     * Vertices of one level.
+     *
+     * level Level index.
+     * return A copy of the level, in ascending id order.
+     */
+    public int[] level(int level) {
+        return Arrays.copyOfRange(order, levelStarts[level], levelStarts[level + 1]);
+    }
+
+    /**
+     * All sorted vertices.
+     *
+     * return A copy of the order.
+     */
+    public int[] order() {
+        return Arrays.copyOf(order, size());
+    }
+
+    /**
+     * Vertices the sort could not place: those on a cycle or reachable from one.
+     *
+     * return The unsorted vertices in ascending id order.
+     */
+    public int[] unsortedVertices() {
+        boolean[] sorted = new boolean[vertexCount];
+        for (int i = 0; i < size(); i++) {
+            sorted[order[i]] = true;
+        }
+        IntStack unsorted = new IntStack();
+        for (int vertex = 0; vertex < sorted.length; vertex++) {
+            if (!sorted[vertex]) unsorted.push(vertex);
+        }
+        return unsorted.toArray();
+    }
+}
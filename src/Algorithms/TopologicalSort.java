@@ -8,10 +8,13 @@ import java.util.*;
  */
 public class TopologicalSort {
 
-    private Map<String, List<String>> adjacencyList;
-    private Set<String> exploredVertices;
-    private Set<String> recursiveCallStack;
-    private List<List<String>> detectedCycles;
+    // Vertex count from which frontiers are processed in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    // Cycles listed when the graph is cyclic; their number can grow exponentially
+    private static final int MAX_REPORTED_CYCLES = 1000;
+
+    private CsrGraph graph;
+    private TopologicalLevels sortedLevels;
 
     /**
      * Executes the topological sorting algorithm.
@@ -20,155 +23,116 @@ public class TopologicalSort {
      */
     public void executeTopologicalSorting(String filePath) {
         try {
-            
-            adjacencyList = new HashMap<>();
-            exploredVertices = new HashSet<>();
-            recursiveCallStack = new HashSet<>();
-            detectedCycles = new ArrayList<>();
-
-            Scanner fileScanner = new Scanner(new File(filePath));
-            int numVertices = fileScanner.nextInt();
-            int numEdges = fileScanner.nextInt();
+            // Edges are taken in the listed direction, whatever the header says
+            GraphFileReader graphReader = new GraphFileReader();
+            graph = graphReader.load(filePath, true);
+            int numVertices = graph.vertexCount();
+            sortedLevels = null;
             System.out.println("Number of Vertices: " + numVertices);
-            System.out.println("Number of Edges: " + numEdges);
-
-            String graphType = fileScanner.next();
-
-            fileScanner.nextLine();
-
-            // Build the graph
-            for (int i = 0; i < numEdges; i++) {
-                // Read source and destination vertices
-                String[] edgeLine = fileScanner.nextLine().split(" ");
-                String sourceVertex = edgeLine[0];
-                String destinationVertex = edgeLine[1];
-
-                // Add edge to adjacency list
-                adjacencyList.computeIfAbsent(sourceVertex, k -> new ArrayList<>()).add(destinationVertex);
-            }
-            fileScanner.close();
+            System.out.println("Number of Edges: " + graph.edgeCount());
+            System.out.println(graphReader.describeLoad());
 
-            for (String vertex : adjacencyList.keySet()) {
-                if (!exploredVertices.contains(vertex)) {
-                    isCyclic(vertex, new HashSet<>(), new ArrayList<>());
-                }
-            }
+            // The graph is acyclic exactly when no strongly connected component has a cycle
+            long componentsStart = System.nanoTime();
+            StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+            long computeNanos = System.nanoTime() - componentsStart;
 
-            // Check if cycles were detected
-            if (detectedCycles.isEmpty()) {
+            if (!components.hasCycle()) {
                 // Graph is acyclic, perform topological sorting
                 System.out.println("The graph is acyclic. Performing topological sorting...");
                 long startTime = System.nanoTime();
-                List<String> sortedVertices = topologicalSort();
+                TopologicalLevels sortedVertices = topologicalSort();
+                sortedLevels = sortedVertices;
                 long endTime = System.nanoTime();
+                computeNanos += endTime - startTime;
                 System.out.println("Execution Time: " + (endTime - startTime) + " nanoseconds");
                 System.out.println("Topological sorting sequence:");
-                for (String vertex : sortedVertices) {
-                    System.out.print(vertex + " ");
+                for (int i = 0; i < sortedVertices.size(); i++) {
+                    System.out.print(graph.label(sortedVertices.vertex(i)) + " ");
                 }
                 System.out.println();
+                // Vertices of one level do not depend on each other
+                System.out.println("Levels (" + sortedVertices.levelCount() + "):");
+                for (int level = 0; level < sortedVertices.levelCount(); level++) {
+                    System.out.print("Level " + level + ": ");
+                    for (int i = sortedVertices.levelStart(level); i < sortedVertices.levelEnd(level); i++) {
+                        System.out.print(graph.label(sortedVertices.vertex(i)) + " ");
+                    }
+                    System.out.println();
+                }
             } else {
                 // Graph contains cycles
                 System.out.println("The graph contains cycles.");
+                System.out.println("Strongly connected components with cycles: " + components.cyclicComponentCount());
                 System.out.println("Cycles along with their lengths:");
-                int cycleIndex = 1;
-                long startTime = System.nanoTime();
-                for (List<String> cycle : detectedCycles) {
-                    System.out.print("Cycle " + cycleIndex + ": ");
-                    for (int i = 0; i < cycle.size(); i++) {
-                        System.out.print(cycle.get(i));
-                        if (i < cycle.size() - 1) {
+                long[] cycleIndex = {1};
+                long reported = new CycleEnumerator(components).enumerate(MAX_REPORTED_CYCLES,
+                        CycleEnumerator.UNLIMITED, cycle -> {
+                    System.out.print("Cycle " + cycleIndex[0]++ + ": ");
+                    for (int i = 0; i < cycle.length; i++) {
+                        System.out.print(graph.label(cycle[i]));
+                        if (i < cycle.length - 1) {
                             System.out.print(" -> ");
                         }
                     }
-                    System.out.println(" (Length: " + cycle.size() + ")");
-                    cycleIndex++;
+                    System.out.println(" (Length: " + cycle.length + ")");
+                    return true;
+                });
+                if (reported == MAX_REPORTED_CYCLES) {
+                    System.out.println("Stopped after " + MAX_REPORTED_CYCLES + " cycles.");
                 }
-                long endTime = System.nanoTime();
+            }
+            if (Metrics.ENABLED) {
+                recordMetrics(components, graphReader.parseNanos(), computeNanos);
             }
         } catch (FileNotFoundException e) {
             System.out.println("File not found: " + filePath);
             e.printStackTrace();
+        } catch (IOException e) {
+            System.out.println("Could not read graph file: " + e.getMessage());
         }
     }
 
     /**
-     * Checks if the graph contains cycles using DFS.
+     * Records and prints the counters of a run.
      * 
-     * vertex Current vertex.
-     * visitedVertices Set of visited vertices.
-     * currentPath Current path.
+     * components Components of the graph.
+     * parseNanos Time spent reading the graph.
+     * computeNanos Time spent on the components and the sort.
      */
-    private void isCyclic(String vertex, Set<String> visitedVertices, List<String> currentPath) {
-        // Check if vertex is already in recursion stack
-        if (recursiveCallStack.contains(vertex)) {
-            // Cycle detected, add to detected cycles list
-            List<String> cycle = new ArrayList<>(currentPath.subList(currentPath.indexOf(vertex), currentPath.size()));
-            detectedCycles.add(cycle);
-            return;
-        }
-        // Mark vertex as visited and add to recursion stack
-        if (!exploredVertices.contains(vertex)) {
-            exploredVertices.add(vertex);
-            recursiveCallStack.add(vertex);
-            currentPath.add(vertex);
-
-            // Recur for neighboring vertices
-            List<String> neighbors = adjacencyList.getOrDefault(vertex, new ArrayList<>());
-            for (String neighbor : neighbors) {
-                isCyclic(neighbor, visitedVertices, currentPath);
+    private void recordMetrics(StronglyConnectedComponents components, long parseNanos, long computeNanos) {
+        RunMetrics run = new RunMetrics(Metrics.Algorithm.TOPOLOGICAL_SORT)
+                .add(RunMetrics.Counter.PARSE_NANOS, parseNanos)
+                .add(RunMetrics.Counter.COMPUTE_NANOS, computeNanos)
+                .add(RunMetrics.Counter.MAX_SEARCH_DEPTH, components.getMaxDepth());
+        if (sortedLevels != null) {
+            run.add(RunMetrics.Counter.LEVELS, sortedLevels.levelCount());
+            for (int level = 0; level < sortedLevels.levelCount(); level++) {
+                run.add(RunMetrics.Counter.MAX_LEVEL_WIDTH, sortedLevels.levelEnd(level) - sortedLevels.levelStart(level));
             }
-
-            // Remove vertex from recursion stack
-            recursiveCallStack.remove(vertex);
-            currentPath.remove(currentPath.size() - 1);
         }
+        Metrics.record(run);
+        System.out.println("Metrics: " + run);
     }
 
     /**
-     * Performs topological sorting using DFS.
+     * Hands the order computed by the last run over to a dynamic order that later
+     * edge insertions keep valid without sorting again.
      * 
-     * return List of vertices in topological order.
+     * return The dynamic order, or null if no acyclic graph has been sorted yet.
      */
-    private List<String> topologicalSort() {
-        List<String> sortedVertices = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
-        Set<String> recursiveCallStack = new HashSet<>();
-
-        // Perform DFS traversal
-        for (String vertex : adjacencyList.keySet()) {
-            if (!visited.contains(vertex)) {
-                topologicalSortDFS(vertex, visited, recursiveCallStack, sortedVertices);
-            }
-        }
-
-        // Reverse the sorted list
-        Collections.reverse(sortedVertices);
-        return sortedVertices;
+    public DynamicTopologicalOrder toDynamicOrder() {
+        if (sortedLevels == null) return null;
+        return DynamicTopologicalOrder.of(graph, sortedLevels);
     }
 
     /**
-     * Recursive DFS function for topological sorting.
+     * Performs topological sorting with Kahn's algorithm, level by level.
      * 
-     * vertex Current vertex.
-     * visited Set of visited vertices.
-     * recursiveCallStack Recursion stack.
-     * sortedVertices List of sorted vertices.
+     * return Vertices in topological order, grouped into levels.
      */
-    private void topologicalSortDFS(String vertex, Set<String> visited, Set<String> recursiveCallStack, List<String> sortedVertices) {
-        // Mark vertex as visited and add to recursion stack
-        visited.add(vertex);
-        recursiveCallStack.add(vertex);
-
-        // Recur for neighboring vertices
-        List<String> neighbors = adjacencyList.getOrDefault(vertex, new ArrayList<>());
-        for (String neighbor : neighbors) {
-            if (!visited.contains(neighbor)) {
-                topologicalSortDFS(neighbor, visited, recursiveCallStack, sortedVertices);
-            }
-        }
-        // Remove vertex from recursion stack and add to sorted list
-        recursiveCallStack.remove(vertex);
-        sortedVertices.add(vertex);
+    private TopologicalLevels topologicalSort() {
+        KahnTopologicalSort sorter = new KahnTopologicalSort(graph);
+        return graph.vertexCount() >= PARALLEL_THRESHOLD ? sorter.parallelSort() : sorter.sort();
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package Algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint sets over the elements 0 .. size() - 1, each starting in a set of its own.
+ */
+public interface UnionFind {
+
+    /**
+     * Number of elements.
+     */
+    int size();
+
+    /**
+     * Finds the representative of the set holding an element.
+     *
+     * element Element to look up.
+     * return The representative, the same for every element of the set.
+     */
+    int find(int element);
+
+    /**
+     * Merges the sets holding two elements.
+     *
+     * a First element.
+     * b Second element.
+     * return true if they were in different sets.
+     */
+    boolean union(int a, int b);
+
+    /**
+     * Checks whether two elements are in the same set.
+     */
+    boolean connected(int a, int b);
+
+    /**
+     * Number of sets.
+     */
+    int componentCount();
+
+    /**
+     * Number of elements in the set holding an element.
+     */
+    int componentSize(int element);
+
+    /**
+     * Labels every element with a dense component number, numbered in order of the
+     * lowest element of each component.
+     *
+     * return Component number per element, from 0 to componentCount() - 1.
+     */
+    default int[] componentLabels() {
+        int numElements = size();
+        int[] labels = new int[numElements];
+        int[] labelOfRoot = new int[numElements];
+        Arrays.fill(labelOfRoot, -1);
+        int next = 0;
+        for (int element = 0; element < numElements; element++) {
+            int root = find(element);
+            if (labelOfRoot[root] < 0) labelOfRoot[root] = next++;
+            labels[element] = labelOfRoot[root];
+        }
+        return labels;
+    }
+
+    /**
+     * Sizes of all components, indexed by the numbers componentLabels assigns.
+     *
+     * return Element count per component.
+     */
+    default int[] componentSizes() {
+        int[] labels = componentLabels();
+        int count = 0;
+        for (int label : labels) {
+            count = Math.max(count, label + 1);
+        }
+        int[] sizes = new int[count];
+        for (int label : labels) {
+            sizes[label]++;
+        }
+        return sizes;
+    }
+}
@@ -0,0 +1,182 @@
+package Algorithms;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Dictionary mapping arbitrary vertex names to dense int ids.
+ */
+public class VertexLabels {
+
+    private static final Comparator<String> NATURAL_ORDER =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    private String[] labels;
+    // Open addressing table of (hash, id + 1) pairs; an id of 0 marks an empty slot.
+    // Keeping the hash next to the id means a probe only touches the label on a likely match.
+    private int[] slots;
+    private int size;
+
+    public VertexLabels() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty dictionary sized for the expected number of labels.
+     *
+     * expectedSize Expected number of distinct labels.
+     */
+    public VertexLabels(int expectedSize) {
+        labels = new String[Math.max(expectedSize, 4)];
+        slots = new int[2 * tableSizeFor(labels.length)];
+    }
+
+    /**
+     * Creates a dictionary from labels already in id order.
+     *
+     * labelsInIdOrder Label of each id, without duplicates.
+     */
+    VertexLabels(String[] labelsInIdOrder) {
+        labels = Arrays.copyOf(labelsInIdOrder, Math.max(labelsInIdOrder.length, 4));
+        size = labelsInIdOrder.length;
+        rehash(2 * tableSizeFor(labels.length));
+    }
+
+    /**
+     * Returns the id of the label, assigning the next free id if it is new.
+     *
+     * label Vertex name.
+     * return Dense id of the vertex.
+     */
+    public int intern(String label) {
+        int hash = label.hashCode();
+        int slot = find(hash, label);
+        return slots[slot + 1] != 0 ? slots[slot + 1] - 1 : insert(label, hash, slot);
+    }
+
+    /**
+     * Interns a label read straight from an input buffer. A String is only created the
+     * first time an ASCII label is seen; other labels are decoded as UTF-8.
+     *
+     * bytes Buffer holding the label.
+     * start Index of the first byte.
+     * length Number of bytes in the label.
+     * return Dense id of the vertex.
+     */
+    int intern(ByteBuffer bytes, int start, int length) {
+        // Same value as String.hashCode for ASCII text
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes.get(start + i);
+            if (b < 0) return intern(decode(bytes, start, length, StandardCharsets.UTF_8));
+            hash = 31 * hash + b;
+        }
+        int mask = slots.length - 2;
+        int slot = (mix(hash) << 1) & mask;
+        while (slots[slot + 1] != 0) {
+            int id = slots[slot + 1] - 1;
+            if (slots[slot] == hash && matches(labels[id], bytes, start, length)) return id;
+            slot = (slot + 2) & mask;
+        }
+        return insert(decode(bytes, start, length, StandardCharsets.US_ASCII), hash, slot);
+    }
+
+    /**
+     * Looks up the id of a label.
+     *
+     * label Vertex name.
+     * return Dense id, or -1 if the label is unknown.
+     */
+    public int idOf(String label) {
+        return slots[find(label.hashCode(), label) + 1] - 1;
+    }
+
+    public String labelOf(int id) {
+        return labels[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Renumbers the labels into natural order (shorter names first, then lexicographic),
+     * so "A".."Z" and "1".."100" both keep their expected order.
+     *
+     * return Mapping from each old id to its new id.
+     */
+    int[] sortNaturally() {
+        String[] sorted = Arrays.copyOf(labels, size);
+        Arrays.sort(sorted, NATURAL_ORDER);
+        int[] newIds = new int[size];
+        for (int newId = 0; newId < size; newId++) {
+            newIds[idOf(sorted[newId])] = newId;
+        }
+        labels = Arrays.copyOf(sorted, Math.max(size, 4));
+        rehash(slots.length);
+        return newIds;
+    }
+
+    /**
+     * Finds the slot holding the label, or the empty slot where it belongs.
+     */
+    private int find(int hash, String label) {
+        int mask = slots.length - 2;
+        int slot = (mix(hash) << 1) & mask;
+        while (slots[slot + 1] != 0) {
+            if (slots[slot] == hash && labels[slots[slot + 1] - 1].equals(label)) return slot;
+            slot = (slot + 2) & mask;
+        }
+        return slot;
+    }
+
+    private int insert(String label, int hash, int slot) {
+        if (size == labels.length) {
+            labels = Arrays.copyOf(labels, size * 2);
+        }
+        int id = size++;
+        labels[id] = label;
+        slots[slot] = hash;
+        slots[slot + 1] = id + 1;
+        if (size * 4 > slots.length) rehash(slots.length * 2);
+        return id;
+    }
+
+    private static boolean matches(String label, ByteBuffer bytes, int start, int length) {
+        if (label.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (label.charAt(i) != bytes.get(start + i)) return false;
+        }
+        return true;
+    }
+
+    private static String decode(ByteBuffer bytes, int start, int length, Charset charset) {
+        byte[] text = new byte[length];
+        bytes.get(start, text);
+        return new String(text, charset);
+    }
+
+    private void rehash(int tableLength) {
+        slots = new int[tableLength];
+        int mask = tableLength - 2;
+        for (int id = 0; id < size; id++) {
+            int hash = labels[id].hashCode();
+            int slot = (mix(hash) << 1) & mask;
+            while (slots[slot + 1] != 0) slot = (slot + 2) & mask;
+            slots[slot] = hash;
+            slots[slot + 1] = id + 1;
+        }
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) * 2;
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
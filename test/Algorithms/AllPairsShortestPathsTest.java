@@ -0,0 +1,198 @@
+package Algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares tiled Floyd-Warshall, repeated Dijkstra and AUTO against a plain triple loop
+ * over long distances, on graphs whose sizes fall on both sides of the tile edges,
+ * including directed graphs with negative weights but no negative cycle. Each matrix is
+ * also written out and read back, onto the heap and mapped.
+ */
+class AllPairsShortestPathsTest {
+
+    private static final long NO_PATH = Long.MAX_VALUE / 4;
+
+    private static ForkJoinPool pool;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void matchesReferenceOnTheSampleGraphs() throws IOException {
+        for (Map.Entry<String, CsrGraph> input : TestGraphs.inputs(false).entrySet()) {
+            verify(input.getKey(), input.getValue());
+        }
+    }
+
+    @Test
+    void matchesReferenceOnRandomGraphs() throws IOException {
+        Random random = new Random(TestGraphs.SEED);
+        int tile = AllPairsShortestPaths.TILE;
+        for (int i = 0; i < 150; i++) {
+            // Every few graphs lands right around one or two whole tiles
+            int numVertices = i % 4 == 0 ? tile * (1 + random.nextInt(2)) + random.nextInt(3) - 1
+                    : 1 + random.nextInt(3 * tile);
+            boolean directed = random.nextBoolean();
+            boolean negative = directed && random.nextInt(3) == 0;
+            // Some graphs get weights as large as Floyd-Warshall still takes exactly
+            int maxWeight = i % 5 == 4 ? (Integer.MAX_VALUE / 2 - 1) / numVertices
+                    : random.nextInt(4) == 0 ? 1 : 30;
+            CsrGraph graph = negative ? acyclicWithNegativeWeights(random, numVertices)
+                    : TestGraphs.random(random, numVertices, random.nextInt(numVertices * 5 + 1), maxWeight, directed);
+            verify("random graph " + i, graph);
+        }
+    }
+
+    @Test
+    void refusesNegativeCycles() {
+        Random random = new Random(TestGraphs.SEED);
+        for (int i = 0; i < 20; i++) {
+            int numVertices = 2 + random.nextInt(2 * AllPairsShortestPaths.TILE);
+            CsrGraph.Builder builder = new CsrGraph.Builder(true, numVertices, numVertices * 3);
+            for (int v = 0; v < numVertices; v++) {
+                builder.labels().intern("v" + v);
+            }
+            for (int e = 0; e < numVertices * 2; e++) {
+                builder.addEdge(random.nextInt(numVertices), random.nextInt(numVertices), 1 + random.nextInt(30));
+            }
+            // A cycle through a random set of vertices whose weights sum to -1
+            int length = 2 + random.nextInt(Math.min(numVertices - 1, 5));
+            int first = random.nextInt(numVertices);
+            int from = first;
+            for (int step = 1; step < length; step++) {
+                int to = (from + 1 + random.nextInt(numVertices - 1)) % numVertices;
+                builder.addEdge(from, to, 10);
+                from = to;
+            }
+            builder.addEdge(from, first, -10 * (length - 1) - 1);
+            CsrGraph graph = builder.build();
+            assertThrows(IllegalArgumentException.class, () -> AllPairsShortestPaths.floydWarshall(graph, pool),
+                    "negative cycle " + i);
+        }
+    }
+
+    /**
+     * Paths longer than Floyd-Warshall's range: AUTO must use Dijkstra when it can, and
+     * Floyd-Warshall must refuse rather than report them unreachable.
+     */
+    @Test
+    void leavesPathsBeyondFloydWarshallsRangeToDijkstra() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(true);
+        builder.addEdge("A", "B", 1_500_000_000);
+        builder.addEdge("B", "A", 1);
+        CsrGraph graph = builder.build();
+        assertEquals(ApspMode.REPEATED_DIJKSTRA, AllPairsShortestPaths.resolve(graph, ApspMode.AUTO));
+        assertMatches("long paths (auto)", graph, AllPairsShortestPaths.compute(graph, ApspMode.AUTO), reference(graph));
+        assertThrows(IllegalArgumentException.class, () -> AllPairsShortestPaths.floydWarshall(graph, pool));
+
+        builder = new CsrGraph.Builder(true);
+        builder.addEdge("A", "B", 600_000_000);
+        builder.addEdge("B", "C", -1);
+        CsrGraph negative = builder.build();
+        assertThrows(IllegalArgumentException.class, () -> AllPairsShortestPaths.floydWarshall(negative, pool));
+    }
+
+    /**
+     * Checks every algorithm that applies to one graph, and the matrix file round trip.
+     */
+    private void verify(String name, CsrGraph graph) throws IOException {
+        long[] expected = reference(graph);
+        DistanceMatrix floydWarshall = AllPairsShortestPaths.floydWarshall(graph, pool);
+        assertMatches(name + " (Floyd-Warshall)", graph, floydWarshall, expected);
+        if (!hasNegativeWeight(graph)) {
+            assertMatches(name + " (repeated Dijkstra)", graph, AllPairsShortestPaths.repeatedDijkstra(graph), expected);
+        }
+        assertMatches(name + " (auto)", graph, AllPairsShortestPaths.compute(graph, ApspMode.AUTO), expected);
+
+        String file = directory.resolve("distances" + DistanceMatrix.EXTENSION).toString();
+        floydWarshall.write(file);
+        assertMatches(name + " (read back)", graph, DistanceMatrix.read(file), expected);
+        assertMatches(name + " (mapped)", graph, DistanceMatrix.map(file, true), expected);
+    }
+
+    private static void assertMatches(String name, CsrGraph graph, DistanceMatrix matrix, long[] expected) {
+        int numVertices = graph.vertexCount();
+        assertEquals(numVertices, matrix.vertexCount(), name + ": vertex count");
+        for (int u = 0; u < numVertices; u++) {
+            assertEquals(graph.label(u), matrix.label(u), name + ": label of vertex " + u);
+            for (int v = 0; v < numVertices; v++) {
+                long distance = expected[u * numVertices + v];
+                int want = distance == NO_PATH ? ShortestPathTree.UNREACHABLE : (int) distance;
+                assertEquals(want, matrix.distance(u, v), name + ": " + graph.label(u) + " -> " + graph.label(v));
+            }
+        }
+    }
+
+    /**
+     * Textbook Floyd-Warshall over longs, NO_PATH where there is no path.
+     */
+    private static long[] reference(CsrGraph graph) {
+        int numVertices = graph.vertexCount();
+        long[] d = new long[numVertices * numVertices];
+        Arrays.fill(d, NO_PATH);
+        for (int u = 0; u < numVertices; u++) {
+            d[u * numVertices + u] = 0;
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int index = u * numVertices + graph.target(arc);
+                d[index] = Math.min(d[index], graph.weight(arc));
+            }
+        }
+        for (int k = 0; k < numVertices; k++) {
+            for (int i = 0; i < numVertices; i++) {
+                if (d[i * numVertices + k] == NO_PATH) continue;
+                for (int j = 0; j < numVertices; j++) {
+                    if (d[k * numVertices + j] == NO_PATH) continue;
+                    d[i * numVertices + j] = Math.min(d[i * numVertices + j], d[i * numVertices + k] + d[k * numVertices + j]);
+                }
+            }
+        }
+        return d;
+    }
+
+    private static boolean hasNegativeWeight(CsrGraph graph) {
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            if (graph.weight(arc) < 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Directed graph whose arcs all go from a lower to a higher id, so that negative
+     * weights cannot form a cycle.
+     */
+    private static CsrGraph acyclicWithNegativeWeights(Random random, int numVertices) {
+        int numEdges = random.nextInt(numVertices * 5 + 1);
+        CsrGraph.Builder builder = new CsrGraph.Builder(true, numVertices, numEdges);
+        for (int v = 0; v < numVertices; v++) {
+            builder.labels().intern("v" + v);
+        }
+        for (int i = 0; i < numEdges && numVertices > 1; i++) {
+            int u = random.nextInt(numVertices - 1);
+            int v = u + 1 + random.nextInt(numVertices - 1 - u);
+            builder.addEdge(u, v, random.nextInt(40) - 15);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,89 @@
+package Algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unites random pairs from several threads at once and compares the sets and their
+ * sizes with DisjointSet fed the same pairs.
+ */
+class ConcurrentDisjointSetTest {
+
+    @Test
+    void sizesMatchDisjointSetAfterConcurrentUnions() throws Exception {
+        Random random = new Random(TestGraphs.SEED);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int round = 0; round < 50; round++) {
+                int numElements = 1 + random.nextInt(20_000);
+                int[][] pairs = new int[random.nextInt(numElements * 2)][];
+                for (int i = 0; i < pairs.length; i++) {
+                    pairs[i] = new int[] {random.nextInt(numElements), random.nextInt(numElements)};
+                }
+                ConcurrentDisjointSet concurrent = new ConcurrentDisjointSet(numElements);
+                pool.submit(() -> IntStream.range(0, pairs.length).parallel()
+                        .forEach(i -> concurrent.union(pairs[i][0], pairs[i][1]))).get();
+
+                DisjointSet expected = new DisjointSet(numElements);
+                for (int[] pair : pairs) {
+                    expected.union(pair[0], pair[1]);
+                }
+                String where = "round " + round;
+                assertEquals(expected.componentCount(), concurrent.componentCount(), where + ": component count");
+                for (int element = 0; element < numElements; element++) {
+                    assertEquals(expected.componentSize(element), concurrent.componentSize(element),
+                            where + ": size of the set of " + element);
+                }
+                for (int[] pair : pairs) {
+                    assertEquals(concurrent.find(pair[0]), concurrent.find(pair[1]), where + ": " + pair[0]
+                            + " and " + pair[1] + " apart");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Many threads started together on a few elements, so that roots get linked while
+     * the sizes of earlier links are still moving up to them. Such races are rare, so
+     * this catches a lost size only some of the time, but never fails a correct set.
+     */
+    @Test
+    void keepsEverySizeWhenRootsAreLinkedMidUnion() throws Exception {
+        Random random = new Random(TestGraphs.SEED);
+        int threadCount = 8;
+        for (int round = 0; round < 3000; round++) {
+            int numElements = 2 + random.nextInt(64);
+            ConcurrentDisjointSet set = new ConcurrentDisjointSet(numElements);
+            CyclicBarrier start = new CyclicBarrier(threadCount);
+            Thread[] threads = new Thread[threadCount];
+            for (int t = 0; t < threadCount; t++) {
+                Random pairs = new Random(random.nextLong());
+                threads[t] = Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    for (int i = 0; i < numElements; i++) {
+                        set.union(pairs.nextInt(numElements), pairs.nextInt(numElements));
+                    }
+                });
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            int total = 0;
+            for (int element = 0; element < numElements; element++) {
+                if (set.find(element) == element) total += set.componentSize(element);
+            }
+            assertEquals(numElements, total, "round " + round + ": sizes of all sets");
+        }
+    }
+}
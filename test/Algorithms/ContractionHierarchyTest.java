@@ -0,0 +1,86 @@
+package Algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares hierarchy distances and unpacked paths with Dijkstra, after a round trip
+ * through the serialized form: all pairs of the sample graphs, and sampled sources of
+ * random graphs.
+ */
+class ContractionHierarchyTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void matchesDijkstraForAllPairsOfTheSampleGraphs() throws IOException {
+        for (Map.Entry<String, CsrGraph> input : TestGraphs.inputs(false).entrySet()) {
+            verify(input.getKey(), input.getValue(), input.getValue().vertexCount());
+        }
+    }
+
+    @Test
+    void matchesDijkstraOnRandomGraphs() throws IOException {
+        Random random = new Random(TestGraphs.SEED);
+        for (int i = 0; i < 200; i++) {
+            int numVertices = 2 + random.nextInt(300);
+            int maxWeight = random.nextInt(4) == 0 ? 1 : 100;
+            CsrGraph graph = TestGraphs.random(random, numVertices, random.nextInt(numVertices * 4), maxWeight,
+                    random.nextBoolean());
+            verify("random graph " + i, graph, 10);
+        }
+    }
+
+    /**
+     * Checks one graph.
+     *
+     * name Description used in failure messages.
+     * graph Graph to check.
+     * sourceCount Number of sources to compare from; all pairs when it covers the graph.
+     */
+    private void verify(String name, CsrGraph graph, int sourceCount) throws IOException {
+        String file = directory.resolve("hierarchy.ch").toString();
+        ContractionHierarchy.build(graph).write(file);
+        ContractionHierarchy.Query query = ContractionHierarchy.read(file, graph).newQuery();
+        int numVertices = graph.vertexCount();
+        for (int i = 0; i < Math.min(sourceCount, numVertices); i++) {
+            int source = TestGraphs.spreadSource(i, sourceCount, numVertices);
+            DijkstraWorkspace expected = TestGraphs.dijkstra(graph, source);
+            for (int target = 0; target < numVertices; target++) {
+                String where = name + ": " + graph.label(source) + " -> " + graph.label(target);
+                int distance = expected.distance(target);
+                assertEquals(distance, query.distance(source, target), where + ": distance");
+                if (distance == ShortestPathTree.UNREACHABLE) continue;
+                int[] path = query.lastPath();
+                assertEquals(source, path[0], where + ": first vertex of the unpacked path");
+                assertEquals(target, path[path.length - 1], where + ": last vertex of the unpacked path");
+                assertEquals(distance, pathLength(graph, path), where + ": length of the unpacked path");
+            }
+        }
+    }
+
+    /**
+     * Length of a path over original arcs, or -1 if two consecutive vertices are not adjacent.
+     */
+    private static long pathLength(CsrGraph graph, int[] path) {
+        long length = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            long best = -1;
+            for (int arc = graph.firstArc(path[i]); arc < graph.endArc(path[i]); arc++) {
+                if (graph.target(arc) == path[i + 1] && (best < 0 || graph.weight(arc) < best)) {
+                    best = graph.weight(arc);
+                }
+            }
+            if (best < 0) return -1;
+            length += best;
+        }
+        return length;
+    }
+}
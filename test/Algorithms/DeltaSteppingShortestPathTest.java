@@ -0,0 +1,80 @@
+package Algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares DeltaSteppingShortestPath with DijkstraShortestPath over several bucket
+ * widths. Runs in a pool of four workers so that the compare-and-set relaxations race
+ * even on one core.
+ */
+class DeltaSteppingShortestPathTest {
+
+    private static final int[] DELTAS = {0, 1, 3, 100};
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void matchesDijkstraFromEverySourceOfTheSampleGraphs() throws IOException {
+        for (Map.Entry<String, CsrGraph> input : TestGraphs.inputs(false).entrySet()) {
+            verify(input.getKey(), input.getValue(), input.getValue().vertexCount());
+        }
+    }
+
+    @Test
+    void matchesDijkstraOnRandomGraphs() {
+        Random random = new Random(TestGraphs.SEED);
+        // Zero, unit, moderate and far larger than delta weights
+        int[] maxWeights = {0, 1, 50, 1_000_000};
+        for (int i = 0; i < 200; i++) {
+            int numVertices = 1 + random.nextInt(2000);
+            CsrGraph graph = TestGraphs.random(random, numVertices, random.nextInt(numVertices * 4),
+                    maxWeights[random.nextInt(maxWeights.length)], random.nextBoolean());
+            verify("random graph " + i, graph, 3);
+        }
+    }
+
+    /**
+     * Checks one graph with every bucket width in DELTAS. Parents must be Dijkstra's
+     * when all weights are positive, and any tight tree otherwise.
+     */
+    private static void verify(String name, CsrGraph graph, int sourceCount) {
+        int numVertices = graph.vertexCount();
+        boolean positiveWeights = true;
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            positiveWeights &= graph.weight(arc) > 0;
+        }
+        for (int delta : DELTAS) {
+            DeltaSteppingShortestPath solver = new DeltaSteppingShortestPath(graph, delta, pool);
+            String where = name + " (delta " + solver.getDelta() + ")";
+            for (int i = 0; i < Math.min(sourceCount, numVertices); i++) {
+                int source = TestGraphs.spreadSource(i, sourceCount, numVertices);
+                DijkstraWorkspace expected = TestGraphs.dijkstra(graph, source);
+                ShortestPathTree tree = solver.shortestPathTree(source);
+                TestGraphs.assertShortestPathTree(where, graph, source, expected, tree::distance, tree::parent);
+                if (positiveWeights) {
+                    for (int v = 0; v < numVertices; v++) {
+                        assertEquals(expected.parent(v), tree.parent(v), where + ": parent of " + graph.label(v));
+                    }
+                }
+            }
+        }
+    }
+}
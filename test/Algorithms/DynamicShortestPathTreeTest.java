@@ -0,0 +1,121 @@
+package Algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Applies random batches of weight increases, decreases, insertions and deletions to
+ * DynamicShortestPathTree and, after every applyUpdates, compares the tree with
+ * Dijkstra on the updated graph. The changed vertices reported must be exactly those
+ * whose distance moved.
+ */
+class DynamicShortestPathTreeTest {
+
+    @Test
+    void matchesDijkstraAfterUpdatesToTheSampleGraphs() throws IOException {
+        Random random = new Random(TestGraphs.SEED);
+        for (Map.Entry<String, CsrGraph> input : TestGraphs.inputs(false).entrySet()) {
+            CsrGraph graph = input.getValue();
+            int source = graph.sourceVertex() >= 0 ? graph.sourceVertex() : 0;
+            verify(input.getKey(), graph, source, random, 50);
+        }
+    }
+
+    @Test
+    void matchesDijkstraAfterUpdatesToRandomGraphs() {
+        Random random = new Random(TestGraphs.SEED);
+        for (int i = 0; i < 300; i++) {
+            int numVertices = 2 + random.nextInt(150);
+            // Unit weights and the zero weights of the updates make many ties
+            int maxWeight = random.nextInt(4) == 0 ? 1 : 30;
+            CsrGraph graph = TestGraphs.random(random, numVertices, 1 + random.nextInt(numVertices * 4), maxWeight,
+                    random.nextBoolean());
+            verify("random graph " + i, graph, random.nextInt(numVertices), random, 30);
+        }
+    }
+
+    /**
+     * Updates one graph in batches, checking the tree after each.
+     *
+     * name Description used in failure messages.
+     * graph Graph to start from.
+     * source Source vertex.
+     * random Source of the updates.
+     * batches Number of batches to apply.
+     */
+    private static void verify(String name, CsrGraph graph, int source, Random random, int batches) {
+        // Both ways in, so that the copied tree is covered as well
+        DynamicShortestPathTree tree = random.nextBoolean() ? DynamicShortestPathTree.of(graph, source)
+                : DynamicShortestPathTree.of(TestGraphs.dijkstra(graph, source).toShortestPathTree(graph));
+        int numVertices = graph.vertexCount();
+        int[] previous = new int[numVertices];
+        for (int batch = 0; batch < batches; batch++) {
+            String where = name + ", batch " + batch;
+            CsrGraph current = tree.toCsrGraph();
+            for (int v = 0; v < numVertices; v++) {
+                previous[v] = tree.distance(v);
+            }
+            int updates = 1 + random.nextInt(8);
+            for (int i = 0; i < updates; i++) {
+                update(where, tree, current, random);
+            }
+
+            int[] changed = tree.applyUpdates();
+            CsrGraph updated = tree.toCsrGraph();
+            TestGraphs.assertShortestPathTree(where, updated, source, TestGraphs.dijkstra(updated, source),
+                    tree::distance, tree::parent);
+            int[] expectedChanged = new int[numVertices];
+            int changedCount = 0;
+            for (int v = 0; v < numVertices; v++) {
+                if (tree.distance(v) != previous[v]) expectedChanged[changedCount++] = v;
+            }
+            assertArrayEquals(Arrays.copyOf(expectedChanged, changedCount), changed, where + ": changed vertices");
+        }
+    }
+
+    /**
+     * Makes one random change: deletes or reweights an existing edge, or sets or
+     * deletes the edge between two random vertices, which may insert one. Zero weights
+     * come up often so that paths tie.
+     */
+    private static void update(String where, DynamicShortestPathTree tree, CsrGraph current, Random random) {
+        int numVertices = current.vertexCount();
+        int u = random.nextInt(numVertices);
+        int v = random.nextInt(numVertices);
+        int operation = random.nextInt(4);
+        if (operation < 2 && current.arcCount() > 0) {
+            int arc = random.nextInt(current.arcCount());
+            u = tailOf(current, arc);
+            v = current.target(arc);
+        }
+        int weight = random.nextInt(6) == 0 ? 0 : random.nextInt(40);
+        if (operation == 0 || operation == 3) {
+            tree.removeEdge(u, v);
+            weight = -1;
+        } else {
+            tree.setWeight(u, v, weight);
+        }
+        assertEquals(weight, tree.weight(u, v),
+                where + ": weight of " + current.label(u) + " -> " + current.label(v) + " after the update");
+    }
+
+    private static int tailOf(CsrGraph graph, int arc) {
+        int low = 0;
+        int high = graph.vertexCount() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (graph.endArc(middle) <= arc) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,208 @@
+package Algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Inserts edges one at a time into DynamicTopologicalOrder and, after every insertion,
+ * compares the outcome with a breadth-first search on a plain copy of the graph: an
+ * edge must be rejected exactly when its head already reaches its tail, a rejected edge
+ * must come with a real cycle, and every accepted edge must point forward in the order.
+ */
+class DynamicTopologicalOrderTest {
+
+    @Test
+    void matchesSearchOnTheSampleGraphsTakenAsDirected() throws IOException {
+        Random random = new Random(TestGraphs.SEED);
+        for (Map.Entry<String, CsrGraph> input : TestGraphs.inputs(true).entrySet()) {
+            CsrGraph graph = input.getValue();
+            int[][] edges = new int[graph.arcCount()][];
+            for (int u = 0; u < graph.vertexCount(); u++) {
+                for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                    edges[arc] = new int[] {u, graph.target(arc)};
+                }
+            }
+            shuffle(random, edges);
+            verify(input.getKey(), new DynamicTopologicalOrder(graph.vertexCount()),
+                    new Reference(graph.vertexCount()), edges);
+        }
+    }
+
+    @Test
+    void matchesSearchOnRandomInsertions() {
+        Random random = new Random(TestGraphs.SEED);
+        for (int i = 0; i < 300; i++) {
+            int numVertices = 1 + random.nextInt(60);
+            DynamicTopologicalOrder order;
+            Reference reference = new Reference(numVertices);
+            if (random.nextBoolean()) {
+                // Grow from fewer vertices, so addVertex is covered too
+                order = new DynamicTopologicalOrder(random.nextInt(numVertices + 1));
+                while (order.vertexCount() < numVertices) order.addVertex();
+            } else {
+                order = DynamicTopologicalOrder.of(randomDag(random, numVertices, reference));
+            }
+            int[][] edges = new int[numVertices * 4][];
+            for (int e = 0; e < edges.length; e++) {
+                edges[e] = new int[] {random.nextInt(numVertices), random.nextInt(numVertices)};
+            }
+            verify("random graph " + i, order, reference, edges);
+        }
+    }
+
+    /**
+     * Inserts edges into an order and its reference copy, checking after each one.
+     *
+     * name Description used in failure messages.
+     * order Order under test.
+     * reference Plain copy of the graph the order holds.
+     * edges Pairs (u, v) to insert as u -> v.
+     */
+    private static void verify(String name, DynamicTopologicalOrder order, Reference reference, int[][] edges) {
+        long accepted = order.edgeCount();
+        long rejected = order.getRejectedCount();
+        assertOrdered(name, order, reference);
+        for (int[] edge : edges) {
+            int u = edge[0];
+            int v = edge[1];
+            String where = name + ": " + u + " -> " + v;
+            boolean closesCycle = reference.reaches(v, u);
+            assertEquals(closesCycle, order.wouldCloseCycle(u, v), where + ": wouldCloseCycle");
+            if (order.addEdge(u, v)) {
+                assertFalse(closesCycle, where + ": accepted, but closes a cycle");
+                reference.add(u, v);
+                accepted++;
+            } else {
+                assertTrue(closesCycle, where + ": rejected, but closes no cycle");
+                assertCycle(where, order.getLastCycle(), reference, u, v);
+                rejected++;
+            }
+            assertOrdered(where, order, reference);
+        }
+        assertEquals(accepted, order.edgeCount(), name + ": edge count");
+        assertEquals(rejected, order.getRejectedCount(), name + ": rejected count");
+    }
+
+    /**
+     * Checks that positions and vertices are inverse permutations and that every edge
+     * points forward.
+     */
+    private static void assertOrdered(String where, DynamicTopologicalOrder order, Reference reference) {
+        int[] sorted = new int[reference.vertexCount()];
+        for (int position = 0; position < sorted.length; position++) {
+            sorted[position] = order.vertexAt(position);
+            assertEquals(position, order.position(sorted[position]), where + ": position of " + sorted[position]);
+        }
+        assertArrayEquals(sorted, order.order(), where + ": order()");
+        for (int u = 0; u < reference.vertexCount(); u++) {
+            for (int v : reference.successors.get(u)) {
+                assertTrue(order.position(u) < order.position(v), where + ": edge " + u + " -> " + v + " points backward");
+            }
+        }
+    }
+
+    /**
+     * Checks that a reported cycle runs from v to u over edges of the graph, so that
+     * u -> v closes it.
+     */
+    private static void assertCycle(String where, int[] cycle, Reference reference, int u, int v) {
+        boolean valid = cycle.length > 0 && cycle[0] == v && cycle[cycle.length - 1] == u;
+        for (int i = 0; valid && i + 1 < cycle.length; i++) {
+            valid = reference.successors.get(cycle[i]).contains(cycle[i + 1]);
+        }
+        assertTrue(valid, where + ": reported cycle is not a path from " + v + " to " + u);
+    }
+
+    /**
+     * Random DAG whose edges all point forward in a random permutation of the vertices,
+     * recorded in reference as well.
+     */
+    private static CsrGraph randomDag(Random random, int numVertices, Reference reference) {
+        int[] rank = new int[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            rank[v] = v;
+        }
+        for (int i = numVertices - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = rank[i];
+            rank[i] = rank[j];
+            rank[j] = swap;
+        }
+        CsrGraph.Builder builder = new CsrGraph.Builder(true, numVertices, numVertices * 2);
+        for (int v = 0; v < numVertices; v++) {
+            builder.labels().intern("v" + v);
+        }
+        for (int i = 0; i < numVertices * 2; i++) {
+            int a = random.nextInt(numVertices);
+            int b = random.nextInt(numVertices);
+            if (rank[a] == rank[b]) continue;
+            builder.addEdge(rank[a] < rank[b] ? a : b, rank[a] < rank[b] ? b : a, 1);
+        }
+        CsrGraph graph = builder.build();
+        // Read the edges back with the ids of the built graph
+        for (int u = 0; u < numVertices; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                reference.add(u, graph.target(arc));
+            }
+        }
+        return graph;
+    }
+
+    private static void shuffle(Random random, int[][] values) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int[] swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    /**
+     * The graph as plain adjacency lists, searched from scratch for every question.
+     */
+    private static final class Reference {
+        final List<List<Integer>> successors = new ArrayList<>();
+
+        Reference(int vertexCount) {
+            for (int v = 0; v < vertexCount; v++) {
+                successors.add(new ArrayList<>());
+            }
+        }
+
+        int vertexCount() {
+            return successors.size();
+        }
+
+        void add(int u, int v) {
+            successors.get(u).add(v);
+        }
+
+        boolean reaches(int from, int to) {
+            boolean[] seen = new boolean[vertexCount()];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            seen[from] = true;
+            queue.add(from);
+            while (!queue.isEmpty()) {
+                int vertex = queue.poll();
+                if (vertex == to) return true;
+                for (int next : successors.get(vertex)) {
+                    if (!seen[next]) {
+                        seen[next] = true;
+                        queue.add(next);
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
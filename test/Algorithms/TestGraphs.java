@@ -0,0 +1,111 @@
+package Algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Graphs and checks shared by the randomized tests: the sample graphs in ./ipfiles,
+ * seeded random graphs, and the shortest path tree properties that hold whatever
+ * algorithm built the tree.
+ */
+final class TestGraphs {
+
+    // Every randomized test starts from this seed, so a failure reproduces
+    static final long SEED = 42;
+
+    private TestGraphs() {
+    }
+
+    /**
+     * Reads every graph in ./ipfiles, by path.
+     *
+     * asDirected Whether to treat undirected files as directed.
+     * return The graphs, in file name order.
+     */
+    static Map<String, CsrGraph> inputs(boolean asDirected) throws IOException {
+        File[] files = new File("./ipfiles").listFiles((dir, name) -> name.endsWith(".txt"));
+        assertTrue(files != null && files.length > 0, "No graphs in ./ipfiles");
+        Arrays.sort(files);
+        Map<String, CsrGraph> graphs = new LinkedHashMap<>();
+        for (File file : files) {
+            graphs.put(file.getPath(), GraphFileReader.read(file.getPath(), asDirected));
+        }
+        return graphs;
+    }
+
+    /**
+     * Random graph with labels v0 .. v(numVertices - 1); self loops and parallel arcs allowed.
+     */
+    static CsrGraph random(Random random, int numVertices, int numEdges, int maxWeight, boolean directed) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(directed, numVertices, numEdges);
+        for (int v = 0; v < numVertices; v++) {
+            builder.labels().intern("v" + v);
+        }
+        for (int i = 0; i < numEdges; i++) {
+            builder.addEdge(random.nextInt(numVertices), random.nextInt(numVertices), random.nextInt(maxWeight + 1));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Source spread evenly over the vertex ids, or vertex i itself when every vertex is
+     * a source.
+     */
+    static int spreadSource(int i, int sourceCount, int numVertices) {
+        return sourceCount >= numVertices ? i : (int) ((long) i * numVertices / sourceCount);
+    }
+
+    /**
+     * Checks a tree against the distances of Dijkstra on the same graph: equal
+     * distances, no parent for unreachable vertices, and parents that lead back to the
+     * source over tight arcs without repeating a vertex.
+     *
+     * where Description used in failure messages.
+     * graph Graph the tree belongs to.
+     * source Source vertex.
+     * expected Distances from Dijkstra.
+     * distances Distance per vertex of the tree under test.
+     * parents Parent per vertex of the tree under test.
+     */
+    static void assertShortestPathTree(String where, CsrGraph graph, int source, DijkstraWorkspace expected,
+                                       IntUnaryOperator distances, IntUnaryOperator parents) {
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            String at = where + ": " + graph.label(source) + " -> " + graph.label(v);
+            assertEquals(expected.distance(v), distances.applyAsInt(v), at + ": distance");
+            if (distances.applyAsInt(v) == ShortestPathTree.UNREACHABLE) {
+                assertEquals(-1, parents.applyAsInt(v), at + ": parent of an unreachable vertex");
+                continue;
+            }
+            for (int hops = 0, u = v; u != source; hops++) {
+                int parent = parents.applyAsInt(u);
+                if (parent < 0 || hops >= graph.vertexCount()
+                        || !isTight(graph, parent, u, distances.applyAsInt(parent), distances.applyAsInt(u))) {
+                    fail(at + ": parents do not form a shortest path tree at " + graph.label(u));
+                }
+                u = parent;
+            }
+        }
+    }
+
+    private static boolean isTight(CsrGraph graph, int from, int to, int fromDistance, int toDistance) {
+        for (int arc = graph.firstArc(from); arc < graph.endArc(from); arc++) {
+            if (graph.target(arc) == to && (long) fromDistance + graph.weight(arc) == toDistance) return true;
+        }
+        return false;
+    }
+
+    static DijkstraWorkspace dijkstra(CsrGraph graph, int source) {
+        DijkstraWorkspace workspace = new DijkstraWorkspace(graph.vertexCount(), HeapType.BINARY);
+        DijkstraShortestPath.calculateShortestPaths(graph, source, workspace);
+        return workspace;
+    }
+}